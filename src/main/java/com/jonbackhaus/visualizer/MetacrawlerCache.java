@@ -0,0 +1,127 @@
+package com.jonbackhaus.visualizer;
+
+import com.nomagic.magicdraw.core.Project;
+import com.nomagic.magicdraw.core.project.ProjectEventListenerAdapter;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Project-scoped cache of Metacrawler property accessors per element class.
+ * Each project has its own LRU-bounded cache, dropped when the project is closed
+ * or replaced, so no metamodel objects outlive the project they came from.
+ * Accessors are compiled from the UML metaclass only; stereotypes and tagged
+ * values are not among them, so profile changes do not affect the cache.
+ * Hit, miss, eviction and load-time counters
+ * are kept for the whole session and logged whenever a project cache is dropped.
+ */
+public class MetacrawlerCache {
+
+    private static final int MAX_ENTRIES = Integer.getInteger("visualizer.metacrawler.cacheSize", 256);
+
+    private static final MetacrawlerCache INSTANCE = new MetacrawlerCache();
+
+    // Guarded by this
+    private final Map<Project, Map<java.lang.Class<?>, List<MetacrawlerPropertyAccessor>>> projects = new HashMap<>();
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long loadNanos;
+
+    private MetacrawlerCache() {
+    }
+
+    public static MetacrawlerCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Listener that drops the cache of a project when it is closed or replaced.
+     */
+    public ProjectEventListenerAdapter createProjectListener() {
+        return new ProjectEventListenerAdapter() {
+            @Override
+            public void projectClosed(Project project) {
+                clear(project);
+            }
+
+            @Override
+            public void projectReplaced(Project oldProject, Project newProject) {
+                clear(oldProject);
+                clear(newProject);
+            }
+        };
+    }
+
+    /**
+     * Cached accessors of an element class, loaded outside the lock on a miss.
+     */
+    List<MetacrawlerPropertyAccessor> get(Project project, java.lang.Class<?> elementClass,
+            Function<java.lang.Class<?>, List<MetacrawlerPropertyAccessor>> loader) {
+        synchronized (this) {
+            List<MetacrawlerPropertyAccessor> cached = cacheOf(project).get(elementClass);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        long start = System.nanoTime();
+        List<MetacrawlerPropertyAccessor> loaded = loader.apply(elementClass);
+        long elapsed = System.nanoTime() - start;
+
+        synchronized (this) {
+            loadNanos += elapsed;
+            cacheOf(project).put(elementClass, loaded);
+        }
+        return loaded;
+    }
+
+    private Map<java.lang.Class<?>, List<MetacrawlerPropertyAccessor>> cacheOf(Project project) {
+        return projects.computeIfAbsent(project, p -> new LinkedHashMap<java.lang.Class<?>, List<MetacrawlerPropertyAccessor>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<java.lang.Class<?>, List<MetacrawlerPropertyAccessor>> eldest) {
+                if (size() > MAX_ENTRIES) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    public synchronized void clear(Project project) {
+        if (project != null && projects.remove(project) != null) {
+            VisualizerLog.info("Metacrawler cache cleared for " + project.getName() + " (" + getStats() + ")");
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getLoadNanos() {
+        return loadNanos;
+    }
+
+    /**
+     * One-line summary of the counters.
+     */
+    public synchronized String getStats() {
+        long lookups = hits + misses;
+        return String.format("%d hits, %d misses (%.1f%% hit rate), %d evictions, %.1f ms loading",
+                hits, misses, lookups == 0 ? 0.0 : 100.0 * hits / lookups, evictions, loadNanos / 1e6);
+    }
+}
@@ -0,0 +1,44 @@
+package com.jonbackhaus.visualizer;
+
+import com.nomagic.magicdraw.actions.MDAction;
+import com.nomagic.magicdraw.ui.ProgressStatusRunner;
+import com.nomagic.magicdraw.ui.dialogs.MDDialogParentProvider;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+
+import javax.swing.*;
+import java.awt.event.ActionEvent;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches the metamodel references between two selected elements in the
+ * background and shows the shortest chains.
+ */
+public class MetacrawlerPathAction extends MDAction {
+
+    private static final int MAX_HOPS = Integer.getInteger("visualizer.metacrawler.pathHops", 6);
+    private static final int TIME_LIMIT_SECONDS = Integer.getInteger("visualizer.metacrawler.pathSeconds", 10);
+    private static final int MAX_VISITED = 500000;
+    private static final int MAX_PATHS = 20;
+
+    private final Element start;
+    private final Element goal;
+
+    public MetacrawlerPathAction(Element start, Element goal) {
+        super("METACRAWLER_FIND_PATHS", "Find Metacrawler Paths...", null, null);
+        this.start = start;
+        this.goal = goal;
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        java.awt.Window parent = MDDialogParentProvider.getProvider().getDialogOwner();
+        MetacrawlerPathFinder finder = new MetacrawlerPathFinder(MAX_HOPS,
+                TimeUnit.SECONDS.toNanos(TIME_LIMIT_SECONDS), MAX_VISITED, MAX_PATHS);
+
+        ProgressStatusRunner.runWithProgressStatus(progress -> {
+            progress.setIndeterminate(true);
+            MetacrawlerPathFinder.Result result = finder.find(start, goal, progress);
+            SwingUtilities.invokeLater(() -> new MetacrawlerPathsDialog(parent, start, goal, result).setVisible(true));
+        }, "Finding Metacrawler Paths", true, 0);
+    }
+}
@@ -0,0 +1,220 @@
+package com.jonbackhaus.visualizer;
+
+import com.nomagic.task.ProgressStatus;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the shortest chains of metamodel references between two elements.
+ * Runs a bidirectional breadth-first search over the references enumerated by
+ * the cached Metacrawler property accessors: one side follows references out of
+ * the start element, the other out of the goal element, and the shortest chains
+ * through the elements where the two sides meet first are reported. The search stops at a
+ * maximum number of hops, a time limit or a visited-element limit.
+ */
+public class MetacrawlerPathFinder {
+
+    /**
+     * One chain from the start to the goal element.
+     */
+    public static class Path {
+        private final List<Element> elements;
+        private final List<String> properties;
+        private final List<Boolean> forward;
+
+        Path(List<Element> elements, List<String> properties, List<Boolean> forward) {
+            this.elements = elements;
+            this.properties = properties;
+            this.forward = forward;
+        }
+
+        /** Elements from start to goal. */
+        public List<Element> getElements() {
+            return elements;
+        }
+
+        /** Property of hop i, between element i and element i + 1. */
+        public String getProperty(int hop) {
+            return properties.get(hop);
+        }
+
+        /**
+         * Whether hop i is a reference of element i to element i + 1,
+         * rather than of element i + 1 to element i.
+         */
+        public boolean isForward(int hop) {
+            return forward.get(hop);
+        }
+
+        public int getHops() {
+            return properties.size();
+        }
+    }
+
+    /**
+     * Chains found and why the search ended.
+     */
+    public static class Result {
+        private final List<Path> paths;
+        private final int visited;
+        private final String limitReached;
+
+        Result(List<Path> paths, int visited, String limitReached) {
+            this.paths = paths;
+            this.visited = visited;
+            this.limitReached = limitReached;
+        }
+
+        public List<Path> getPaths() {
+            return paths;
+        }
+
+        public int getVisited() {
+            return visited;
+        }
+
+        /** Description of the limit that stopped the search, or null if it completed. */
+        public String getLimitReached() {
+            return limitReached;
+        }
+    }
+
+    // How an element was reached: the neighbour one hop closer to the side's origin
+    static class Link {
+        final Element neighbour;
+        final String property;
+
+        Link(Element neighbour, String property) {
+            this.neighbour = neighbour;
+            this.property = property;
+        }
+    }
+
+    private final int maxHops;
+    private final long timeLimitNanos;
+    private final int maxVisited;
+    private final int maxPaths;
+
+    public MetacrawlerPathFinder(int maxHops, long timeLimitNanos, int maxVisited, int maxPaths) {
+        this.maxHops = maxHops;
+        this.timeLimitNanos = timeLimitNanos;
+        this.maxVisited = maxVisited;
+        this.maxPaths = maxPaths;
+    }
+
+    public Result find(Element start, Element goal, ProgressStatus progress) {
+        if (start == goal) {
+            return new Result(Collections.singletonList(new Path(Collections.singletonList(start),
+                    Collections.emptyList(), Collections.emptyList())), 1, null);
+        }
+
+        long deadline = System.nanoTime() + timeLimitNanos;
+        Map<Element, Link> fromStart = new IdentityHashMap<>();
+        Map<Element, Link> fromGoal = new IdentityHashMap<>();
+        fromStart.put(start, null);
+        fromGoal.put(goal, null);
+        List<Element> startFrontier = Collections.singletonList(start);
+        List<Element> goalFrontier = Collections.singletonList(goal);
+
+        List<Element> meetings = new ArrayList<>();
+        String limitReached = null;
+        for (int hops = 0; hops < maxHops && meetings.isEmpty(); hops++) {
+            // Expand the smaller side by one level
+            boolean expandStart = startFrontier.size() <= goalFrontier.size();
+            Map<Element, Link> own = expandStart ? fromStart : fromGoal;
+            Map<Element, Link> other = expandStart ? fromGoal : fromStart;
+            List<Element> frontier = expandStart ? startFrontier : goalFrontier;
+            if (frontier.isEmpty()) {
+                break;
+            }
+
+            List<Element> next = new ArrayList<>();
+            for (Element element : frontier) {
+                if (progress != null && progress.isCancel()) {
+                    limitReached = "cancelled";
+                } else if (System.nanoTime() > deadline) {
+                    limitReached = "time limit";
+                } else if (fromStart.size() + fromGoal.size() > maxVisited) {
+                    limitReached = "visited element limit";
+                }
+                if (limitReached != null) break;
+
+                MetacrawlerService.visitReferences(element, (property, target) -> {
+                    if (own.containsKey(target)) return;
+                    own.put(target, new Link(element, property.getName()));
+                    next.add(target);
+                    if (other.containsKey(target)) {
+                        meetings.add(target);
+                    }
+                });
+            }
+            if (limitReached != null) break;
+
+            if (expandStart) {
+                startFrontier = next;
+            } else {
+                goalFrontier = next;
+            }
+            if (progress != null) {
+                progress.setDescription("Searched " + (hops + 1) + " hops, " + (fromStart.size() + fromGoal.size()) + " elements");
+            }
+        }
+        if (meetings.isEmpty() && limitReached == null) {
+            limitReached = maxHops + " hops";
+        }
+
+        // A meeting element may sit at any depth of the other side, so only the
+        // chains of the fewest hops are kept
+        List<Path> paths = new ArrayList<>();
+        int shortest = Integer.MAX_VALUE;
+        for (Element meeting : meetings) {
+            Path path = buildPath(meeting, fromStart, fromGoal);
+            if (path.getHops() < shortest) {
+                shortest = path.getHops();
+                paths.clear();
+            }
+            if (path.getHops() == shortest && paths.size() < maxPaths) {
+                paths.add(path);
+            }
+        }
+        return new Result(paths, fromStart.size() + fromGoal.size(), meetings.isEmpty() ? limitReached : null);
+    }
+
+    static Path buildPath(Element meeting, Map<Element, Link> fromStart, Map<Element, Link> fromGoal) {
+        List<Element> elements = new ArrayList<>();
+        List<String> properties = new ArrayList<>();
+        List<Boolean> forward = new ArrayList<>();
+
+        // Start side, collected backwards: neighbour.property refers to the element
+        for (Element e = meeting; fromStart.get(e) != null; e = fromStart.get(e).neighbour) {
+            elements.add(e);
+            properties.add(fromStart.get(e).property);
+            forward.add(true);
+        }
+        elements.add(firstOf(meeting, fromStart));
+        Collections.reverse(elements);
+        Collections.reverse(properties);
+
+        // Goal side: neighbour.property refers to the element, i.e. the hop points back
+        for (Element e = meeting; fromGoal.get(e) != null; e = fromGoal.get(e).neighbour) {
+            Link link = fromGoal.get(e);
+            elements.add(link.neighbour);
+            properties.add(link.property);
+            forward.add(false);
+        }
+        return new Path(elements, properties, forward);
+    }
+
+    private static Element firstOf(Element element, Map<Element, Link> links) {
+        Element e = element;
+        while (links.get(e) != null) {
+            e = links.get(e).neighbour;
+        }
+        return e;
+    }
+}
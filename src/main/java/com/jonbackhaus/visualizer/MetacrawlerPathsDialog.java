@@ -0,0 +1,80 @@
+package com.jonbackhaus.visualizer;
+
+import com.nomagic.magicdraw.uml.RepresentationTextCreator;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Shows the chains found by {@link MetacrawlerPathFinder}, one row per chain.
+ * Every element of a chain is a link that selects it in the containment tree.
+ */
+public class MetacrawlerPathsDialog extends JDialog {
+
+    public MetacrawlerPathsDialog(Window owner, Element start, Element goal, MetacrawlerPathFinder.Result result) {
+        super(owner, "Metacrawler Paths", ModalityType.MODELESS);
+
+        JPanel rows = new JPanel();
+        rows.setLayout(new BoxLayout(rows, BoxLayout.Y_AXIS));
+        for (MetacrawlerPathFinder.Path path : result.getPaths()) {
+            rows.add(createChain(path));
+        }
+
+        String summary;
+        if (result.getPaths().isEmpty()) {
+            summary = String.format("No path from %s to %s found before the %s was reached (%,d elements searched).",
+                    label(start), label(goal), result.getLimitReached(), result.getVisited());
+        } else {
+            summary = String.format("%d shortest path%s of %d hops (%,d elements searched)",
+                    result.getPaths().size(), result.getPaths().size() == 1 ? "" : "s",
+                    result.getPaths().get(0).getHops(), result.getVisited());
+        }
+
+        JPanel content = new JPanel(new BorderLayout(0, 5));
+        content.setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+        content.add(new JLabel(summary), BorderLayout.NORTH);
+        JScrollPane scrollPane = new JScrollPane(rows);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        content.add(scrollPane, BorderLayout.CENTER);
+        setContentPane(content);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        setSize(720, 400);
+        setLocationRelativeTo(owner);
+    }
+
+    private static JPanel createChain(MetacrawlerPathFinder.Path path) {
+        JPanel chain = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 2));
+        chain.setAlignmentX(Component.LEFT_ALIGNMENT);
+        for (int i = 0; i < path.getElements().size(); i++) {
+            if (i > 0) {
+                // Arrow points from the element that owns the reference
+                String property = path.getProperty(i - 1);
+                JLabel hop = new JLabel(path.isForward(i - 1)
+                        ? "\u2014" + property + "\u2192"
+                        : "\u2190" + property + "\u2014");
+                hop.setForeground(Color.GRAY);
+                chain.add(hop);
+            }
+            chain.add(createLink(path.getElements().get(i)));
+        }
+        chain.setMaximumSize(new Dimension(Integer.MAX_VALUE, chain.getPreferredSize().height));
+        return chain;
+    }
+
+    private static JButton createLink(Element element) {
+        String text = label(element);
+        JButton link = new JButton("<html><u>" + text.replace("&", "&amp;").replace("<", "&lt;") + "</u></html>");
+        link.setBorderPainted(false);
+        link.setContentAreaFilled(false);
+        link.setMargin(new Insets(0, 0, 0, 0));
+        link.setForeground(new Color(0x1f, 0x5f, 0xbf));
+        link.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        link.addActionListener(e -> new MetacrawlerAction(element, text).actionPerformed(e));
+        return link;
+    }
+
+    private static String label(Element element) {
+        return RepresentationTextCreator.getRepresentedText(element);
+    }
+}
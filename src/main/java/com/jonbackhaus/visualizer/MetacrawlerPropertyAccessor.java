@@ -0,0 +1,129 @@
+package com.jonbackhaus.visualizer;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import javax.jmi.reflect.RefObject;
+import org.omg.mof.model.ModelElement;
+import org.omg.mof.model.MultiplicityType;
+import org.omg.mof.model.StructuralFeature;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Precompiled access to one metamodel property of one element class.
+ * Name, id and multiplicity are read from the MOF definition once; values are read
+ * through the generated getter when the implementation class has a public one,
+ * otherwise through {@code refGetValue} with the feature itself rather than its name.
+ */
+public class MetacrawlerPropertyAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final String id;
+    private final String name;
+    private final boolean many;
+    private final RefObject feature;
+    // Null when the value has to be read reflectively
+    private final MethodHandle getter;
+
+    private MetacrawlerPropertyAccessor(String id, String name, boolean many, RefObject feature, MethodHandle getter) {
+        this.id = id;
+        this.name = name;
+        this.many = many;
+        this.feature = feature;
+        this.getter = getter;
+    }
+
+    /**
+     * Compile an accessor for a property definition, or return null if the
+     * definition cannot be read.
+     */
+    static MetacrawlerPropertyAccessor compile(ModelElement propDef, java.lang.Class<?> elementClass) {
+        String name;
+        String id;
+        boolean many = true;
+        try {
+            name = propDef.getName();
+            id = propDef.refMofId();
+            if (propDef instanceof StructuralFeature) {
+                MultiplicityType multiplicity = ((StructuralFeature) propDef).getMultiplicity();
+                many = multiplicity.getUpper() < 0 || multiplicity.getUpper() > 1;
+            }
+        } catch (Exception e) {
+            return null;
+        }
+        if (name == null) {
+            return null;
+        }
+        return new MetacrawlerPropertyAccessor(id, name, many, propDef, findGetter(elementClass, name));
+    }
+
+    /**
+     * Public no-argument getter following the generated naming: isX, getX and
+     * get_x for derived properties such as {@code _relationshipOfRelatedElement}.
+     */
+    private static MethodHandle findGetter(java.lang.Class<?> elementClass, String name) {
+        String capitalized = name.isEmpty() ? name : Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        String[] candidates = name.startsWith("is") || name.startsWith("_")
+                ? new String[] { name, "get" + name, "get" + capitalized }
+                : new String[] { "get" + capitalized };
+        for (String candidate : candidates) {
+            try {
+                Method method = elementClass.getMethod(candidate);
+                if (method.getReturnType() == void.class || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                    continue;
+                }
+                return MethodHandles.publicLookup().unreflect(method).asType(GETTER_TYPE);
+            } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+                // Try the next naming convention
+            }
+        }
+        return null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Raw property value, or null if it cannot be read.
+     */
+    Object getValue(Element element) {
+        try {
+            if (getter != null) {
+                return (Object) getter.invokeExact((Object) element);
+            }
+            return ((RefObject) element).refGetValue(feature);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    /**
+     * Number of elements the property refers to, without copying its value.
+     * Collections are counted by size when their first item is an element.
+     */
+    int countTargets(Element element) {
+        Object value = getValue(element);
+        if (!many || !(value instanceof Collection)) {
+            return value instanceof Element ? 1 : 0;
+        }
+        Collection<?> items = (Collection<?>) value;
+        try {
+            Iterator<?> it = items.iterator();
+            return it.hasNext() && it.next() instanceof Element ? items.size() : 0;
+        } catch (RuntimeException e) {
+            // Live collection modified while it was read
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.jonbackhaus.visualizer;
+
+import com.nomagic.actions.ActionsCategory;
+import com.nomagic.actions.NMAction;
+import com.nomagic.magicdraw.actions.MDAction;
+import com.nomagic.magicdraw.ui.dialogs.MDDialogParentProvider;
+import com.nomagic.magicdraw.uml.RepresentationTextCreator;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.event.ActionEvent;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metacrawler submenu for one property of an element.
+ * Created with a cheap count only; the targets are resolved and their actions
+ * built the first time the submenu asks for its actions, and kept for the rest
+ * of the menu session (a new category is created for every context menu).
+ * At most one page of targets is put in the menu, within a time budget that keeps
+ * the EDT responsive; the rest are reached through a "More..." entry.
+ * The budget is shared by every category resolved while one EDT event is dispatched,
+ * so it holds even when all submenus of a menu are built at once.
+ */
+public class MetacrawlerPropertyCategory extends ActionsCategory {
+
+    private static final int PAGE_SIZE = Integer.getInteger("visualizer.metacrawler.pageSize", 50);
+    // Time the EDT may spend resolving and labelling targets per event, well within a frame
+    private static final long PAGE_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // EDT event the budget is being spent in, and how much of it is used (EDT only)
+    private static AWTEvent budgetEvent;
+    private static long budgetSpentNanos;
+
+    private final Element element;
+    private final MetacrawlerPropertyAccessor accessor;
+    private final int count;
+    private boolean resolved = false;
+
+    public MetacrawlerPropertyCategory(MetacrawlerPropertyAccessor accessor, int count, Element element) {
+        super(accessor.getId(), accessor.getName() + " (" + count + ")");
+        this.element = element;
+        this.accessor = accessor;
+        this.count = count;
+        setNested(true);
+    }
+
+    @Override
+    public List<NMAction> getActions() {
+        if (!resolved) {
+            resolved = true;
+            long start = System.nanoTime();
+            long budget = remainingBudgetNanos();
+            long deadline = start + budget;
+            int added = 0;
+            if (budget > 0) {
+                for (Element target : MetacrawlerService.getTargetPage(element, accessor, PAGE_SIZE, budget)) {
+                    if (System.nanoTime() > deadline) break;
+                    String targetLabel = RepresentationTextCreator.getRepresentedText(target);
+
+                    // Add action to select this target
+                    addAction(new MetacrawlerAction(target, targetLabel));
+                    added++;
+                }
+            }
+            budgetSpentNanos += System.nanoTime() - start;
+            if (added < count) {
+                addAction(new MoreAction(getID(), element, accessor, count));
+            }
+        }
+        return super.getActions();
+    }
+
+    /**
+     * Budget left in the EDT event being dispatched; a new event starts a new budget.
+     */
+    private static long remainingBudgetNanos() {
+        AWTEvent event = EventQueue.getCurrentEvent();
+        if (event == null || event != budgetEvent) {
+            budgetEvent = event;
+            budgetSpentNanos = 0;
+        }
+        return PAGE_BUDGET_NANOS - budgetSpentNanos;
+    }
+
+    /**
+     * Opens all targets of the property in a searchable list.
+     */
+    private static class MoreAction extends MDAction {
+        private final Element element;
+        private final MetacrawlerPropertyAccessor accessor;
+        private final int count;
+
+        MoreAction(String id, Element element, MetacrawlerPropertyAccessor accessor, int count) {
+            super(id + "_MORE", String.format("More\u2026 (%,d)", count), null, null);
+            this.element = element;
+            this.accessor = accessor;
+            this.count = count;
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            java.awt.Window parent = MDDialogParentProvider.getProvider().getDialogOwner();
+            new MetacrawlerTargetsDialog(parent, element, accessor, count).open();
+        }
+    }
+}
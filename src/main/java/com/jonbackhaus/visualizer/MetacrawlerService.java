@@ -1,7 +1,7 @@
 package com.jonbackhaus.visualizer;
 
 import com.nomagic.actions.ActionsCategory;
-import com.nomagic.magicdraw.uml.RepresentationTextCreator;
+import com.nomagic.magicdraw.core.Project;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
 import javax.jmi.reflect.RefObject;
 import org.omg.mof.model.MofAttribute;
@@ -9,78 +9,95 @@ import org.omg.mof.model.Reference;
 import org.omg.mof.model.ModelElement;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 public class MetacrawlerService {
 
-    // Global cache for metamodel properties (once discovered, they don't change).
-    private static final Map<String, List<ModelElement>> metamodelCache = new ConcurrentHashMap<>();
-
     /**
      * Populates the Metacrawler menu for the immediate next level only.
      * Structure: Element -> Properties -> Target Elements (Actions)
+     * Only property values and their sizes are read here; target actions are
+     * built by {@link MetacrawlerPropertyCategory} when a submenu is opened.
      */
     public static void populatePropertyMenu(ActionsCategory parentCategory, Element element) {
         if (element == null)
             return;
 
-        // Get a snapshot of the properties to be absolutely safe from concurrent
-        // modification
-        List<ModelElement> properties = new ArrayList<>(getCachedMetamodelProperties(element));
-
-        for (ModelElement propDef : properties) {
-            String propName = "";
-            try {
-                propName = propDef.getName();
-            } catch (Exception e) {
+        // The cached list is immutable, so it is safe to iterate directly
+        for (MetacrawlerPropertyAccessor accessor : getAccessors(element)) {
+            int count = accessor.countTargets(element);
+            if (count == 0)
                 continue;
-            }
 
-            // getTargetElements already returns a fresh ArrayList snapshot
-            List<Element> targets = getTargetElements(element, propName);
-            if (targets.isEmpty())
-                continue;
-
-            // Property Submenu
-            ActionsCategory propertyCategory = new ActionsCategory(propDef.refMofId(), propName);
-            propertyCategory.setNested(true);
+            // Property Submenu, filled when opened
+            parentCategory.addAction(new MetacrawlerPropertyCategory(accessor, count, element));
+        }
+    }
 
-            for (Element target : targets) {
-                String targetLabel = RepresentationTextCreator.getRepresentedText(target);
+    /**
+     * Receives the element references of an element, one call per property and target.
+     */
+    public interface ReferenceVisitor {
+        void visit(MetacrawlerPropertyAccessor property, Element target);
+    }
 
-                // Add action to select this target
-                propertyCategory.addAction(new MetacrawlerAction(target, targetLabel));
+    /**
+     * Visit every element referenced through the cached metamodel properties of
+     * an element. Collections are snapshotted, so live model changes are tolerated.
+     */
+    public static void visitReferences(Element element, ReferenceVisitor visitor) {
+        for (MetacrawlerPropertyAccessor accessor : getAccessors(element)) {
+            Object value = accessor.getValue(element);
+            if (value instanceof Element) {
+                visitor.visit(accessor, (Element) value);
+            } else if (value instanceof Collection) {
+                Object[] items;
+                try {
+                    items = ((Collection<?>) value).toArray();
+                } catch (RuntimeException e) {
+                    // Collection modified while it was copied
+                    continue;
+                }
+                for (Object item : items) {
+                    if (item instanceof Element) {
+                        visitor.visit(accessor, (Element) item);
+                    }
+                }
             }
-
-            parentCategory.addAction(propertyCategory);
         }
     }
 
-    private static List<ModelElement> getCachedMetamodelProperties(Element element) {
+    static List<MetacrawlerPropertyAccessor> getAccessors(Element element) {
         if (!(element instanceof RefObject))
             return Collections.emptyList();
 
-        RefObject metaObject = ((RefObject) element).refMetaObject();
-        String mofId = metaObject.refMofId();
-
-        return metamodelCache.computeIfAbsent(mofId, id -> {
+        // Compiled accessors are cached per element class in the project the element belongs to
+        Function<java.lang.Class<?>, List<MetacrawlerPropertyAccessor>> loader = elementClass -> {
+            RefObject metaObject = ((RefObject) element).refMetaObject();
             List<ModelElement> props = new ArrayList<>();
             if (metaObject instanceof org.omg.mof.model.Class) {
                 collectProperties((org.omg.mof.model.Class) metaObject, props, new HashSet<>());
             }
 
-            // Sort once before caching
-            props.sort(Comparator.comparing(p -> {
-                try {
-                    return p.getName();
-                } catch (Exception e) {
-                    return "";
+            List<MetacrawlerPropertyAccessor> accessors = new ArrayList<>(props.size());
+            for (ModelElement prop : props) {
+                MetacrawlerPropertyAccessor accessor = MetacrawlerPropertyAccessor.compile(prop, elementClass);
+                if (accessor != null) {
+                    accessors.add(accessor);
                 }
-            }));
+            }
+
+            // Sort once before caching
+            accessors.sort(Comparator.comparing(MetacrawlerPropertyAccessor::getName));
 
             // Return as unmodifiable list
-            return Collections.unmodifiableList(props);
-        });
+            return Collections.unmodifiableList(accessors);
+        };
+        Project project = Project.getProject(element);
+        // Without a project there is no close event to drop the entry on, so it is not cached
+        return project != null
+            ? MetacrawlerCache.getInstance().get(project, element.getClass(), loader)
+            : loader.apply(element.getClass());
     }
 
     private static void collectProperties(org.omg.mof.model.Class mofClass, List<ModelElement> props,
@@ -108,11 +125,39 @@ public class MetacrawlerService {
         }
     }
 
-    private static List<Element> getTargetElements(Element element, String propertyName) {
+    /**
+     * Up to {@code limit} target elements of a property, read through the collection's
+     * iterator and stopped early once the time budget is spent.
+     */
+    static List<Element> getTargetPage(Element element, MetacrawlerPropertyAccessor accessor, int limit, long budgetNanos) {
+        List<Element> targets = new ArrayList<>();
+        if (element instanceof RefObject) {
+            long deadline = System.nanoTime() + budgetNanos;
+            try {
+                Object value = accessor.getValue(element);
+                if (value instanceof Element) {
+                    targets.add((Element) value);
+                } else if (value instanceof Collection) {
+                    Iterator<?> it = ((Collection<?>) value).iterator();
+                    while (it.hasNext() && targets.size() < limit && System.nanoTime() < deadline) {
+                        Object item = it.next();
+                        if (item instanceof Element) {
+                            targets.add((Element) item);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                // Keep what was read before the property failed or was modified
+            }
+        }
+        return targets;
+    }
+
+    static List<Element> getTargetElements(Element element, MetacrawlerPropertyAccessor accessor) {
         List<Element> targets = new ArrayList<>();
         if (element instanceof RefObject) {
             try {
-                Object value = ((RefObject) element).refGetValue(propertyName);
+                Object value = accessor.getValue(element);
                 if (value instanceof Element) {
                     targets.add((Element) value);
                 } else if (value instanceof Collection) {
@@ -0,0 +1,243 @@
+package com.jonbackhaus.visualizer;
+
+import com.nomagic.magicdraw.uml.RepresentationTextCreator;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Searchable list of all targets of a Metacrawler property, for properties too
+ * large for a menu. Targets and their labels are loaded in the background and
+ * appended in chunks; the list only renders the visible rows.
+ */
+public class MetacrawlerTargetsDialog extends JDialog {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int FILTER_DELAY_MS = 150;
+
+    private final Element element;
+    private final MetacrawlerPropertyAccessor accessor;
+    private final int count;
+
+    // Loaded targets and labels (EDT only); the model shows those matching the filter
+    private final List<Element> targets = new ArrayList<>();
+    private final List<String> labels = new ArrayList<>();
+    private final List<String> searchKeys = new ArrayList<>();
+    private final TargetListModel model = new TargetListModel();
+    private String filter = "";
+
+    private final JTextField searchField = new JTextField();
+    private final JList<String> list = new JList<>(model);
+    private final JLabel statusLabel = new JLabel(" ");
+    private SwingWorker<Void, Object[]> loader;
+
+    public MetacrawlerTargetsDialog(Window owner, Element element, MetacrawlerPropertyAccessor accessor, int count) {
+        super(owner, accessor.getName() + " (" + String.format("%,d", count) + ")", ModalityType.MODELESS);
+        this.element = element;
+        this.accessor = accessor;
+        this.count = count;
+
+        // A prototype value keeps JList from measuring every row
+        list.setPrototypeCellValue("XXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX");
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    openSelected();
+                }
+            }
+        });
+        list.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "open");
+        list.getActionMap().put("open", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                openSelected();
+            }
+        });
+
+        Timer filterTimer = new Timer(FILTER_DELAY_MS, e -> applyFilter());
+        filterTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+        });
+
+        JPanel content = new JPanel(new BorderLayout(0, 5));
+        content.setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+        content.add(searchField, BorderLayout.NORTH);
+        content.add(new JScrollPane(list), BorderLayout.CENTER);
+        content.add(statusLabel, BorderLayout.SOUTH);
+        setContentPane(content);
+        setSize(420, 520);
+        setLocationRelativeTo(owner);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                if (loader != null) {
+                    loader.cancel(true);
+                }
+            }
+        });
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+    }
+
+    /**
+     * Show the dialog and start loading the targets.
+     */
+    public void open() {
+        setVisible(true);
+        statusLabel.setText("Loading...");
+        loader = new SwingWorker<Void, Object[]>() {
+            @Override
+            protected Void doInBackground() {
+                List<Element> all = MetacrawlerService.getTargetElements(element, accessor);
+                Object[] chunk = new Object[Math.min(CHUNK_SIZE, all.size()) * 2];
+                int filled = 0;
+                for (Element target : all) {
+                    if (isCancelled()) return null;
+                    chunk[filled++] = target;
+                    chunk[filled++] = RepresentationTextCreator.getRepresentedText(target);
+                    if (filled == chunk.length) {
+                        publish(chunk);
+                        chunk = new Object[chunk.length];
+                        filled = 0;
+                    }
+                }
+                if (filled > 0) {
+                    Object[] last = new Object[filled];
+                    System.arraycopy(chunk, 0, last, 0, filled);
+                    publish(last);
+                }
+                return null;
+            }
+
+            @Override
+            protected void process(List<Object[]> chunks) {
+                for (Object[] chunk : chunks) {
+                    append(chunk);
+                }
+                statusLabel.setText(String.format("Loading... %,d of %,d", targets.size(), count));
+            }
+
+            @Override
+            protected void done() {
+                if (!isCancelled()) {
+                    statusLabel.setText(String.format("%,d elements", targets.size()));
+                }
+            }
+        };
+        loader.execute();
+    }
+
+    private void append(Object[] chunk) {
+        for (int i = 0; i < chunk.length; i += 2) {
+            int index = targets.size();
+            targets.add((Element) chunk[i]);
+            String label = (String) chunk[i + 1];
+            labels.add(label);
+            searchKeys.add(label.toLowerCase(Locale.ROOT));
+            if (matches(index)) {
+                model.add(index);
+            }
+        }
+        model.flush();
+    }
+
+    private boolean matches(int index) {
+        return filter.isEmpty() || searchKeys.get(index).contains(filter);
+    }
+
+    private void applyFilter() {
+        filter = searchField.getText().trim().toLowerCase(Locale.ROOT);
+        model.reset();
+        for (int i = 0; i < targets.size(); i++) {
+            if (matches(i)) {
+                model.add(i);
+            }
+        }
+        model.flush();
+    }
+
+    private void openSelected() {
+        int row = list.getSelectedIndex();
+        if (row >= 0) {
+            int index = model.indexAt(row);
+            new MetacrawlerAction(targets.get(index), labels.get(index)).actionPerformed(null);
+        }
+    }
+
+    /**
+     * Rows are indices into the loaded targets; additions are reported in one
+     * interval per batch by {@link #flush()} so the list repaints once.
+     */
+    private class TargetListModel extends AbstractListModel<String> {
+        private int[] rows = new int[64];
+        private int size = 0;
+        private int pendingFrom = -1;
+
+        void add(int index) {
+            if (size == rows.length) {
+                rows = java.util.Arrays.copyOf(rows, size * 2);
+            }
+            if (pendingFrom < 0) {
+                pendingFrom = size;
+            }
+            rows[size++] = index;
+        }
+
+        void reset() {
+            int old = size;
+            size = 0;
+            pendingFrom = -1;
+            if (old > 0) {
+                fireIntervalRemoved(this, 0, old - 1);
+            }
+        }
+
+        void flush() {
+            if (pendingFrom >= 0 && pendingFrom < size) {
+                fireIntervalAdded(this, pendingFrom, size - 1);
+            }
+            pendingFrom = -1;
+        }
+
+        int indexAt(int row) {
+            return rows[row];
+        }
+
+        @Override
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public String getElementAt(int row) {
+            return labels.get(rows[row]);
+        }
+    }
+}
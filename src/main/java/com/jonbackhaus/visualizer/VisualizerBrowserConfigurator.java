@@ -0,0 +1,82 @@
+package com.jonbackhaus.visualizer;
+
+import com.jonbackhaus.visualizer.diagram.NeighborhoodDiagramAction;
+import com.jonbackhaus.visualizer.diagram.chord.ChordDiagramContent;
+import com.jonbackhaus.visualizer.diagram.chord.ChordDiagramDescriptor;
+import com.jonbackhaus.visualizer.diagram.network.NetworkDiagramContent;
+import com.jonbackhaus.visualizer.diagram.network.NetworkDiagramDescriptor;
+import com.jonbackhaus.visualizer.export.BatchExportAction;
+import com.nomagic.actions.AMConfigurator;
+import com.nomagic.actions.ActionsCategory;
+import com.nomagic.actions.ActionsManager;
+import com.nomagic.magicdraw.actions.BrowserContextAMConfigurator;
+import com.nomagic.magicdraw.ui.browser.Node;
+import com.nomagic.magicdraw.ui.browser.Tree;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Namespace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adds Visualizer actions to the containment tree context menu.
+ */
+public class VisualizerBrowserConfigurator implements BrowserContextAMConfigurator {
+
+    @Override
+    public void configure(ActionsManager manager, Tree tree) {
+        Node[] selected = tree.getSelectedNodes();
+        if (selected == null || selected.length == 0) {
+            return;
+        }
+
+        List<Namespace> namespaces = new ArrayList<>();
+        for (Node node : selected) {
+            if (node.getUserObject() instanceof Namespace) {
+                namespaces.add((Namespace) node.getUserObject());
+            }
+        }
+
+        ActionsCategory category = new ActionsCategory("VISUALIZER", "Visualizer");
+        category.setNested(true);
+
+        if (!namespaces.isEmpty()) {
+            category.addAction(new BatchExportAction(namespaces));
+        }
+
+        // Metacrawler: browse the metamodel properties of a single element
+        if (selected.length == 1 && selected[0].getUserObject() instanceof Element) {
+            ActionsCategory metacrawler = new ActionsCategory("METACRAWLER", "Metacrawler");
+            metacrawler.setNested(true);
+            MetacrawlerService.populatePropertyMenu(metacrawler, (Element) selected[0].getUserObject());
+            if (!metacrawler.getActions().isEmpty()) {
+                category.addAction(metacrawler);
+            }
+        }
+
+        // Neighborhood diagrams: metamodel references around a single element
+        if (selected.length == 1 && selected[0].getUserObject() instanceof Element) {
+            Element seed = (Element) selected[0].getUserObject();
+            category.addAction(new NeighborhoodDiagramAction(seed, ChordDiagramDescriptor.DIAGRAM_ID,
+                    ChordDiagramContent.SETTINGS_COMMENT_PREFIX, "Chord Diagram"));
+            category.addAction(new NeighborhoodDiagramAction(seed, NetworkDiagramDescriptor.DIAGRAM_ID,
+                    NetworkDiagramContent.SETTINGS_COMMENT_PREFIX, "Network Diagram"));
+        }
+
+        // Metacrawler: reference chains between two elements
+        if (selected.length == 2 && selected[0].getUserObject() instanceof Element
+                && selected[1].getUserObject() instanceof Element) {
+            category.addAction(new MetacrawlerPathAction((Element) selected[0].getUserObject(),
+                    (Element) selected[1].getUserObject()));
+        }
+
+        if (!category.getActions().isEmpty()) {
+            manager.addCategory(category);
+        }
+    }
+
+    @Override
+    public int getPriority() {
+        return AMConfigurator.MEDIUM_PRIORITY;
+    }
+}
@@ -0,0 +1,129 @@
+package com.jonbackhaus.visualizer;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Leveled plugin log. Messages at or below the level set by the
+ * {@code visualizer.log.level} system property (OFF, ERROR, WARN, INFO or DEBUG;
+ * INFO by default) are queued and written by a background thread, so logging
+ * never blocks the EDT or a refresh worker on console I/O. Per-refresh and
+ * per-event messages are DEBUG and therefore off unless asked for; callers
+ * building expensive messages check {@link #isDebugEnabled()} first.
+ */
+public final class VisualizerLog {
+
+    public enum Level {
+        OFF, ERROR, WARN, INFO, DEBUG
+    }
+
+    private static final String PREFIX = "[Visualizer] ";
+    private static final String JS_PREFIX = "[Visualizer-JS] ";
+    private static final int QUEUE_CAPACITY = 4096;
+
+    private static final Level LEVEL = parseLevel(System.getProperty("visualizer.log.level"));
+
+    private static final BlockingQueue<Entry> QUEUE = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    // Messages discarded because the writer fell behind; reported with the next message written
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    static {
+        if (LEVEL != Level.OFF) {
+            Thread writer = new Thread(VisualizerLog::drain, "Visualizer-Log");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    private VisualizerLog() {
+    }
+
+    private static final class Entry {
+        final Level level;
+        final String text;
+
+        Entry(Level level, String text) {
+            this.level = level;
+            this.text = text;
+        }
+    }
+
+    public static Level getLevel() {
+        return LEVEL;
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level != Level.OFF && level.ordinal() <= LEVEL.ordinal();
+    }
+
+    public static boolean isDebugEnabled() {
+        return LEVEL == Level.DEBUG;
+    }
+
+    public static void debug(String message) {
+        log(Level.DEBUG, PREFIX, message);
+    }
+
+    public static void info(String message) {
+        log(Level.INFO, PREFIX, message);
+    }
+
+    public static void warn(String message) {
+        log(Level.WARN, PREFIX, message);
+    }
+
+    public static void error(String message) {
+        log(Level.ERROR, PREFIX, message);
+    }
+
+    public static void error(String message, Throwable t) {
+        if (!isEnabled(Level.ERROR)) return;
+        StringWriter trace = new StringWriter();
+        t.printStackTrace(new PrintWriter(trace));
+        log(Level.ERROR, PREFIX, message + System.lineSeparator() + trace);
+    }
+
+    /**
+     * Message forwarded from a diagram page through the console bridge.
+     */
+    public static void page(Level level, String message) {
+        log(level, JS_PREFIX, level + ": " + message);
+    }
+
+    private static void log(Level level, String prefix, String message) {
+        if (!isEnabled(level)) return;
+        if (!QUEUE.offer(new Entry(level, prefix + message))) {
+            DROPPED.incrementAndGet();
+        }
+    }
+
+    private static void drain() {
+        try {
+            while (true) {
+                Entry entry = QUEUE.take();
+                long dropped = DROPPED.getAndSet(0);
+                if (dropped > 0) {
+                    System.out.println(PREFIX + dropped + " log messages dropped");
+                }
+                PrintStream out = entry.level == Level.ERROR ? System.err : System.out;
+                out.println(entry.text);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Level parseLevel(String value) {
+        if (value == null) return Level.INFO;
+        try {
+            return Level.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.jonbackhaus.visualizer;
 
+import com.nomagic.magicdraw.actions.ActionsConfiguratorsManager;
 import com.nomagic.magicdraw.plugins.Plugin;
 import com.nomagic.magicdraw.core.Application;
 import com.nomagic.magicdraw.core.Project;
 import com.nomagic.magicdraw.uml.DiagramDescriptor;
 import com.nomagic.magicdraw.uml.DiagramType;
 import com.jonbackhaus.visualizer.diagram.chord.ChordDiagramDescriptor;
+import com.jonbackhaus.visualizer.diagram.matrix.MatrixDiagramDescriptor;
+import com.jonbackhaus.visualizer.diagram.network.NetworkDiagramDescriptor;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package;
 
 import java.util.Collection;
@@ -20,10 +23,10 @@ public class VisualizerPlugin extends Plugin {
         try {
             registerDiagrams();
             registerOwnership();
-            System.out.println("[Visualizer] Plugin initialized successfully");
+            registerActions();
+            VisualizerLog.info("Plugin initialized successfully");
         } catch (Throwable t) {
-            System.err.println("[Visualizer] Failed to initialize plugin: " + t.getMessage());
-            t.printStackTrace();
+            VisualizerLog.error("Failed to initialize plugin: " + t.getMessage(), t);
         }
     }
 
@@ -31,10 +34,26 @@ public class VisualizerPlugin extends Plugin {
         DiagramType.registerContextTypeByDiagramTypeConfigurator(new VisualizerContextTypesConfigurator());
     }
 
+    private void registerActions() {
+        ActionsConfiguratorsManager.getInstance()
+                .addContainmentBrowserContextConfigurator(new VisualizerBrowserConfigurator());
+        // Drop Metacrawler metamodel caches together with their projects
+        Application.getInstance().getProjectsManager()
+                .addProjectListener(MetacrawlerCache.getInstance().createProjectListener());
+    }
+
     private void registerDiagrams() {
         // Register the Chord Diagram
         DiagramDescriptor chordDescriptor = new ChordDiagramDescriptor();
         Application.getInstance().addNewDiagramType(chordDescriptor);
+
+        // Register the Adjacency Matrix
+        DiagramDescriptor matrixDescriptor = new MatrixDiagramDescriptor();
+        Application.getInstance().addNewDiagramType(matrixDescriptor);
+
+        // Register the Network Diagram
+        DiagramDescriptor networkDescriptor = new NetworkDiagramDescriptor();
+        Application.getInstance().addNewDiagramType(networkDescriptor);
     }
 
     @Override
@@ -53,7 +72,9 @@ public class VisualizerPlugin extends Plugin {
     private static class VisualizerContextTypesConfigurator implements DiagramType.ContextTypesConfigurator {
         @Override
         public void configure(Project project, String diagramType, Collection<?> types) {
-            if (ChordDiagramDescriptor.DIAGRAM_ID.equals(diagramType)) {
+            if (ChordDiagramDescriptor.DIAGRAM_ID.equals(diagramType)
+                    || MatrixDiagramDescriptor.DIAGRAM_ID.equals(diagramType)
+                    || NetworkDiagramDescriptor.DIAGRAM_ID.equals(diagramType)) {
                 // Allow creation in Packages
                 @SuppressWarnings("unchecked")
                 Collection<Class<?>> classTypes = (Collection<Class<?>>) types;
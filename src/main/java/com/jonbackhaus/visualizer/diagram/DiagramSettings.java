@@ -0,0 +1,383 @@
+package com.jonbackhaus.visualizer.diagram;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Filter and display settings of a Visualizer diagram.
+ * Stored as JSON in the diagram's settings Comment and shared with batch export.
+ */
+public class DiagramSettings {
+
+    /** Graph of the elements of the context package. */
+    public static final String SOURCE_CONTEXT = "Context";
+    /** Graph of the metamodel references around a seed element. */
+    public static final String SOURCE_NEIGHBORHOOD = "Neighborhood";
+
+    private String source = SOURCE_CONTEXT;
+    private String seedElementId;
+    private int hops = 2;
+    private int nodeBudget = 500;
+    private String contextElementId;
+    private boolean recursive = false;
+    private String elementType = "Any";
+    private boolean includeSubtypes = true;
+    private String relationCriteria = "Any";
+    private boolean showImplied = false;
+    private int depth = 1;
+    private boolean showOrphans = true;
+    private int minDegree = 0;
+    private int maxDegree = 0;
+    private int topNodes = 0;
+    private String groupBy = "None";
+    private int groupLevel = 1;
+    private int groupThreshold = 500;
+    private int maxEdges = 0;
+    private int minEdgeWeight = 1;
+    private boolean showLabels = true;
+    private boolean showLegend = false;
+    private boolean precomputeLayout = true;
+    private boolean focusOnClick = false;
+    private int focusHops = 1;
+
+    public JsonObject toJson() {
+        JsonObject settings = new JsonObject();
+        settings.addProperty("source", source);
+        if (seedElementId != null) {
+            settings.addProperty("seedElementId", seedElementId);
+        }
+        settings.addProperty("hops", hops);
+        settings.addProperty("nodeBudget", nodeBudget);
+        if (contextElementId != null) {
+            settings.addProperty("contextElementId", contextElementId);
+        }
+        settings.addProperty("recursive", recursive);
+        settings.addProperty("elementType", elementType);
+        settings.addProperty("includeSubtypes", includeSubtypes);
+        settings.addProperty("relationCriteria", relationCriteria);
+        settings.addProperty("showImplied", showImplied);
+        settings.addProperty("depth", depth);
+        settings.addProperty("showOrphans", showOrphans);
+        settings.addProperty("minDegree", minDegree);
+        settings.addProperty("maxDegree", maxDegree);
+        settings.addProperty("topNodes", topNodes);
+        settings.addProperty("groupBy", groupBy);
+        settings.addProperty("groupLevel", groupLevel);
+        settings.addProperty("groupThreshold", groupThreshold);
+        settings.addProperty("maxEdges", maxEdges);
+        settings.addProperty("minEdgeWeight", minEdgeWeight);
+        settings.addProperty("showLabels", showLabels);
+        settings.addProperty("showLegend", showLegend);
+        settings.addProperty("precomputeLayout", precomputeLayout);
+        settings.addProperty("focusOnClick", focusOnClick);
+        settings.addProperty("focusHops", focusHops);
+        return settings;
+    }
+
+    /**
+     * Read settings from JSON, keeping defaults for any missing entries.
+     */
+    public static DiagramSettings fromJson(JsonObject json) {
+        DiagramSettings settings = new DiagramSettings();
+        if (json.has("source")) {
+            settings.source = json.get("source").getAsString();
+        }
+        if (json.has("seedElementId")) {
+            settings.seedElementId = json.get("seedElementId").getAsString();
+        }
+        if (json.has("hops")) {
+            settings.hops = json.get("hops").getAsInt();
+        }
+        if (json.has("nodeBudget")) {
+            settings.nodeBudget = json.get("nodeBudget").getAsInt();
+        }
+        if (json.has("contextElementId")) {
+            settings.contextElementId = json.get("contextElementId").getAsString();
+        }
+        if (json.has("recursive")) {
+            settings.recursive = json.get("recursive").getAsBoolean();
+        }
+        if (json.has("elementType")) {
+            settings.elementType = json.get("elementType").getAsString();
+        }
+        if (json.has("includeSubtypes")) {
+            settings.includeSubtypes = json.get("includeSubtypes").getAsBoolean();
+        }
+        if (json.has("relationCriteria")) {
+            settings.relationCriteria = json.get("relationCriteria").getAsString();
+        }
+        if (json.has("showImplied")) {
+            settings.showImplied = json.get("showImplied").getAsBoolean();
+        }
+        if (json.has("depth")) {
+            settings.depth = json.get("depth").getAsInt();
+        }
+        if (json.has("showOrphans")) {
+            settings.showOrphans = json.get("showOrphans").getAsBoolean();
+        }
+        if (json.has("groupBy")) {
+            settings.groupBy = json.get("groupBy").getAsString();
+        }
+        if (json.has("groupLevel")) {
+            settings.groupLevel = json.get("groupLevel").getAsInt();
+        }
+        if (json.has("groupThreshold")) {
+            settings.groupThreshold = json.get("groupThreshold").getAsInt();
+        }
+        if (json.has("minDegree")) {
+            settings.minDegree = json.get("minDegree").getAsInt();
+        }
+        if (json.has("maxDegree")) {
+            settings.maxDegree = json.get("maxDegree").getAsInt();
+        }
+        if (json.has("topNodes")) {
+            settings.topNodes = json.get("topNodes").getAsInt();
+        }
+        if (json.has("maxEdges")) {
+            settings.maxEdges = json.get("maxEdges").getAsInt();
+        }
+        if (json.has("minEdgeWeight")) {
+            settings.minEdgeWeight = json.get("minEdgeWeight").getAsInt();
+        }
+        if (json.has("showLabels")) {
+            settings.showLabels = json.get("showLabels").getAsBoolean();
+        }
+        if (json.has("showLegend")) {
+            settings.showLegend = json.get("showLegend").getAsBoolean();
+        }
+        if (json.has("precomputeLayout")) {
+            settings.precomputeLayout = json.get("precomputeLayout").getAsBoolean();
+        }
+        if (json.has("focusOnClick")) {
+            settings.focusOnClick = json.get("focusOnClick").getAsBoolean();
+        }
+        if (json.has("focusHops")) {
+            settings.focusHops = json.get("focusHops").getAsInt();
+        }
+        return settings;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public boolean isNeighborhood() {
+        return SOURCE_NEIGHBORHOOD.equals(source);
+    }
+
+    public String getSeedElementId() {
+        return seedElementId;
+    }
+
+    public void setSeedElementId(String seedElementId) {
+        this.seedElementId = seedElementId;
+    }
+
+    public int getHops() {
+        return hops;
+    }
+
+    public void setHops(int hops) {
+        this.hops = hops;
+    }
+
+    public int getNodeBudget() {
+        return nodeBudget;
+    }
+
+    public void setNodeBudget(int nodeBudget) {
+        this.nodeBudget = nodeBudget;
+    }
+
+    public String getContextElementId() {
+        return contextElementId;
+    }
+
+    public void setContextElementId(String contextElementId) {
+        this.contextElementId = contextElementId;
+    }
+
+    public boolean isRecursive() {
+        return recursive;
+    }
+
+    public void setRecursive(boolean recursive) {
+        this.recursive = recursive;
+    }
+
+    public String getElementType() {
+        return elementType;
+    }
+
+    public void setElementType(String elementType) {
+        this.elementType = elementType;
+    }
+
+    public boolean isIncludeSubtypes() {
+        return includeSubtypes;
+    }
+
+    public void setIncludeSubtypes(boolean includeSubtypes) {
+        this.includeSubtypes = includeSubtypes;
+    }
+
+    public String getRelationCriteria() {
+        return relationCriteria;
+    }
+
+    public void setRelationCriteria(String relationCriteria) {
+        this.relationCriteria = relationCriteria;
+    }
+
+    public boolean isShowImplied() {
+        return showImplied;
+    }
+
+    public void setShowImplied(boolean showImplied) {
+        this.showImplied = showImplied;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public boolean isShowOrphans() {
+        return showOrphans;
+    }
+
+    public void setShowOrphans(boolean showOrphans) {
+        this.showOrphans = showOrphans;
+    }
+
+    /**
+     * "None", "Owner", "Stereotype" or "Ancestor".
+     */
+    public String getGroupBy() {
+        return groupBy;
+    }
+
+    public void setGroupBy(String groupBy) {
+        this.groupBy = groupBy;
+    }
+
+    /**
+     * Depth below the context of the ancestor elements are grouped by.
+     */
+    public int getGroupLevel() {
+        return groupLevel;
+    }
+
+    public void setGroupLevel(int groupLevel) {
+        this.groupLevel = groupLevel;
+    }
+
+    /**
+     * Elements are grouped only when there are more than this many.
+     */
+    public int getGroupThreshold() {
+        return groupThreshold;
+    }
+
+    public void setGroupThreshold(int groupThreshold) {
+        this.groupThreshold = groupThreshold;
+    }
+
+    /**
+     * Minimum number of relationships of a shown element.
+     */
+    public int getMinDegree() {
+        return minDegree;
+    }
+
+    public void setMinDegree(int minDegree) {
+        this.minDegree = minDegree;
+    }
+
+    /**
+     * Maximum number of relationships of a shown element, 0 for no limit.
+     */
+    public int getMaxDegree() {
+        return maxDegree;
+    }
+
+    public void setMaxDegree(int maxDegree) {
+        this.maxDegree = maxDegree;
+    }
+
+    /**
+     * Number of most connected elements to keep, 0 for all.
+     */
+    public int getTopNodes() {
+        return topNodes;
+    }
+
+    public void setTopNodes(int topNodes) {
+        this.topNodes = topNodes;
+    }
+
+    /**
+     * Number of heaviest ribbons to keep, 0 for all.
+     */
+    public int getMaxEdges() {
+        return maxEdges;
+    }
+
+    public void setMaxEdges(int maxEdges) {
+        this.maxEdges = maxEdges;
+    }
+
+    public int getMinEdgeWeight() {
+        return minEdgeWeight;
+    }
+
+    public void setMinEdgeWeight(int minEdgeWeight) {
+        this.minEdgeWeight = minEdgeWeight;
+    }
+
+    public boolean isShowLabels() {
+        return showLabels;
+    }
+
+    public void setShowLabels(boolean showLabels) {
+        this.showLabels = showLabels;
+    }
+
+    public boolean isShowLegend() {
+        return showLegend;
+    }
+
+    public void setShowLegend(boolean showLegend) {
+        this.showLegend = showLegend;
+    }
+
+    public boolean isPrecomputeLayout() {
+        return precomputeLayout;
+    }
+
+    public void setPrecomputeLayout(boolean precomputeLayout) {
+        this.precomputeLayout = precomputeLayout;
+    }
+
+    public boolean isFocusOnClick() {
+        return focusOnClick;
+    }
+
+    public void setFocusOnClick(boolean focusOnClick) {
+        this.focusOnClick = focusOnClick;
+    }
+
+    public int getFocusHops() {
+        return focusHops;
+    }
+
+    public void setFocusHops(int focusHops) {
+        this.focusHops = focusHops;
+    }
+}
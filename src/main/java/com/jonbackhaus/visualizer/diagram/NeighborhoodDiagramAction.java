@@ -0,0 +1,90 @@
+package com.jonbackhaus.visualizer.diagram;
+
+import com.jonbackhaus.visualizer.VisualizerLog;
+import com.google.gson.Gson;
+import com.nomagic.magicdraw.actions.MDAction;
+import com.nomagic.magicdraw.core.Application;
+import com.nomagic.magicdraw.core.Project;
+import com.nomagic.magicdraw.openapi.uml.ModelElementsManager;
+import com.nomagic.magicdraw.openapi.uml.SessionManager;
+import com.nomagic.magicdraw.uml.symbols.DiagramPresentationElement;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Comment;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package;
+import com.nomagic.uml2.ext.magicdraw.mdprofiles.Diagram;
+
+import java.awt.event.ActionEvent;
+
+/**
+ * Creates a Visualizer diagram of the metamodel references around an element
+ * and opens it. The diagram stores the element as its neighborhood seed, so the
+ * crawl itself runs when the diagram refreshes.
+ */
+public class NeighborhoodDiagramAction extends MDAction {
+
+    private static final int DEFAULT_HOPS = Integer.getInteger("visualizer.neighborhood.hops", 2);
+    private static final int DEFAULT_NODE_BUDGET = Integer.getInteger("visualizer.neighborhood.nodeBudget", 500);
+
+    private final Element seed;
+    private final String diagramType;
+    private final String settingsCommentPrefix;
+
+    /**
+     * @param diagramType           ID of the diagram descriptor to create
+     * @param settingsCommentPrefix settings comment prefix of that diagram type
+     * @param typeName              diagram type name shown in the menu
+     */
+    public NeighborhoodDiagramAction(Element seed, String diagramType, String settingsCommentPrefix, String typeName) {
+        super("VISUALIZE_NEIGHBORHOOD_" + diagramType, "Visualize Neighborhood as " + typeName, null, null);
+        this.seed = seed;
+        this.diagramType = diagramType;
+        this.settingsCommentPrefix = settingsCommentPrefix;
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        Project project = Application.getInstance().getProject();
+        if (project == null) return;
+
+        Package owner = owningPackage(seed);
+        if (owner == null) {
+            owner = project.getPrimaryModel();
+        }
+
+        DiagramSettings settings = new DiagramSettings();
+        settings.setSource(DiagramSettings.SOURCE_NEIGHBORHOOD);
+        settings.setSeedElementId(seed.getID());
+        settings.setHops(DEFAULT_HOPS);
+        settings.setNodeBudget(DEFAULT_NODE_BUDGET);
+
+        Diagram diagram;
+        SessionManager.getInstance().createSession(project, "Create Neighborhood Diagram");
+        try {
+            diagram = ModelElementsManager.getInstance().createDiagram(diagramType, owner);
+            String name = seed instanceof NamedElement ? ((NamedElement) seed).getName() : null;
+            diagram.setName("Neighborhood of " + (name != null && !name.isEmpty() ? name : seed.getHumanName()));
+
+            Comment settingsComment = project.getElementsFactory().createCommentInstance();
+            settingsComment.setOwner(diagram);
+            settingsComment.setBody(settingsCommentPrefix + new Gson().toJson(settings.toJson()));
+            SessionManager.getInstance().closeSession(project);
+        } catch (Exception ex) {
+            SessionManager.getInstance().cancelSession(project);
+            VisualizerLog.error("Error creating neighborhood diagram: " + ex.getMessage());
+            return;
+        }
+
+        DiagramPresentationElement presentation = project.getDiagram(diagram);
+        if (presentation != null) {
+            presentation.open();
+        }
+    }
+
+    private static Package owningPackage(Element element) {
+        for (Element e = element; e != null; e = e.getOwner()) {
+            if (e instanceof Package) return (Package) e;
+        }
+        return null;
+    }
+}
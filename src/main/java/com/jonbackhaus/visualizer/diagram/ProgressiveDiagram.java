@@ -0,0 +1,18 @@
+package com.jonbackhaus.visualizer.diagram;
+
+import com.jonbackhaus.visualizer.graph.ProgressiveChunker;
+import com.jonbackhaus.visualizer.graph.RelationshipGraph;
+import com.google.gson.JsonObject;
+
+/**
+ * Diagram content whose page accepts large graphs in chunks: the first through
+ * {@code window.updateDiagram()}, the rest through {@code window.appendDiagramData()}.
+ */
+public interface ProgressiveDiagram {
+
+    /**
+     * Build the payload of one chunk of a progressively delivered graph, whose nodes
+     * are ranked by degree. Runs on a scheduler worker.
+     */
+    JsonObject buildDiagramChunk(RelationshipGraph graph, DiagramSettings settings, ProgressiveChunker.Chunk chunk);
+}
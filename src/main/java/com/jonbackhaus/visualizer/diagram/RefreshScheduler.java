@@ -0,0 +1,123 @@
+package com.jonbackhaus.visualizer.diagram;
+
+import com.jonbackhaus.visualizer.VisualizerLog;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plugin-wide queue for diagram refresh work.
+ * Repeated requests for the same diagram are coalesced into the latest one, the
+ * focused diagram always runs first, and other diagrams run at low thread priority
+ * with at most {@code visualizer.backgroundRefreshLimit} at a time.
+ * A diagram never has two refreshes running at once.
+ */
+public class RefreshScheduler {
+
+    private static final RefreshScheduler INSTANCE = new RefreshScheduler(
+            Math.max(1, Integer.getInteger("visualizer.backgroundRefreshLimit", 1)));
+
+    private final int backgroundLimit;
+    private final ExecutorService workers;
+
+    // Guarded by this
+    private final Map<Object, Runnable> pending = new LinkedHashMap<>();
+    private final Set<Object> running = new HashSet<>();
+    private int runningBackground = 0;
+    private Object focused;
+
+    RefreshScheduler(int backgroundLimit) {
+        this.backgroundLimit = backgroundLimit;
+        AtomicInteger threadCount = new AtomicInteger();
+        // Unbounded pool, but dispatch() never runs more than backgroundLimit + 1 tasks
+        this.workers = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "Visualizer-Refresh-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static RefreshScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queue refresh work for a diagram, replacing any of its work that has not started yet.
+     * The task runs off the EDT.
+     */
+    public synchronized void request(Object diagram, Runnable task) {
+        pending.put(diagram, task);
+        dispatch();
+    }
+
+    /**
+     * Mark the diagram the user is looking at; its pending work jumps the queue.
+     */
+    public synchronized void setFocused(Object diagram) {
+        focused = diagram;
+        dispatch();
+    }
+
+    /**
+     * Drop pending work of a disposed diagram. Work already running finishes on its own.
+     */
+    public synchronized void cancel(Object diagram) {
+        if (pending.remove(diagram) != null) {
+            VisualizerLog.debug("Dropped pending refresh of disposed diagram");
+        }
+        if (focused == diagram) {
+            focused = null;
+        }
+    }
+
+    private void dispatch() {
+        Object next;
+        while ((next = pickNext()) != null) {
+            Object diagram = next;
+            Runnable task = pending.remove(diagram);
+            boolean background = diagram != focused;
+            running.add(diagram);
+            if (background) {
+                runningBackground++;
+            }
+            workers.execute(() -> run(diagram, task, background));
+        }
+    }
+
+    private Object pickNext() {
+        if (focused != null && pending.containsKey(focused) && !running.contains(focused)) {
+            return focused;
+        }
+        if (runningBackground >= backgroundLimit) {
+            return null;
+        }
+        for (Object diagram : pending.keySet()) {
+            if (!running.contains(diagram)) {
+                return diagram;
+            }
+        }
+        return null;
+    }
+
+    private void run(Object diagram, Runnable task, boolean background) {
+        Thread thread = Thread.currentThread();
+        thread.setPriority(background ? Thread.MIN_PRIORITY : Thread.NORM_PRIORITY);
+        try {
+            task.run();
+        } catch (Exception e) {
+            VisualizerLog.error("Diagram refresh failed: " + e.getMessage(), e);
+        } finally {
+            synchronized (this) {
+                running.remove(diagram);
+                if (background) {
+                    runningBackground--;
+                }
+                dispatch();
+            }
+        }
+    }
+}
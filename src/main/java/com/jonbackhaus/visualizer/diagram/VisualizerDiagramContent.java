@@ -0,0 +1,1371 @@
+package com.jonbackhaus.visualizer.diagram;
+
+import com.teamdev.jxbrowser.browser.Browser;
+import com.teamdev.jxbrowser.engine.Engine;
+import com.teamdev.jxbrowser.engine.EngineOptions;
+import com.teamdev.jxbrowser.js.JsAccessible;
+import com.teamdev.jxbrowser.js.JsObject;
+import com.teamdev.jxbrowser.navigation.event.NavigationFinished;
+import com.teamdev.jxbrowser.view.swing.BrowserView;
+import com.nomagic.magicdraw.core.Application;
+import com.nomagic.magicdraw.core.Project;
+import com.nomagic.magicdraw.ui.dialogs.MDDialogParentProvider;
+import com.nomagic.magicdraw.ui.dialogs.SelectElementInfo;
+import com.nomagic.magicdraw.ui.dialogs.SelectElementTypes;
+import com.nomagic.magicdraw.ui.dialogs.selection.ElementSelectionDlg;
+import com.nomagic.magicdraw.ui.dialogs.selection.ElementSelectionDlgFactory;
+import com.nomagic.magicdraw.uml.RepresentationTextCreator;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Namespace;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Relationship;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Comment;
+import com.nomagic.uml2.ext.magicdraw.compositestructures.mdinternalstructures.Connector;
+import com.nomagic.magicdraw.openapi.uml.SessionManager;
+import com.nomagic.magicdraw.uml.BaseElement;
+import com.nomagic.magicdraw.uml.diagrams.NonSymbolDiagramContent;
+import com.nomagic.magicdraw.uml.symbols.DiagramPresentationElement;
+import com.jonbackhaus.visualizer.VisualizerLog;
+import com.jonbackhaus.visualizer.graph.EdgePruner;
+import com.jonbackhaus.visualizer.graph.EgoNetwork;
+import com.jonbackhaus.visualizer.graph.ElementIndex;
+import com.jonbackhaus.visualizer.graph.GraphAggregator;
+import com.jonbackhaus.visualizer.graph.GraphExtractor;
+import com.jonbackhaus.visualizer.graph.GraphSnapshot;
+import com.jonbackhaus.visualizer.graph.LayeredGraph;
+import com.jonbackhaus.visualizer.graph.NeighborhoodCrawler;
+import com.jonbackhaus.visualizer.graph.NodeFilter;
+import com.jonbackhaus.visualizer.graph.ProgressiveChunker;
+import com.jonbackhaus.visualizer.graph.RelationshipGraph;
+import com.jonbackhaus.visualizer.ui.DiagramConfigPanel;
+import com.nomagic.uml2.transaction.TransactionCommitListener;
+import com.nomagic.uml2.transaction.TransactionManager;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.beans.PropertyChangeEvent;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.teamdev.jxbrowser.engine.RenderingMode.OFF_SCREEN;
+
+/**
+ * Base content for browser-rendered Visualizer diagrams.
+ * Manages the configuration panel, the embedded browser and its lifecycle within the
+ * diagram window, settings persistence and refreshes; subclasses supply the page and
+ * the data it renders.
+ */
+public abstract class VisualizerDiagramContent implements NonSymbolDiagramContent<JComponent> {
+
+    // How long a diagram may stay in the background before its browser is closed
+    private static final int HIBERNATE_AFTER_SECONDS = Integer.getInteger("visualizer.hibernateAfterSeconds", 300);
+    // Graphs with at least this many edges are sent in chunks, hubs first, by diagram
+    // types that support it
+    private static final int PROGRESSIVE_MIN_EDGES = Integer.getInteger("visualizer.progressive.minEdges", 50000);
+    private static final int PROGRESSIVE_CHUNK_NODES = Integer.getInteger("visualizer.progressive.chunkNodes", 2000);
+    private static final int PROGRESSIVE_CHUNK_EDGES = Integer.getInteger("visualizer.progressive.chunkEdges", 20000);
+    // Relationships listed in a hover tooltip before the rest are summarized
+    private static final int TOOLTIP_RELATIONSHIPS = 10;
+
+    private final DiagramPresentationElement diagram;
+    private DiagramConfigPanel configPanel;
+    private JSplitPane splitPane;
+    private Engine engine;
+    private volatile Browser browser;
+    private BrowserView browserView;
+    private volatile boolean htmlLoaded = false;
+    private volatile String preparedHtml = null;
+    // Incremented per refresh so a slow refresh never overwrites a newer one
+    private final AtomicLong refreshGeneration = new AtomicLong();
+
+    // Elements and relationships of the rendered diagram, used for navigation
+    private volatile RelationshipGraph currentGraph;
+    // Grouping behind currentGraph, null when elements are shown individually
+    private volatile GraphAggregator.Aggregation currentAggregation;
+
+    // Focus navigation: neighborhoods are cut from focusSource, the filtered graph of
+    // the last refresh; the overview is what that refresh showed. Trail is EDT only.
+    private volatile EgoNetwork focusSource;
+    private volatile RelationshipGraph overviewGraph;
+    private volatile GraphAggregator.Aggregation overviewAggregation;
+    private final List<FocusStep> focusTrail = new ArrayList<>();
+
+    private static final class FocusStep {
+        final Element element;
+        final String name;
+
+        FocusStep(Element element, String name) {
+            this.element = element;
+            this.name = name;
+        }
+    }
+
+    // Per-kind relationship layers of the last extraction, reused while only the
+    // relation criteria change; dropped when a model change touches a relationship
+    // or the context
+    private volatile CachedLayers cachedLayers;
+    // Element index of the context, reused while the element filter changes;
+    // dropped when a model change touches the context
+    private volatile ElementIndex elementIndex;
+    // Graph of the last neighborhood crawl, reused while only filters and pruning
+    // change; dropped on any model change, as the crawl may reach anywhere in the model
+    private volatile CachedNeighborhood cachedNeighborhood;
+    private final AtomicLong modelChanges = new AtomicLong();
+    private final TransactionCommitListener modelChangeListener = events -> {
+        onModelChange(events);
+        return null;
+    };
+    private TransactionManager transactionManager;
+
+    // Lifecycle while the diagram is in the background (EDT only)
+    private Timer hibernateTimer;
+    private boolean refreshPending = false;
+    // Rendered graph kept while hibernated; non-null until the page is restored
+    private GraphSnapshot snapshot;
+
+    protected VisualizerDiagramContent(DiagramPresentationElement diagram) {
+        VisualizerLog.debug(getClass().getSimpleName() + " constructor called");
+        this.diagram = diagram;
+        initBrowser();
+        VisualizerLog.debug(getClass().getSimpleName() + " constructor completed");
+    }
+
+    /**
+     * Prefix marking the diagram-owned Comment that stores this diagram type's settings.
+     */
+    protected abstract String getSettingsCommentPrefix();
+
+    /**
+     * Human-readable diagram type name, used in session names.
+     */
+    protected abstract String getDiagramTypeName();
+
+    /**
+     * Classpath path of the page HTML.
+     */
+    protected abstract String getHtmlResource();
+
+    /**
+     * Scripts to inline into the page, keyed by the HTML placeholder comment they replace.
+     */
+    protected abstract Map<String, String> getScriptResources();
+
+    /**
+     * Build the payload passed to {@code window.updateDiagram()}. Runs on a scheduler worker.
+     */
+    protected abstract JsonObject buildDiagramData(RelationshipGraph graph, DiagramSettings settings);
+
+    private void initBrowser() {
+        VisualizerLog.debug("initBrowser() called");
+        String key = loadLicenseKey();
+        if (key == null || key.isEmpty()) {
+            throw new IllegalStateException(
+                "JxBrowser license key not configured. " +
+                "Add jxbrowser.properties with license.key to the resources folder.");
+        }
+
+        engine = Engine.newInstance(
+            EngineOptions.newBuilder(OFF_SCREEN)
+            .licenseKey(key)
+            .build()
+            );
+        browser = engine.newBrowser();
+
+        // Listen for navigation completion to know when HTML is fully loaded
+        browser.navigation().on(NavigationFinished.class, event -> {
+            String url = event.url();
+            if (VisualizerLog.isDebugEnabled()) {
+                // Truncate data URLs to avoid logging entire HTML content
+                String logUrl = url.startsWith("data:") ? "data:text/html... (" + url.length() + " chars)" : url;
+                VisualizerLog.debug("NavigationFinished event received, URL: " + logUrl);
+            }
+
+            // Check if this is just the about:blank page (initial frame setup)
+            if ("about:blank".equals(url)) {
+                VisualizerLog.debug("about:blank loaded, now loading prepared HTML");
+                // Now that frame is ready, load our prepared HTML
+                if (preparedHtml != null) {
+                    browser.mainFrame().ifPresent(frame -> {
+                        VisualizerLog.debug("Loading prepared HTML into frame");
+                        frame.loadHtml(preparedHtml);
+                    });
+                }
+                return;
+            }
+
+            // This is the actual content loaded
+            htmlLoaded = true;
+            VisualizerLog.debug("HTML fully loaded, injecting bridges and triggering refresh");
+
+            // Inject Java-to-JS bridges
+            browser.mainFrame().ifPresent(frame -> {
+                JsObject window = frame.executeJavaScript("window");
+                if (window != null) {
+                    window.putProperty("javaConsole", new JavaConsole());
+                    window.putProperty("javaNavigation", new JavaNavigation(this));
+
+                    // Override console methods to forward to Java; levels the plugin log
+                    // does not write become no-ops (0 OFF, 1 ERROR, 2 WARN, 3 INFO, 4 DEBUG)
+                    frame.executeJavaScript(
+                        "(function() { " +
+                        "  window.logLevel = window.javaConsole.getLevel(); " +
+                        "  function forward(level, target, orig) { " +
+                        "    if (window.logLevel < level) return function() {}; " +
+                        "    return function() { " +
+                        "      var msg = Array.prototype.slice.call(arguments).join(' '); " +
+                        "      target(msg); orig.apply(console, arguments); }; } " +
+                        "  console.log = forward(4, function(m) { window.javaConsole.log(m); }, console.log); " +
+                        "  console.warn = forward(2, function(m) { window.javaConsole.warn(m); }, console.warn); " +
+                        "  console.error = forward(1, function(m) { window.javaConsole.error(m); }, console.error); " +
+                        "})();"
+                    );
+                }
+
+                // Diagnostic: Check if updateDiagram is available
+                if (VisualizerLog.isDebugEnabled()) {
+                    Object fnCheck = frame.executeJavaScript("typeof window.updateDiagram");
+                    VisualizerLog.debug("Diagnostic - updateDiagram type: " + fnCheck);
+                }
+            });
+
+            SwingUtilities.invokeLater(this::onPageLoaded);
+        });
+
+        VisualizerLog.debug("initBrowser() completed");
+    }
+
+    /**
+     * Bridge class for capturing JavaScript console messages in Java.
+     * The page reads the plugin log level once and drops disabled messages itself,
+     * so they never cross the bridge.
+     */
+    public static class JavaConsole {
+        @JsAccessible
+        public int getLevel() {
+            return VisualizerLog.getLevel().ordinal();
+        }
+
+        @JsAccessible
+        public void log(String message) {
+            VisualizerLog.page(VisualizerLog.Level.DEBUG, message);
+        }
+
+        @JsAccessible
+        public void warn(String message) {
+            VisualizerLog.page(VisualizerLog.Level.WARN, message);
+        }
+
+        @JsAccessible
+        public void error(String message) {
+            VisualizerLog.page(VisualizerLog.Level.ERROR, message);
+        }
+    }
+
+    /**
+     * Bridge class for element navigation from JavaScript.
+     */
+    public static class JavaNavigation {
+        private final VisualizerDiagramContent content;
+
+        public JavaNavigation(VisualizerDiagramContent content) {
+            this.content = content;
+        }
+
+        @JsAccessible
+        public void selectElement(int index) {
+            VisualizerLog.debug("JavaScript requested navigation to element index: " + index);
+            SwingUtilities.invokeLater(() -> content.navigateToElement(index));
+        }
+
+        @JsAccessible
+        public void selectRelationship(int sourceIndex, int targetIndex) {
+            VisualizerLog.debug("JavaScript requested navigation to relationship: " + sourceIndex + " -> " + targetIndex);
+            SwingUtilities.invokeLater(() -> content.navigateToRelationship(sourceIndex, targetIndex));
+        }
+
+        @JsAccessible
+        public void expandGroup(int index) {
+            VisualizerLog.debug("JavaScript requested expansion of group index: " + index);
+            SwingUtilities.invokeLater(() -> content.expandGroup(index));
+        }
+
+        /**
+         * Hover details of a node; the page asks once per node and caches the answer.
+         */
+        @JsAccessible
+        public String describeElement(int index) {
+            return content.describeElement(index);
+        }
+
+        /**
+         * Hover details of the cell between two nodes.
+         */
+        @JsAccessible
+        public String describeRelationship(int sourceIndex, int targetIndex) {
+            return content.describeRelationship(sourceIndex, targetIndex);
+        }
+    }
+
+    /**
+     * Name, metaclass and owner of a shown node, one per line.
+     */
+    private String describeElement(int index) {
+        RelationshipGraph graph = currentGraph;
+        if (graph == null || index < 0 || index >= graph.size()) return "";
+
+        StringBuilder text = new StringBuilder(graph.getNames().get(index));
+        Element element = graph.getElements().get(index);
+        GraphAggregator.Aggregation aggregation = currentAggregation;
+        if (aggregation != null && aggregation.isGroup(index)) {
+            text.append("\nGroup");
+        } else if (element != null) {
+            text.append("\n").append(((BaseElement) element).getHumanType());
+            Element owner = element.getOwner();
+            if (owner != null) {
+                text.append("\nOwner: ").append(RepresentationTextCreator.getRepresentedText((BaseElement) owner));
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * The relationships behind a cell, one per line, up to TOOLTIP_RELATIONSHIPS.
+     */
+    private String describeRelationship(int sourceIndex, int targetIndex) {
+        RelationshipGraph graph = currentGraph;
+        if (graph == null || sourceIndex < 0 || targetIndex < 0
+                || sourceIndex >= graph.size() || targetIndex >= graph.size()) {
+            return "";
+        }
+        List<Element> rels = graph.getRelationships(sourceIndex, targetIndex);
+        if (rels.isEmpty() && currentAggregation == null) {
+            rels = findRelationships(graph.getElements().get(sourceIndex), graph.getElements().get(targetIndex));
+        }
+
+        StringBuilder text = new StringBuilder(graph.getNames().get(sourceIndex))
+            .append(" \u2194 ").append(graph.getNames().get(targetIndex));
+        for (int i = 0; i < rels.size() && i < TOOLTIP_RELATIONSHIPS; i++) {
+            text.append("\n").append(RepresentationTextCreator.getRepresentedText((BaseElement) rels.get(i)));
+        }
+        if (rels.size() > TOOLTIP_RELATIONSHIPS) {
+            text.append("\n\u2026 and ").append(rels.size() - TOOLTIP_RELATIONSHIPS).append(" more");
+        }
+        return text.toString();
+    }
+
+    /**
+     * Navigate to an element in the containment tree.
+     */
+    private void navigateToElement(int index) {
+        if (currentGraph == null || index < 0 || index >= currentGraph.size()) {
+            VisualizerLog.debug("Invalid element index: " + index);
+            return;
+        }
+        if (configPanel != null && configPanel.isFocusOnClick() && focusOn(index)) {
+            return;
+        }
+
+        Element element = currentGraph.getElements().get(index);
+        if (element == null) {
+            VisualizerLog.debug("Group has no model element: " + currentGraph.getNames().get(index));
+            return;
+        }
+        if (VisualizerLog.isDebugEnabled()) {
+            VisualizerLog.debug("Navigating to element: " +
+                RepresentationTextCreator.getRepresentedText((BaseElement) element));
+        }
+
+        Project project = Application.getInstance().getProject();
+        if (project != null && project.getBrowser() != null) {
+            project.getBrowser().getContainmentTree().openNode(element, true);
+        }
+    }
+
+    /**
+     * Navigate to a relationship or connector in the containment tree.
+     */
+    private void navigateToRelationship(int sourceIndex, int targetIndex) {
+        if (currentGraph == null) {
+            return;
+        }
+        List<Element> rels = currentGraph.getRelationships(sourceIndex, targetIndex);
+        if (rels.isEmpty() && currentAggregation == null && sourceIndex >= 0 && targetIndex >= 0
+                && sourceIndex < currentGraph.size() && targetIndex < currentGraph.size()) {
+            // Graphs restored from a snapshot look relationships up on demand
+            rels = findRelationships(currentGraph.getElements().get(sourceIndex),
+                    currentGraph.getElements().get(targetIndex));
+        }
+
+        if (rels.isEmpty()) {
+            VisualizerLog.debug("No relationships found for: " + sourceIndex + " <-> " + targetIndex);
+            return;
+        }
+
+        // Navigate to the first relationship (could enhance to show a list if multiple)
+        Element rel = rels.get(0);
+        if (VisualizerLog.isDebugEnabled()) {
+            VisualizerLog.debug("Navigating to relationship: " +
+                RepresentationTextCreator.getRepresentedText((BaseElement) rel));
+        }
+
+        Project project = Application.getInstance().getProject();
+        if (project != null && project.getBrowser() != null) {
+            project.getBrowser().getContainmentTree().openNode(rel, true);
+        }
+    }
+
+    /**
+     * Re-center the diagram on the neighborhood of a shown element, cut from the
+     * already extracted graph. Groups have no neighborhood of their own and are
+     * navigated to instead. Runs on the EDT.
+     */
+    private boolean focusOn(int index) {
+        RelationshipGraph graph = currentGraph;
+        GraphAggregator.Aggregation aggregation = currentAggregation;
+        if (focusSource == null || (aggregation != null && aggregation.isGroup(index))) {
+            return false;
+        }
+        Element element = graph.getElements().get(index);
+        if (element == null) {
+            return false;
+        }
+        if (focusTrail.isEmpty() || focusTrail.get(focusTrail.size() - 1).element != element) {
+            focusTrail.add(new FocusStep(element, graph.getNames().get(index)));
+        }
+        applyFocus();
+        return true;
+    }
+
+    /**
+     * Show the neighborhood of the last element on the focus trail, or the overview
+     * when the trail is empty.
+     */
+    private void applyFocus() {
+        if (configPanel == null) {
+            return;
+        }
+        showFocusTrail();
+        DiagramSettings settings = configPanel.getSettings();
+        long generation = refreshGeneration.incrementAndGet();
+        if (focusTrail.isEmpty()) {
+            RelationshipGraph overview = overviewGraph;
+            GraphAggregator.Aggregation aggregation = overviewAggregation;
+            if (overview != null) {
+                RefreshScheduler.getInstance().request(this,
+                    () -> publishGraph(overview, settings, generation, aggregation));
+            }
+            return;
+        }
+
+        FocusStep step = focusTrail.get(focusTrail.size() - 1);
+        int hops = configPanel.getFocusHops();
+        EgoNetwork source = focusSource;
+        RefreshScheduler.getInstance().request(this, () -> {
+            int center = source.indexOf(step.element);
+            if (center < 0) {
+                VisualizerLog.debug("Focus element no longer in diagram: " + step.name);
+                return;
+            }
+            EgoNetwork.Result focused = source.focus(center, hops);
+            VisualizerLog.debug("Focused on " + step.name + ": " + focused.getGraph().size() +
+                " elements within " + hops + " hops");
+            publishGraph(focused.getGraph(), settings, generation);
+        });
+    }
+
+    private void showFocusTrail() {
+        List<String> names = new ArrayList<>(focusTrail.size());
+        for (FocusStep step : focusTrail) {
+            names.add(step.name);
+        }
+        configPanel.setFocusTrail(names, this::returnToFocus);
+    }
+
+    /**
+     * Breadcrumb selected: go back to that step of the trail, or to the overview for -1.
+     */
+    private void returnToFocus(int position) {
+        while (focusTrail.size() > position + 1) {
+            focusTrail.remove(focusTrail.size() - 1);
+        }
+        applyFocus();
+    }
+
+    /**
+     * A new graph was extracted: it becomes the overview, and the trail no longer applies.
+     * Runs on a scheduler worker.
+     */
+    private void publishOverview(RelationshipGraph source, RelationshipGraph graph, DiagramSettings settings,
+            long generation, GraphAggregator.Aggregation aggregation) {
+        if (generation != refreshGeneration.get()) return;
+        focusSource = new EgoNetwork(source);
+        overviewGraph = graph;
+        overviewAggregation = aggregation;
+        SwingUtilities.invokeLater(() -> {
+            focusTrail.clear();
+            if (configPanel != null) {
+                showFocusTrail();
+            }
+        });
+        publishGraph(graph, settings, generation, aggregation);
+    }
+
+    /**
+     * Replace a group of the shown graph with its members. Other groups keep their
+     * aggregated weights, so only the group's own edges are revisited.
+     */
+    private void expandGroup(int index) {
+        GraphAggregator.Aggregation aggregation = currentAggregation;
+        if (aggregation == null || !aggregation.isGroup(index) || configPanel == null) {
+            return;
+        }
+        DiagramSettings settings = configPanel.getSettings();
+        long generation = refreshGeneration.incrementAndGet();
+        RefreshScheduler.getInstance().request(this, () -> {
+            GraphAggregator.Aggregation expanded = aggregation.expand(index);
+            if (generation != refreshGeneration.get()) return;
+            // Expanding refines the overview that the breadcrumbs return to
+            overviewGraph = expanded.getGraph();
+            overviewAggregation = expanded;
+            publishGraph(expanded.getGraph(), settings, generation, expanded);
+        });
+    }
+
+    /**
+     * Relationships between two elements that match the current relation criteria.
+     * Connectors are not looked up here.
+     */
+    private List<Element> findRelationships(Element source, Element target) {
+        String criteria = configPanel != null ? configPanel.getRelationCriteria() : "Any";
+        List<Element> result = new ArrayList<>();
+        for (Object relObj : source.get_relationshipOfRelatedElement().toArray()) {
+            if (!(relObj instanceof Relationship)) continue;
+            Relationship rel = (Relationship) relObj;
+            if (GraphExtractor.matchesRelationCriteria(rel, criteria)
+                    && rel.getRelatedElement().contains(target)) {
+                result.add(rel);
+            }
+        }
+        return result;
+    }
+
+    private String loadLicenseKey() {
+        // First try system property (allows override)
+        String key = System.getProperty("jxbrowser.license.key");
+        if (key != null && !key.isEmpty()) {
+            return key;
+        }
+
+        // Then try bundled properties file
+        try (InputStream is = getClass().getResourceAsStream("/jxbrowser.properties")) {
+            if (is != null) {
+                Properties props = new Properties();
+                props.load(is);
+                return props.getProperty("license.key");
+            }
+        } catch (IOException e) {
+            // Fall through to return null
+        }
+        return null;
+    }
+
+    @Override
+    public JComponent createComponent() {
+        VisualizerLog.debug("createComponent() called");
+        if (splitPane == null) {
+            VisualizerLog.debug("Creating new UI components");
+            configPanel = new DiagramConfigPanel();
+            browserView = BrowserView.newInstance(browser);
+
+            // Set default context
+            Namespace defaultContext = diagram.getDiagram().getOwner() instanceof Namespace
+                    ? (Namespace) diagram.getDiagram().getOwner()
+                    : null;
+            configPanel.setDefaultContext(defaultContext);
+
+            // Set up context selection dialog
+            configPanel.setContextSelectAction(e -> showContextSelectionDialog());
+
+            // Load saved settings before creating the split pane
+            loadSettings();
+
+            splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, configPanel, browserView);
+            splitPane.setDividerLocation(280);
+
+            configPanel.addRefreshListener(e -> {
+                VisualizerLog.debug("Refresh button clicked");
+                refreshDiagram();
+            });
+            // Relation kinds are merged from the cached layers, so apply them right away
+            configPanel.addRelationCriteriaListener(e -> refreshDiagram());
+            configPanel.addFocusHopsListener(e -> {
+                if (!focusTrail.isEmpty()) {
+                    applyFocus();
+                }
+            });
+
+            Project project = Application.getInstance().getProject();
+            if (project != null) {
+                transactionManager = project.getRepository().getTransactionManager();
+                transactionManager.addTransactionCommitListenerIncludingUndoAndRedo(modelChangeListener);
+            }
+
+            // Track visibility so background diagrams stop updating and can hibernate
+            hibernateTimer = new Timer(HIBERNATE_AFTER_SECONDS * 1000, e -> hibernate());
+            hibernateTimer.setRepeats(false);
+            splitPane.addHierarchyListener(e -> {
+                if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                    if (splitPane.isShowing()) {
+                        onShown();
+                    } else {
+                        hibernateTimer.restart();
+                    }
+                }
+            });
+
+            loadHtml();
+            VisualizerLog.debug("createComponent() completed");
+        }
+        return splitPane;
+    }
+
+    /**
+     * Show dialog to select context element.
+     */
+    private void showContextSelectionDialog() {
+        Project project = Application.getInstance().getProject();
+        if (project == null) return;
+
+        java.awt.Window parent = MDDialogParentProvider.getProvider().getDialogOwner();
+        ElementSelectionDlg dlg = ElementSelectionDlgFactory.create(parent);
+
+        // Set up element types filter (allow Packages and Namespaces)
+        java.util.List<java.lang.Class<?>> includedTypes = new ArrayList<>();
+        includedTypes.add(Package.class);
+        includedTypes.add(Namespace.class);
+        SelectElementTypes types = new SelectElementTypes(null, includedTypes, null, null);
+        SelectElementInfo info = new SelectElementInfo(true, false, project.getPrimaryModel(), true);
+        ElementSelectionDlgFactory.initSingle(dlg, types, info, project.getPrimaryModel());
+
+        dlg.setVisible(true);
+
+        if (dlg.isOkClicked()) {
+            BaseElement selected = dlg.getSelectedElement();
+            if (selected instanceof Namespace) {
+                configPanel.setContextElement((Namespace) selected);
+            }
+        }
+    }
+
+    /**
+     * Save current settings to a Comment element owned by the diagram.
+     */
+    private void saveSettings() {
+        Project project = Application.getInstance().getProject();
+        if (project == null || configPanel == null) return;
+
+        try {
+            // Build settings JSON
+            DiagramSettings settings = configPanel.getSettings();
+
+            // Context element ID (if overridden)
+            if (configPanel.isContextOverridden()) {
+                Namespace ctx = configPanel.getContextElement();
+                if (ctx != null) {
+                    settings.setContextElementId(ctx.getID());
+                }
+            }
+
+            String json = new Gson().toJson(settings.toJson());
+
+            // Find or create the settings comment
+            Element diagramElement = diagram.getDiagram();
+            Comment settingsComment = findSettingsComment(diagramElement);
+            // Unchanged settings need no session, and so cause no model change
+            if (settingsComment != null && (getSettingsCommentPrefix() + json).equals(settingsComment.getBody())) {
+                return;
+            }
+            if (VisualizerLog.isDebugEnabled()) {
+                VisualizerLog.debug("Saving settings: " + json);
+            }
+
+            SessionManager.getInstance().createSession(project, "Save " + getDiagramTypeName() + " Settings");
+            try {
+                if (settingsComment == null) {
+                    // Create new comment
+                    settingsComment = project.getElementsFactory().createCommentInstance();
+                    settingsComment.setOwner(diagramElement);
+                }
+                // Store with prefix to identify this as a settings comment
+                settingsComment.setBody(getSettingsCommentPrefix() + json);
+                SessionManager.getInstance().closeSession(project);
+                VisualizerLog.debug("Settings saved successfully");
+            } catch (Exception e) {
+                SessionManager.getInstance().cancelSession(project);
+                VisualizerLog.error("Error saving settings: " + e.getMessage());
+            }
+        } catch (Exception e) {
+            VisualizerLog.error("Error in saveSettings: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load settings from the diagram's Comment element.
+     */
+    private void loadSettings() {
+        if (configPanel == null) return;
+
+        try {
+            Element diagramElement = diagram.getDiagram();
+            Comment settingsComment = findSettingsComment(diagramElement);
+
+            if (settingsComment == null || settingsComment.getBody() == null) {
+                VisualizerLog.debug("No saved settings found");
+                return;
+            }
+
+            String body = settingsComment.getBody();
+            // Strip the prefix to get the JSON
+            String json = body.substring(getSettingsCommentPrefix().length());
+            if (VisualizerLog.isDebugEnabled()) {
+                VisualizerLog.debug("Loading settings: " + json);
+            }
+
+            DiagramSettings settings = DiagramSettings.fromJson(new Gson().fromJson(json, JsonObject.class));
+
+            // Restore context element
+            if (settings.getContextElementId() != null) {
+                String contextId = settings.getContextElementId();
+                Project project = Application.getInstance().getProject();
+                if (project != null) {
+                    BaseElement ctx = project.getElementByID(contextId);
+                    if (ctx instanceof Namespace) {
+                        configPanel.setContextElement((Namespace) ctx);
+                    }
+                }
+            }
+
+            // Restore other settings
+            configPanel.applySettings(settings);
+
+            VisualizerLog.debug("Settings loaded successfully");
+        } catch (Exception e) {
+            VisualizerLog.error("Error loading settings: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Find the settings Comment element owned by the diagram.
+     */
+    private Comment findSettingsComment(Element diagramElement) {
+        if (diagramElement == null) return null;
+
+        for (Object obj : diagramElement.getOwnedComment().toArray()) {
+            if (obj instanceof Comment) {
+                Comment c = (Comment) obj;
+                String body = c.getBody();
+                if (body != null && body.startsWith(getSettingsCommentPrefix())) {
+                    return c;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Called on the EDT once the page has loaded, either initially or after hibernation.
+     */
+    private void onPageLoaded() {
+        if (snapshot == null || refreshPending) {
+            snapshot = null;
+            refreshDiagram();
+            return;
+        }
+
+        Project project = Application.getInstance().getProject();
+        RelationshipGraph graph = project != null ? snapshot.restore(project) : null;
+        snapshot = null;
+        if (graph == null || graph.size() == 0) {
+            refreshDiagram();
+            return;
+        }
+
+        VisualizerLog.debug("Restored diagram from snapshot with " + graph.size() + " elements");
+        DiagramSettings settings = configPanel.getSettings();
+        long generation = refreshGeneration.incrementAndGet();
+        RefreshScheduler.getInstance().request(this,
+            () -> publishOverview(graph, graph, settings, generation, null));
+    }
+
+    /**
+     * Diagram became visible again: reopen the browser if hibernated, or run a deferred refresh.
+     */
+    private void onShown() {
+        if (hibernateTimer != null) {
+            hibernateTimer.stop();
+        }
+        if (splitPane == null) return;
+        RefreshScheduler.getInstance().setFocused(this);
+
+        if (browser == null) {
+            VisualizerLog.debug("Waking hibernated diagram");
+            int divider = splitPane.getDividerLocation();
+            initBrowser();
+            browserView = BrowserView.newInstance(browser);
+            splitPane.setRightComponent(browserView);
+            splitPane.setDividerLocation(divider);
+            loadHtml();
+        } else if (refreshPending && htmlLoaded) {
+            refreshDiagram();
+        }
+    }
+
+    /**
+     * Close the browser of a diagram that has been in the background for a while,
+     * keeping only a compact snapshot of what it showed.
+     */
+    private void hibernate() {
+        if (splitPane == null || splitPane.isShowing() || browser == null) return;
+
+        // The overview is kept rather than a focused neighborhood, which the wake would
+        // otherwise restore as the overview. Grouped graphs are rebuilt on wake instead;
+        // groups have no stable IDs
+        RelationshipGraph overview = overviewGraph;
+        if (overview != null && overviewAggregation == null) {
+            snapshot = GraphSnapshot.of(overview);
+        }
+        VisualizerLog.debug("Hibernating diagram, snapshot of " +
+            (snapshot != null ? snapshot.size() : 0) + " elements");
+
+        refreshGeneration.incrementAndGet();
+        currentGraph = null;
+        currentAggregation = null;
+        // Caches and focus state are rebuilt by the restore or refresh after waking
+        overviewGraph = null;
+        overviewAggregation = null;
+        focusSource = null;
+        focusTrail.clear();
+        showFocusTrail();
+        cachedLayers = null;
+        elementIndex = null;
+        cachedNeighborhood = null;
+        htmlLoaded = false;
+        preparedHtml = null;
+        browser.close();
+        engine.close();
+        browser = null;
+        engine = null;
+
+        int divider = splitPane.getDividerLocation();
+        JLabel placeholder = new JLabel("Diagram suspended", SwingConstants.CENTER);
+        placeholder.setForeground(Color.GRAY);
+        splitPane.setRightComponent(placeholder);
+        splitPane.setDividerLocation(divider);
+        browserView = null;
+    }
+
+    private void refreshDiagram() {
+        VisualizerLog.debug("refreshDiagram() called, htmlLoaded=" + htmlLoaded);
+
+        // Background and hibernated diagrams refresh once they are shown again
+        if (browser == null || (splitPane != null && !splitPane.isShowing())) {
+            VisualizerLog.debug("Deferring refresh - diagram is not visible");
+            refreshPending = true;
+            return;
+        }
+        refreshPending = false;
+
+        // Guard: Skip if HTML not yet loaded (race condition fix)
+        if (!htmlLoaded) {
+            VisualizerLog.debug("Skipping refresh - HTML not yet loaded");
+            return;
+        }
+
+        DiagramSettings settings = configPanel.getSettings();
+        Namespace container = configPanel.getContextElement();
+        // Neighborhood diagrams are built around their seed element instead
+        if (container == null && !settings.isNeighborhood()) {
+            VisualizerLog.debug("Container is null, cannot refresh");
+            showMessageInBrowser("No valid container found for this diagram.");
+            return;
+        }
+
+        VisualizerLog.debug("Container: " + (container != null ? container.getName() : "none"));
+
+        if (VisualizerLog.isDebugEnabled()) {
+            VisualizerLog.debug("Element type filter: " + settings.getElementType() +
+                ", includeSubtypes: " + settings.isIncludeSubtypes() + ", recursive: " + settings.isRecursive() +
+                ", relationCriteria: " + settings.getRelationCriteria() + ", showOrphans: " + settings.isShowOrphans());
+        }
+
+        // Extraction and layout run on the plugin-wide scheduler, which coalesces
+        // repeated requests and serves the focused diagram first
+        long generation = refreshGeneration.incrementAndGet();
+        RefreshScheduler.getInstance().request(this, () -> computeRefresh(container, settings, generation));
+
+        // Save the settings this refresh was requested with
+        saveSettings();
+    }
+
+    private LayeredGraph extractLayers(Namespace container, DiagramSettings settings) {
+        String key = ((BaseElement) container).getID() + "|" + settings.getElementType() + "|" +
+            settings.isIncludeSubtypes() + "|" + settings.isRecursive();
+        CachedLayers cached = cachedLayers;
+        if (cached != null && cached.key.equals(key)) {
+            VisualizerLog.debug("Reusing relationship layers of the previous extraction");
+            return cached.layers;
+        }
+
+        long changes = modelChanges.get();
+        ElementIndex index = elementIndex;
+        if (index == null || index.getContext() != container) {
+            index = ElementIndex.build(container);
+            VisualizerLog.debug("Indexed " + index.size() + " elements of " + container.getName());
+            if (changes == modelChanges.get()) {
+                elementIndex = index;
+            }
+        }
+        LayeredGraph layers = new GraphExtractor().extractLayers(
+            index.select(settings.getElementType(), settings.isIncludeSubtypes(), settings.isRecursive()));
+        // Layers read during a model change may already be stale, so they are not kept
+        if (changes == modelChanges.get()) {
+            cachedLayers = new CachedLayers(key, index, layers);
+        }
+        return layers;
+    }
+
+    private RelationshipGraph crawlNeighborhood(Element seed, DiagramSettings settings) {
+        String key = ((BaseElement) seed).getID() + "|" + settings.getHops() + "|" + settings.getNodeBudget();
+        CachedNeighborhood cached = cachedNeighborhood;
+        if (cached != null && cached.key.equals(key)) {
+            VisualizerLog.debug("Reusing the previous neighborhood crawl");
+            return cached.graph;
+        }
+
+        long changes = modelChanges.get();
+        RelationshipGraph graph = new NeighborhoodCrawler(settings.getHops(), settings.getNodeBudget()).crawl(seed);
+        if (changes == modelChanges.get()) {
+            cachedNeighborhood = new CachedNeighborhood(key, graph);
+        }
+        return graph;
+    }
+
+    /**
+     * Drop the caches a committed model change may have made stale. Commits that only
+     * save this diagram's settings leave every cache valid.
+     */
+    private void onModelChange(Collection<PropertyChangeEvent> events) {
+        if (onlyTouchesOwnSettings(events)) {
+            return;
+        }
+        modelChanges.incrementAndGet();
+        cachedNeighborhood = null;
+        CachedLayers cached = cachedLayers;
+        if (cached != null && (touchesRelationships(events) || touchesContext(cached.index, events))) {
+            cachedLayers = null;
+        }
+        ElementIndex index = elementIndex;
+        if (index != null && touchesContext(index, events)) {
+            elementIndex = null;
+        }
+    }
+
+    private boolean onlyTouchesOwnSettings(Collection<PropertyChangeEvent> events) {
+        for (PropertyChangeEvent event : events) {
+            if (!isOwnSettingsChange(event)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether an event belongs to saving this diagram's settings: a change to the
+     * diagram itself or to a Comment it owns.
+     */
+    private boolean isOwnSettingsChange(PropertyChangeEvent event) {
+        Element diagramElement = diagram.getDiagram();
+        Object source = event.getSource();
+        return source == diagramElement
+            || (source instanceof Comment && ((Comment) source).getOwner() == diagramElement);
+    }
+
+    private static boolean isLink(Object value) {
+        return value instanceof Relationship || value instanceof Connector;
+    }
+
+    private static boolean touchesRelationships(Collection<PropertyChangeEvent> events) {
+        for (PropertyChangeEvent event : events) {
+            // Relationships owned outside the context may still connect its elements
+            if (isLink(event.getSource()) || isLink(event.getOldValue()) || isLink(event.getNewValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a change affects elements inside the indexed context. The diagram usually
+     * lives in its context, so changes to it and its settings Comment are not counted.
+     */
+    private boolean touchesContext(ElementIndex index, Collection<PropertyChangeEvent> events) {
+        for (PropertyChangeEvent event : events) {
+            if (isOwnSettingsChange(event)) continue;
+            // Moved elements are covered through their old or new owner
+            if ((event.getSource() instanceof Element && index.covers((Element) event.getSource()))
+                    || (event.getOldValue() instanceof Element && index.covers((Element) event.getOldValue()))
+                    || (event.getNewValue() instanceof Element && index.covers((Element) event.getNewValue()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extract, filter and prune the graph, then publish it. Runs on a scheduler worker.
+     */
+    private void computeRefresh(Namespace container, DiagramSettings settings, long generation) {
+        if (generation != refreshGeneration.get()) return;
+
+        // 1. Collect elements of the specified type and build the relationship graph,
+        // reusing the layers of the previous extraction when only the criteria changed
+        RelationshipGraph graph;
+        if (settings.isNeighborhood()) {
+            Project project = Application.getInstance().getProject();
+            BaseElement seed = project != null && settings.getSeedElementId() != null
+                ? project.getElementByID(settings.getSeedElementId())
+                : null;
+            if (!(seed instanceof Element)) {
+                showMessageInBrowser("The element this neighborhood was created from no longer exists.");
+                return;
+            }
+            try {
+                graph = crawlNeighborhood((Element) seed, settings);
+            } catch (IllegalStateException e) {
+                // A partial neighborhood would look complete, so nothing is shown or cached
+                VisualizerLog.error(e.getMessage(), e.getCause());
+                showMessageInBrowser(e.getMessage() + ". Refresh to try again.");
+                return;
+            }
+        } else {
+            graph = extractLayers(container, settings).merge(settings.getRelationCriteria());
+        }
+
+        VisualizerLog.debug("Found " + graph.size() + " elements matching filter");
+
+        if (graph.size() == 0) {
+            VisualizerLog.debug("No elements found, showing message");
+            showMessageInBrowser(container != null
+                ? "No elements of type '" + settings.getElementType() + "' found in container '" + container.getName() + "'."
+                : "No elements found in this neighborhood.");
+            return;
+        }
+
+        VisualizerLog.debug("Built adjacency matrix with " + graph.getRelationshipCount() + " relationships");
+
+        // 2. Filter nodes by the degrees counted during extraction (orphans have degree 0)
+        NodeFilter nodeFilter = NodeFilter.of(settings);
+        int filteredNodes = 0;
+        if (nodeFilter.isActive()) {
+            NodeFilter.Result filtered = nodeFilter.filter(graph);
+            graph = filtered.getGraph();
+            filteredNodes = filtered.getDroppedNodes();
+            VisualizerLog.debug("Filtered " + filteredNodes + " elements by degree, " +
+                graph.size() + " remain");
+        }
+
+        // 3. Prune light ribbons
+        EdgePruner pruner = new EdgePruner(settings.getMaxEdges(), settings.getMinEdgeWeight());
+        int droppedEdges = 0;
+        int droppedNodes = 0;
+        if (pruner.isActive()) {
+            EdgePruner.Result pruned = pruner.prune(graph);
+            graph = pruned.getGraph();
+            droppedEdges = pruned.getDroppedEdges();
+            droppedNodes = pruned.getDroppedNodes();
+            VisualizerLog.debug("Pruned " + droppedEdges + " ribbons and " + droppedNodes + " elements");
+        }
+        int prunedEdges = droppedEdges;
+        int prunedNodes = filteredNodes + droppedNodes;
+        SwingUtilities.invokeLater(() -> {
+            if (configPanel != null) {
+                configPanel.setPruningStatus(prunedEdges, prunedNodes);
+            }
+        });
+
+        // 4. Roll large graphs up into groups
+        GraphAggregator.Grouping grouping = GraphAggregator.parseGrouping(settings.getGroupBy());
+        GraphAggregator.Aggregation aggregation = null;
+        RelationshipGraph individual = graph;
+        if (grouping != null && graph.size() > settings.getGroupThreshold()) {
+            aggregation = new GraphAggregator(grouping, settings.getGroupLevel()).aggregate(graph, container);
+            VisualizerLog.debug("Grouped " + graph.size() + " elements into " +
+                aggregation.getGraph().size() + " nodes by " + settings.getGroupBy());
+            graph = aggregation.getGraph();
+        }
+
+        // 5. Send to Browser; focus steps start from the individual elements
+        publishOverview(individual, graph, settings, generation, aggregation);
+    }
+
+    /**
+     * Build the page payload and send it, unless a newer refresh has started in the
+     * meantime. Runs on a scheduler worker.
+     */
+    private void publishGraph(RelationshipGraph graph, DiagramSettings settings, long generation) {
+        publishGraph(graph, settings, generation, null);
+    }
+
+    private void publishGraph(RelationshipGraph graph, DiagramSettings settings, long generation,
+            GraphAggregator.Aggregation aggregation) {
+        // Grouped graphs are small, and group indices must stay as the aggregation numbered them
+        if (aggregation == null && this instanceof ProgressiveDiagram
+                && graph.getAdjacency().edgeCount() >= PROGRESSIVE_MIN_EDGES) {
+            publishProgressively((ProgressiveDiagram) this, graph, settings, generation);
+            return;
+        }
+
+        JsonObject data = buildDiagramData(graph, settings);
+        if (aggregation != null) {
+            // Indices of the nodes the page may offer to expand
+            JsonArray groups = new JsonArray();
+            for (int i = 0; i < graph.size(); i++) {
+                if (aggregation.isGroup(i)) {
+                    groups.add(i);
+                }
+            }
+            data.add("groups", groups);
+        }
+        if (generation != refreshGeneration.get()) return;
+
+        currentGraph = graph; // Update stored elements (may have been filtered)
+        currentAggregation = aggregation;
+        sendDiagramData(data);
+    }
+
+    /**
+     * Send a large graph in chunks, so the page can draw the hubs and their heaviest
+     * relationships first and refine the picture as the rest arrives. Stops when a
+     * newer refresh starts or the browser is closed.
+     */
+    private void publishProgressively(ProgressiveDiagram content, RelationshipGraph graph, DiagramSettings settings,
+            long generation) {
+        RelationshipGraph ranked = ProgressiveChunker.rankByDegree(graph);
+        List<ProgressiveChunker.Chunk> chunks =
+            new ProgressiveChunker(PROGRESSIVE_CHUNK_NODES, PROGRESSIVE_CHUNK_EDGES).plan(ranked);
+        if (generation != refreshGeneration.get()) return;
+
+        // Page indices refer to the ranked graph from the first chunk on
+        currentGraph = ranked;
+        currentAggregation = null;
+        VisualizerLog.debug("Sending " + ranked.size() + " elements in " + chunks.size() + " chunks");
+
+        for (int i = 0; i < chunks.size(); i++) {
+            JsonObject data = content.buildDiagramChunk(ranked, settings, chunks.get(i));
+            JsonObject progress = new JsonObject();
+            progress.addProperty("index", i);
+            progress.addProperty("count", chunks.size());
+            progress.addProperty("totalNodes", ranked.size());
+            data.add("chunk", progress);
+            if (generation != refreshGeneration.get()) return;
+
+            if (i == 0) {
+                sendDiagramData(data);
+            } else if (!sendToPage("window.appendDiagramData", data)) {
+                return;
+            }
+        }
+    }
+
+    private void sendDiagramData(JsonObject data) {
+        sendToPage("window.updateDiagram", data);
+    }
+
+    /**
+     * Call a page function with a payload; false if the page could not be reached.
+     */
+    private boolean sendToPage(String function, JsonObject data) {
+        String json = new Gson().toJson(data);
+        VisualizerLog.debug("Sending JSON to browser, length=" + json.length());
+
+        // Read once: hibernation may close the browser while a layout is in flight
+        Browser target = browser;
+        if (target == null) return false;
+        return target.mainFrame().map(frame -> {
+            VisualizerLog.debug("Executing JavaScript: " + function + "(...)");
+            frame.executeJavaScript(function + "(" + json + ");");
+            return true;
+        }).orElseGet(() -> {
+            VisualizerLog.warn("Main frame not available!");
+            return false;
+        });
+    }
+
+    private void showMessageInBrowser(String message) {
+        Browser target = browser;
+        if (target == null) return;
+        target.mainFrame().ifPresentOrElse(
+            frame -> {
+                String escapedMessage = message.replace("'", "\\'").replace("\n", "\\n");
+                frame.executeJavaScript(
+                    "document.getElementById('chart').innerHTML = '<div style=\"padding: 20px; color: #666; font-size: 14px;\">" + escapedMessage + "</div>';"
+                );
+            },
+            () -> VisualizerLog.warn("Cannot show message, main frame not available")
+        );
+    }
+
+    private void loadHtml() {
+        VisualizerLog.debug("loadHtml() called");
+        try {
+            // Read all resources as strings
+            String html = readResource(getHtmlResource());
+            if (html == null) {
+                VisualizerLog.error(getHtmlResource() + " resource not found!");
+                return;
+            }
+
+            // Replace placeholders with inline scripts
+            for (Map.Entry<String, String> script : getScriptResources().entrySet()) {
+                String js = readResource(script.getValue());
+                if (js == null) {
+                    VisualizerLog.error(script.getValue() + " resource not found!");
+                    return;
+                }
+                VisualizerLog.debug("Resource loaded - " + script.getValue() + ": " + js.length() + " bytes");
+                html = html.replace(script.getKey(), "<script>\n" + js + "\n</script>");
+            }
+
+            VisualizerLog.debug("Final HTML size: " + html.length() + " bytes");
+
+            // Store the prepared HTML
+            this.preparedHtml = html;
+
+            // Load the HTML content directly (not via URL)
+            browser.mainFrame().ifPresentOrElse(
+                frame -> {
+                    VisualizerLog.debug("Loading HTML content into browser frame");
+                    frame.loadHtml(preparedHtml);
+                },
+                () -> {
+                    // If main frame not available yet, load about:blank first to create the frame
+                    // The NavigationFinished handler will then load our prepared HTML
+                    VisualizerLog.debug("Main frame not available, loading about:blank first");
+                    browser.navigation().loadUrl("about:blank");
+                }
+            );
+        } catch (Exception e) {
+            VisualizerLog.error("Error loading HTML: " + e.getMessage(), e);
+        }
+    }
+
+    private String readResource(String path) {
+        try (InputStream is = getClass().getResourceAsStream(path)) {
+            if (is == null) {
+                return null;
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+                StringBuilder sb = new StringBuilder();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    sb.append(line).append("\n");
+                }
+                return sb.toString();
+            }
+        } catch (IOException e) {
+            VisualizerLog.error("Error reading resource " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void activate() {
+        // Called when the diagram tab becomes active
+        onShown();
+    }
+
+    @Override
+    public void dispose() {
+        // Cleanup resources
+        if (hibernateTimer != null) {
+            hibernateTimer.stop();
+        }
+        RefreshScheduler.getInstance().cancel(this);
+        refreshGeneration.incrementAndGet();
+        if (browser != null) {
+            browser.close();
+            browser = null;
+        }
+        if (engine != null) {
+            engine.close();
+            engine = null;
+        }
+        if (transactionManager != null) {
+            transactionManager.removeTransactionCommitListener(modelChangeListener);
+            transactionManager = null;
+        }
+        cachedLayers = null;
+        elementIndex = null;
+        cachedNeighborhood = null;
+        configPanel = null;
+        splitPane = null;
+        currentGraph = null;
+        currentAggregation = null;
+        overviewGraph = null;
+        overviewAggregation = null;
+        focusSource = null;
+        focusTrail.clear();
+        snapshot = null;
+    }
+
+    @Override
+    public Dimension getComponentFullSize(JComponent component) {
+        return component.getPreferredSize();
+    }
+
+    @Override
+    public Rectangle getPaintableBounds(JComponent component) {
+        return component.getBounds();
+    }
+
+    /**
+     * Relationship layers together with the context and element filter they were extracted for.
+     */
+    private static final class CachedLayers {
+        final String key;
+        final ElementIndex index;
+        final LayeredGraph layers;
+
+        CachedLayers(String key, ElementIndex index, LayeredGraph layers) {
+            this.key = key;
+            this.index = index;
+            this.layers = layers;
+        }
+    }
+
+    /**
+     * Crawled neighborhood graph together with the seed, hops and budget it was crawled for.
+     */
+    private static final class CachedNeighborhood {
+        final String key;
+        final RelationshipGraph graph;
+
+        CachedNeighborhood(String key, RelationshipGraph graph) {
+            this.key = key;
+            this.graph = graph;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.jonbackhaus.visualizer.diagram.chord;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.jonbackhaus.visualizer.graph.SparseAdjacency;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Chord geometry computed in Java from the sparse adjacency.
+ * Port of d3.chord() with padAngle and sortSubgroups(d3.descending), so the page
+ * receives finished group angles and ribbon endpoints and only has to draw them.
+ */
+public class ChordLayout {
+
+    public static final double DEFAULT_PAD_ANGLE = 0.05;
+    private static final double TAU = 2 * Math.PI;
+
+    /**
+     * Angular extent of one arc group or one ribbon end.
+     */
+    public static class Segment {
+        public final int index;
+        public final double startAngle;
+        public final double endAngle;
+        public final double value;
+
+        Segment(int index, double startAngle, double endAngle, double value) {
+            this.index = index;
+            this.startAngle = startAngle;
+            this.endAngle = endAngle;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Ribbon between two groups.
+     */
+    public static class Chord {
+        public Segment source;
+        public Segment target;
+    }
+
+    private final Segment[] groups;
+    private final List<Chord> chords;
+
+    private ChordLayout(Segment[] groups, List<Chord> chords) {
+        this.groups = groups;
+        this.chords = chords;
+    }
+
+    public Segment[] getGroups() {
+        return groups;
+    }
+
+    public List<Chord> getChords() {
+        return chords;
+    }
+
+    public static ChordLayout compute(SparseAdjacency adjacency) {
+        return compute(adjacency, DEFAULT_PAD_ANGLE);
+    }
+
+    public static ChordLayout compute(SparseAdjacency adjacency, double padAngle) {
+        int n = adjacency.size();
+        int[][] subgroups = subgroupIndices(adjacency);
+
+        // Compute the scaling factor from value to angle in [0, 2pi]
+        double[] groupSums = new double[n];
+        double total = 0;
+        for (int e = 0; e < adjacency.edgeCount(); e++) {
+            groupSums[adjacency.rowAt(e)] += adjacency.weightAt(e);
+        }
+        for (double sum : groupSums) {
+            total += sum;
+        }
+        double k = Math.max(0, TAU - padAngle * n) / total;
+        // Same truthiness test as d3: zero and NaN fall back to an even split
+        double dx = (k != 0 && !Double.isNaN(k)) ? padAngle : TAU / n;
+
+        // Compute the angles for each group and constituent chord
+        Segment[] groups = new Segment[n];
+        Map<Long, Chord> chordsByCell = new TreeMap<>();
+        double x = 0;
+        for (int i = 0; i < n; i++) {
+            double x0 = x;
+            for (int j : subgroups[i]) {
+                double value = adjacency.get(i, j);
+                double start = x;
+                x += value * k;
+                Segment subgroup = new Segment(i, start, x, value);
+
+                Chord chord;
+                if (i < j) {
+                    chord = chordsByCell.computeIfAbsent(SparseAdjacency.key(i, j), c -> new Chord());
+                    chord.source = subgroup;
+                } else {
+                    chord = chordsByCell.computeIfAbsent(SparseAdjacency.key(j, i), c -> new Chord());
+                    chord.target = subgroup;
+                    if (i == j) {
+                        chord.source = chord.target;
+                    }
+                }
+                if (chord.source != null && chord.target != null && chord.source.value < chord.target.value) {
+                    Segment source = chord.source;
+                    chord.source = chord.target;
+                    chord.target = source;
+                }
+            }
+            groups[i] = new Segment(i, x0, x, groupSums[i]);
+            x += dx;
+        }
+
+        return new ChordLayout(groups, new ArrayList<>(chordsByCell.values()));
+    }
+
+    /**
+     * For each node, the neighbors in either direction ordered by descending
+     * outgoing weight, ties kept in index order (matches d3's stable sort).
+     */
+    private static int[][] subgroupIndices(SparseAdjacency adjacency) {
+        int n = adjacency.size();
+        int[] counts = new int[n];
+        for (int e = 0; e < adjacency.edgeCount(); e++) {
+            if (adjacency.weightAt(e) == 0) continue;
+            counts[adjacency.rowAt(e)]++;
+            counts[adjacency.columnAt(e)]++;
+        }
+
+        int[][] neighbors = new int[n][];
+        for (int i = 0; i < n; i++) {
+            neighbors[i] = new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int e = 0; e < adjacency.edgeCount(); e++) {
+            if (adjacency.weightAt(e) == 0) continue;
+            int r = adjacency.rowAt(e);
+            int c = adjacency.columnAt(e);
+            neighbors[r][counts[r]++] = c;
+            neighbors[c][counts[c]++] = r;
+        }
+
+        int[][] result = new int[n][];
+        for (int i = 0; i < n; i++) {
+            int[] sorted = neighbors[i];
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int m = 0; m < sorted.length; m++) {
+                if (m == 0 || sorted[m] != sorted[m - 1]) {
+                    sorted[distinct++] = sorted[m];
+                }
+            }
+
+            final int row = i;
+            Integer[] ordered = new Integer[distinct];
+            for (int m = 0; m < distinct; m++) {
+                ordered[m] = sorted[m];
+            }
+            Arrays.sort(ordered, Comparator.comparingDouble((Integer j) -> adjacency.get(row, j)).reversed());
+
+            result[i] = new int[distinct];
+            for (int m = 0; m < distinct; m++) {
+                result[i][m] = ordered[m];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Flat JSON encoding: groups as [index, startAngle, endAngle, value] quadruples,
+     * chords as source quadruple followed by target quadruple.
+     */
+    public JsonObject toJson() {
+        JsonArray groupArray = new JsonArray();
+        for (Segment group : groups) {
+            addSegment(groupArray, group);
+        }
+        JsonArray chordArray = new JsonArray();
+        for (Chord chord : chords) {
+            addSegment(chordArray, chord.source);
+            addSegment(chordArray, chord.target);
+        }
+
+        JsonObject layout = new JsonObject();
+        layout.add("groups", groupArray);
+        layout.add("chords", chordArray);
+        return layout;
+    }
+
+    private static void addSegment(JsonArray array, Segment segment) {
+        array.add(segment.index);
+        array.add(segment.startAngle);
+        array.add(segment.endAngle);
+        array.add(segment.value);
+    }
+}
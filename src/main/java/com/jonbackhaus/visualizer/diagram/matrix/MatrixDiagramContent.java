@@ -0,0 +1,101 @@
+package com.jonbackhaus.visualizer.diagram.matrix;
+
+import com.nomagic.magicdraw.uml.symbols.DiagramPresentationElement;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package;
+import com.jonbackhaus.visualizer.diagram.DiagramSettings;
+import com.jonbackhaus.visualizer.diagram.VisualizerDiagramContent;
+import com.jonbackhaus.visualizer.graph.RelationshipGraph;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Content for the Adjacency Matrix diagram.
+ * Renders the relationship graph as a canvas heatmap; only the non-zero cells are
+ * sent to the page, which tiles and aggregates them per zoom level.
+ */
+public class MatrixDiagramContent extends VisualizerDiagramContent {
+
+    public static final String SETTINGS_COMMENT_PREFIX = "MATRIX_DIAGRAM_SETTINGS:";
+
+    public MatrixDiagramContent(DiagramPresentationElement diagram) {
+        super(diagram);
+    }
+
+    @Override
+    protected String getSettingsCommentPrefix() {
+        return SETTINGS_COMMENT_PREFIX;
+    }
+
+    @Override
+    protected String getDiagramTypeName() {
+        return MatrixDiagramDescriptor.DIAGRAM_TYPE;
+    }
+
+    @Override
+    protected String getHtmlResource() {
+        return "/com/jonbackhaus/visualizer/matrix_diagram.html";
+    }
+
+    @Override
+    protected Map<String, String> getScriptResources() {
+        Map<String, String> scripts = new LinkedHashMap<>();
+        scripts.put("<!-- MATRIX_RENDER_SCRIPT_PLACEHOLDER -->", "/com/jonbackhaus/visualizer/matrix_render.js");
+        return scripts;
+    }
+
+    /**
+     * Build the page payload: names, the owning package of every element, the
+     * non-zero cells as flat (row, column, weight) triples and display options.
+     */
+    @Override
+    protected JsonObject buildDiagramData(RelationshipGraph graph, DiagramSettings settings) {
+        JsonObject data = new JsonObject();
+        JsonArray namesArray = new JsonArray();
+        graph.getNames().forEach(namesArray::add);
+        data.add("names", namesArray);
+
+        // Owner packages, so the page can reorder rows and columns by package
+        Map<Package, Integer> ownerIndex = new HashMap<>();
+        JsonArray ownerNames = new JsonArray();
+        JsonArray owners = new JsonArray();
+        for (Element element : graph.getElements()) {
+            Package owner = findOwnerPackage(element);
+            Integer index = ownerIndex.get(owner);
+            if (index == null) {
+                index = ownerIndex.size();
+                ownerIndex.put(owner, index);
+                ownerNames.add(owner != null ? owner.getQualifiedName() : "");
+            }
+            owners.add(index);
+        }
+        data.add("owners", owners);
+        data.add("ownerNames", ownerNames);
+
+        JsonArray cells = new JsonArray();
+        graph.getAdjacency().forEachEdge((row, column, weight) -> {
+            cells.add(row);
+            cells.add(column);
+            cells.add(weight);
+        });
+        data.add("cells", cells);
+
+        JsonObject options = new JsonObject();
+        options.addProperty("showLabels", settings.isShowLabels());
+        data.add("options", options);
+        return data;
+    }
+
+    private static Package findOwnerPackage(Element element) {
+        // Groups without a grouping element have no owner either
+        Element owner = element != null ? element.getOwner() : null;
+        while (owner != null && !(owner instanceof Package)) {
+            owner = owner.getOwner();
+        }
+        return (Package) owner;
+    }
+}
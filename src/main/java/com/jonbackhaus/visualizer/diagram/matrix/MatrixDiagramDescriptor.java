@@ -0,0 +1,73 @@
+package com.jonbackhaus.visualizer.diagram.matrix;
+
+import com.nomagic.actions.AMConfigurator;
+import com.nomagic.magicdraw.uml.diagrams.NonSymbolDiagramContent;
+import com.nomagic.magicdraw.uml.symbols.DiagramPresentationElement;
+import com.nomagic.ui.ResizableIcon;
+import com.jonbackhaus.visualizer.diagram.VisualizerDiagramDescriptor;
+
+import javax.swing.*;
+import java.net.URL;
+
+/**
+ * Descriptor for the Adjacency Matrix diagram.
+ */
+public class MatrixDiagramDescriptor extends VisualizerDiagramDescriptor {
+
+    public static final String DIAGRAM_TYPE = "Adjacency Matrix";
+    public static final String DIAGRAM_ID = "ADJACENCY_MATRIX_DIAGRAM";
+
+    public MatrixDiagramDescriptor() {
+        super();
+    }
+
+    @Override
+    public String getDiagramTypeId() {
+        return DIAGRAM_ID;
+    }
+
+    @Override
+    public String getCategory() {
+        return "Visualizer Diagrams";
+    }
+
+    @Override
+    public String getSingularDiagramTypeHumanName() {
+        return DIAGRAM_TYPE;
+    }
+
+    @Override
+    public String getPluralDiagramTypeHumanName() {
+        return "Adjacency Matrices";
+    }
+
+    @Override
+    public boolean isCreatable() {
+        return true;
+    }
+
+    @Override
+    public ResizableIcon getSVGIcon() {
+        return null;
+    }
+
+    @Override
+    public URL getSmallIconURL() {
+        return null;
+    }
+
+    @Override
+    public AMConfigurator getDiagramShortcutsConfigurator() {
+        return null;
+    }
+
+    @Override
+    public AMConfigurator getDiagramCommandBarConfigurator() {
+        return null;
+    }
+
+    @Override
+    public NonSymbolDiagramContent<JComponent> createDiagramContent(DiagramPresentationElement diagram) {
+        return new MatrixDiagramContent(diagram);
+    }
+}
@@ -0,0 +1,118 @@
+package com.jonbackhaus.visualizer.diagram.network;
+
+import com.nomagic.magicdraw.uml.symbols.DiagramPresentationElement;
+import com.jonbackhaus.visualizer.diagram.DiagramSettings;
+import com.jonbackhaus.visualizer.diagram.ProgressiveDiagram;
+import com.jonbackhaus.visualizer.diagram.VisualizerDiagramContent;
+import com.jonbackhaus.visualizer.graph.ProgressiveChunker;
+import com.jonbackhaus.visualizer.graph.RelationshipGraph;
+import com.jonbackhaus.visualizer.graph.SparseAdjacency;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Content for the Network Diagram.
+ * Shows the relationship graph as a node-link diagram; the force layout runs in a
+ * Web Worker inside the page and the result is drawn on a canvas.
+ */
+public class NetworkDiagramContent extends VisualizerDiagramContent implements ProgressiveDiagram {
+
+    public static final String SETTINGS_COMMENT_PREFIX = "NETWORK_DIAGRAM_SETTINGS:";
+
+    public NetworkDiagramContent(DiagramPresentationElement diagram) {
+        super(diagram);
+    }
+
+    @Override
+    protected String getSettingsCommentPrefix() {
+        return SETTINGS_COMMENT_PREFIX;
+    }
+
+    @Override
+    protected String getDiagramTypeName() {
+        return NetworkDiagramDescriptor.DIAGRAM_TYPE;
+    }
+
+    @Override
+    protected String getHtmlResource() {
+        return "/com/jonbackhaus/visualizer/network_diagram.html";
+    }
+
+    @Override
+    protected Map<String, String> getScriptResources() {
+        Map<String, String> scripts = new LinkedHashMap<>();
+        scripts.put("<!-- NETWORK_LAYOUT_SCRIPT_PLACEHOLDER -->", "/com/jonbackhaus/visualizer/network_layout.js");
+        scripts.put("<!-- NETWORK_RENDER_SCRIPT_PLACEHOLDER -->", "/com/jonbackhaus/visualizer/network_render.js");
+        return scripts;
+    }
+
+    /**
+     * Build the page payload: names, one undirected link per connected pair as flat
+     * (source, target, weight) triples, and display options. Self-relationships are
+     * left out since they have no length in a node-link layout.
+     */
+    @Override
+    protected JsonObject buildDiagramData(RelationshipGraph graph, DiagramSettings settings) {
+        JsonObject data = new JsonObject();
+        JsonArray namesArray = new JsonArray();
+        graph.getNames().forEach(namesArray::add);
+        data.add("names", namesArray);
+
+        SparseAdjacency adjacency = graph.getAdjacency();
+        JsonArray links = new JsonArray();
+        adjacency.forEachEdge((row, column, weight) -> {
+            if (row == column) return;
+            double reverse = adjacency.get(column, row);
+            // One link per undirected pair, carrying the weight of both directions
+            if (row > column && reverse != 0) return;
+            links.add(row);
+            links.add(column);
+            links.add(row < column ? weight + reverse : weight);
+        });
+        data.add("links", links);
+
+        JsonObject options = new JsonObject();
+        options.addProperty("showLabels", settings.isShowLabels());
+        data.add("options", options);
+        return data;
+    }
+
+    /**
+     * Build one chunk: the names of the nodes it reveals and its links, in the same
+     * triples as {@link #buildDiagramData}. A pair's link goes out with whichever of
+     * its two cells belongs to the lower-to-higher direction, or with the only cell.
+     */
+    @Override
+    public JsonObject buildDiagramChunk(RelationshipGraph graph, DiagramSettings settings,
+            ProgressiveChunker.Chunk chunk) {
+        JsonObject data = new JsonObject();
+        JsonArray namesArray = new JsonArray();
+        for (int i = chunk.getFromNode(); i < chunk.getToNode(); i++) {
+            namesArray.add(graph.getNames().get(i));
+        }
+        data.add("names", namesArray);
+
+        SparseAdjacency adjacency = graph.getAdjacency();
+        JsonArray links = new JsonArray();
+        for (int e : chunk.getEdges()) {
+            int row = adjacency.rowAt(e);
+            int column = adjacency.columnAt(e);
+            if (row == column) continue;
+            double weight = adjacency.weightAt(e);
+            double reverse = adjacency.get(column, row);
+            if (row > column && reverse != 0) continue;
+            links.add(row);
+            links.add(column);
+            links.add(row < column ? weight + reverse : weight);
+        }
+        data.add("links", links);
+
+        JsonObject options = new JsonObject();
+        options.addProperty("showLabels", settings.isShowLabels());
+        data.add("options", options);
+        return data;
+    }
+}
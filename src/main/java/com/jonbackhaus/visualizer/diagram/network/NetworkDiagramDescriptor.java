@@ -0,0 +1,73 @@
+package com.jonbackhaus.visualizer.diagram.network;
+
+import com.nomagic.actions.AMConfigurator;
+import com.nomagic.magicdraw.uml.diagrams.NonSymbolDiagramContent;
+import com.nomagic.magicdraw.uml.symbols.DiagramPresentationElement;
+import com.nomagic.ui.ResizableIcon;
+import com.jonbackhaus.visualizer.diagram.VisualizerDiagramDescriptor;
+
+import javax.swing.*;
+import java.net.URL;
+
+/**
+ * Descriptor for the Network Diagram.
+ */
+public class NetworkDiagramDescriptor extends VisualizerDiagramDescriptor {
+
+    public static final String DIAGRAM_TYPE = "Network Diagram";
+    public static final String DIAGRAM_ID = "NETWORK_DIAGRAM";
+
+    public NetworkDiagramDescriptor() {
+        super();
+    }
+
+    @Override
+    public String getDiagramTypeId() {
+        return DIAGRAM_ID;
+    }
+
+    @Override
+    public String getCategory() {
+        return "Visualizer Diagrams";
+    }
+
+    @Override
+    public String getSingularDiagramTypeHumanName() {
+        return DIAGRAM_TYPE;
+    }
+
+    @Override
+    public String getPluralDiagramTypeHumanName() {
+        return DIAGRAM_TYPE + "s";
+    }
+
+    @Override
+    public boolean isCreatable() {
+        return true;
+    }
+
+    @Override
+    public ResizableIcon getSVGIcon() {
+        return null;
+    }
+
+    @Override
+    public URL getSmallIconURL() {
+        return null;
+    }
+
+    @Override
+    public AMConfigurator getDiagramShortcutsConfigurator() {
+        return null;
+    }
+
+    @Override
+    public AMConfigurator getDiagramCommandBarConfigurator() {
+        return null;
+    }
+
+    @Override
+    public NonSymbolDiagramContent<JComponent> createDiagramContent(DiagramPresentationElement diagram) {
+        return new NetworkDiagramContent(diagram);
+    }
+}
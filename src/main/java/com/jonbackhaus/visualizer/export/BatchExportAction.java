@@ -0,0 +1,90 @@
+package com.jonbackhaus.visualizer.export;
+
+import com.jonbackhaus.visualizer.diagram.DiagramSettings;
+import com.jonbackhaus.visualizer.ui.DiagramConfigPanel;
+import com.nomagic.magicdraw.actions.MDAction;
+import com.nomagic.magicdraw.ui.ProgressStatusRunner;
+import com.nomagic.magicdraw.ui.dialogs.MDDialogParentProvider;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Namespace;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.event.ActionEvent;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Exports the chord diagram data of the selected contexts in one run, with
+ * element, relation and pruning filters chosen in the same panel the diagrams use.
+ * Nested elements are included and orphans dropped by default, matching a typical dependency report.
+ */
+public class BatchExportAction extends MDAction {
+
+    private static final FileNameExtensionFilter JSON_LINES_FILTER =
+            new FileNameExtensionFilter("JSON Lines (*.jsonl)", "jsonl");
+    private static final FileNameExtensionFilter BINARY_FILTER =
+            new FileNameExtensionFilter("Binary Chord Data (*.vzcd)", "vzcd");
+
+    private final List<Namespace> contexts;
+
+    public BatchExportAction(List<Namespace> contexts) {
+        super("VISUALIZER_BATCH_EXPORT", "Export Chord Data (" + contexts.size() + " contexts)...", null, null);
+        this.contexts = contexts;
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        java.awt.Window parent = MDDialogParentProvider.getProvider().getDialogOwner();
+
+        DiagramSettings defaults = new DiagramSettings();
+        defaults.setRecursive(true);
+        defaults.setShowOrphans(false);
+        DiagramConfigPanel filters = new DiagramConfigPanel(true);
+        filters.applySettings(defaults);
+        if (JOptionPane.showConfirmDialog(parent, filters, "Export Chord Data",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+        DiagramSettings settings = filters.getSettings();
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Chord Data");
+        chooser.setAcceptAllFileFilterUsed(false);
+        chooser.addChoosableFileFilter(JSON_LINES_FILTER);
+        chooser.addChoosableFileFilter(BINARY_FILTER);
+        chooser.setFileFilter(JSON_LINES_FILTER);
+        chooser.setSelectedFile(new File("chord-data.jsonl"));
+        if (chooser.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        // The format follows the chosen filter, whatever the file is called
+        FileNameExtensionFilter filter = (FileNameExtensionFilter) chooser.getFileFilter();
+        BatchExporter.Format format = filter == BINARY_FILTER
+                ? BatchExporter.Format.BINARY
+                : BatchExporter.Format.JSON_LINES;
+        File output = withExtension(chooser.getSelectedFile(), filter.getExtensions()[0]);
+
+        ProgressStatusRunner.runWithProgressStatus(progress -> {
+            try {
+                new BatchExporter().export(contexts, settings, output, format, progress);
+            } catch (IOException ex) {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(parent,
+                        "Export failed: " + ex.getMessage(), "Export Chord Data", JOptionPane.ERROR_MESSAGE));
+            }
+        }, "Exporting Chord Data", true, 0);
+    }
+
+    // Replaces the other format's extension, so switching filters does not give "data.jsonl.vzcd"
+    private static File withExtension(File file, String extension) {
+        String name = file.getName();
+        for (FileNameExtensionFilter known : new FileNameExtensionFilter[]{JSON_LINES_FILTER, BINARY_FILTER}) {
+            String suffix = "." + known.getExtensions()[0];
+            if (name.toLowerCase().endsWith(suffix)) {
+                name = name.substring(0, name.length() - suffix.length());
+            }
+        }
+        return new File(file.getParentFile(), name + "." + extension);
+    }
+}
@@ -0,0 +1,241 @@
+package com.jonbackhaus.visualizer.export;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.jonbackhaus.visualizer.VisualizerLog;
+import com.jonbackhaus.visualizer.diagram.DiagramSettings;
+import com.jonbackhaus.visualizer.graph.EdgePruner;
+import com.jonbackhaus.visualizer.graph.GraphExtractor;
+import com.jonbackhaus.visualizer.graph.NodeFilter;
+import com.jonbackhaus.visualizer.graph.RelationshipGraph;
+import com.jonbackhaus.visualizer.graph.SparseAdjacency;
+import com.nomagic.magicdraw.uml.BaseElement;
+import com.nomagic.magicdraw.uml.RepresentationTextCreator;
+import com.nomagic.task.ProgressStatus;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Namespace;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Computes the relationship graphs of many contexts in parallel and streams
+ * each result to a file as soon as it is ready.
+ * Creates no browser or Swing components, so it can run headless.
+ */
+public class BatchExporter {
+
+    /** Header of the binary format, followed by a format version int. */
+    public static final int BINARY_MAGIC = 0x565a4344; // "VZCD"
+    public static final int BINARY_VERSION = 1;
+
+    public enum Format {
+        /** One JSON object per line. */
+        JSON_LINES,
+        /** Compact big-endian records written with DataOutputStream. */
+        BINARY
+    }
+
+    private final int parallelism;
+
+    public BatchExporter() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    public BatchExporter(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Export the graph of every context with the given filter settings.
+     * At most {@code 2 * parallelism} results are held in memory at any time.
+     *
+     * @param progress optional progress to report to and check for cancellation
+     * @return number of contexts written
+     */
+    public int export(List<Namespace> contexts, DiagramSettings settings, File output, Format format,
+            ProgressStatus progress) throws IOException {
+        if (progress != null) {
+            progress.setMax(contexts.size());
+            progress.setCurrent(0);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "Visualizer-BatchExport-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        CompletionService<Result> completion = new ExecutorCompletionService<>(pool);
+
+        int written = 0;
+        try (RecordWriter writer = format == Format.BINARY
+                ? new BinaryRecordWriter(output)
+                : new JsonLinesRecordWriter(output)) {
+            int submitted = 0;
+            int window = parallelism * 2;
+            while (submitted < contexts.size() && submitted < window) {
+                submit(completion, contexts.get(submitted++), settings);
+            }
+
+            for (int done = 0; done < contexts.size(); done++) {
+                if (progress != null && progress.isCancel()) {
+                    VisualizerLog.info("Batch export cancelled after " + written + " contexts");
+                    break;
+                }
+                Result result = completion.take().get();
+                if (submitted < contexts.size()) {
+                    submit(completion, contexts.get(submitted++), settings);
+                }
+
+                writer.write(result);
+                written++;
+                if (progress != null) {
+                    progress.setCurrent(written);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Batch export failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        VisualizerLog.info("Batch export wrote " + written + " contexts to " + output);
+        return written;
+    }
+
+    private void submit(CompletionService<Result> completion, Namespace context, DiagramSettings settings) {
+        completion.submit(() -> {
+            RelationshipGraph graph = new GraphExtractor().extract(context, settings);
+            NodeFilter nodeFilter = NodeFilter.of(settings);
+            if (nodeFilter.isActive()) {
+                graph = nodeFilter.filter(graph).getGraph();
+            }
+            EdgePruner pruner = new EdgePruner(settings.getMaxEdges(), settings.getMinEdgeWeight());
+            if (pruner.isActive()) {
+                graph = pruner.prune(graph).getGraph();
+            }
+            return new Result(context.getID(), RepresentationTextCreator.getRepresentedText((BaseElement) context), graph);
+        });
+    }
+
+    static class Result {
+        final String contextId;
+        final String contextName;
+        final RelationshipGraph graph;
+
+        Result(String contextId, String contextName, RelationshipGraph graph) {
+            this.contextId = contextId;
+            this.contextName = contextName;
+            this.graph = graph;
+        }
+    }
+
+    interface RecordWriter extends Closeable {
+        void write(Result result) throws IOException;
+    }
+
+    /**
+     * {"contextId", "context", "relationships", "elements": [{"id", "name"}], "edges": [[row, column, weight]]}
+     */
+    static class JsonLinesRecordWriter implements RecordWriter {
+        private final Gson gson = new Gson();
+        private final BufferedWriter out;
+
+        JsonLinesRecordWriter(File file) throws IOException {
+            out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void write(Result result) throws IOException {
+            RelationshipGraph graph = result.graph;
+            JsonObject record = new JsonObject();
+            record.addProperty("contextId", result.contextId);
+            record.addProperty("context", result.contextName);
+            record.addProperty("relationships", graph.getRelationshipCount());
+
+            JsonArray elements = new JsonArray();
+            for (int i = 0; i < graph.size(); i++) {
+                JsonObject element = new JsonObject();
+                element.addProperty("id", graph.getElements().get(i).getID());
+                element.addProperty("name", graph.getNames().get(i));
+                elements.add(element);
+            }
+            record.add("elements", elements);
+
+            JsonArray edges = new JsonArray();
+            graph.getAdjacency().forEachEdge((row, column, weight) -> {
+                JsonArray edge = new JsonArray();
+                edge.add(row);
+                edge.add(column);
+                edge.add(weight);
+                edges.add(edge);
+            });
+            record.add("edges", edges);
+
+            out.write(gson.toJson(record));
+            out.newLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Header: magic, version. Per record: contextId, context name, element count,
+     * (id, name) per element, edge count, (row, column, weight) per edge.
+     */
+    static class BinaryRecordWriter implements RecordWriter {
+        private final DataOutputStream out;
+
+        BinaryRecordWriter(File file) throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            out.writeInt(BINARY_MAGIC);
+            out.writeInt(BINARY_VERSION);
+        }
+
+        @Override
+        public void write(Result result) throws IOException {
+            RelationshipGraph graph = result.graph;
+            out.writeUTF(result.contextId);
+            out.writeUTF(result.contextName);
+            out.writeInt(graph.size());
+            for (int i = 0; i < graph.size(); i++) {
+                out.writeUTF(graph.getElements().get(i).getID());
+                out.writeUTF(graph.getNames().get(i));
+            }
+
+            SparseAdjacency adjacency = graph.getAdjacency();
+            out.writeInt(adjacency.edgeCount());
+            for (int e = 0; e < adjacency.edgeCount(); e++) {
+                out.writeInt(adjacency.rowAt(e));
+                out.writeInt(adjacency.columnAt(e));
+                out.writeDouble(adjacency.weightAt(e));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.jonbackhaus.visualizer.graph;
+
+import java.util.PriorityQueue;
+
+/**
+ * Drops light edges before rendering: keeps edges of at least a minimum weight
+ * and, optionally, only the heaviest K of those.
+ * Edges are treated as undirected pairs, so both cells of a symmetric pair are
+ * kept or dropped together.
+ */
+public class EdgePruner {
+
+    /**
+     * Pruned graph and what was hidden to produce it.
+     */
+    public static class Result {
+        private final RelationshipGraph graph;
+        private final int droppedEdges;
+        private final int droppedNodes;
+
+        Result(RelationshipGraph graph, int droppedEdges, int droppedNodes) {
+            this.graph = graph;
+            this.droppedEdges = droppedEdges;
+            this.droppedNodes = droppedNodes;
+        }
+
+        public RelationshipGraph getGraph() {
+            return graph;
+        }
+
+        /** Number of undirected edges (ribbons) removed. */
+        public int getDroppedEdges() {
+            return droppedEdges;
+        }
+
+        /** Number of nodes removed because all of their edges were pruned. */
+        public int getDroppedNodes() {
+            return droppedNodes;
+        }
+    }
+
+    private final int maxEdges;
+    private final double minWeight;
+
+    /**
+     * @param maxEdges  number of heaviest edges to keep, 0 for no limit
+     * @param minWeight minimum weight of a kept edge
+     */
+    public EdgePruner(int maxEdges, double minWeight) {
+        this.maxEdges = maxEdges;
+        this.minWeight = minWeight;
+    }
+
+    public boolean isActive() {
+        return maxEdges > 0 || minWeight > 1;
+    }
+
+    /**
+     * Prune in one pass over the adjacency, holding at most K edges in a min-heap.
+     */
+    public Result prune(RelationshipGraph graph) {
+        SparseAdjacency adjacency = graph.getAdjacency();
+        int edgeCount = adjacency.edgeCount();
+
+        boolean[] kept = new boolean[edgeCount];
+        int pairs = 0;
+        PriorityQueue<Integer> heap = maxEdges > 0
+                ? new PriorityQueue<>(maxEdges + 1, (a, b) -> Double.compare(adjacency.weightAt(a), adjacency.weightAt(b)))
+                : null;
+
+        for (int e = 0; e < edgeCount; e++) {
+            int row = adjacency.rowAt(e);
+            int column = adjacency.columnAt(e);
+            // One representative cell per undirected pair
+            if (row > column && adjacency.get(column, row) != 0) continue;
+            pairs++;
+
+            if (adjacency.weightAt(e) < minWeight) continue;
+            if (heap == null) {
+                kept[e] = true;
+            } else if (heap.size() < maxEdges) {
+                heap.add(e);
+            } else if (adjacency.weightAt(e) > adjacency.weightAt(heap.peek())) {
+                heap.poll();
+                heap.add(e);
+            }
+        }
+        if (heap != null) {
+            for (int e : heap) {
+                kept[e] = true;
+            }
+        }
+
+        SparseAdjacency pruned = new SparseAdjacency(adjacency.size());
+        int keptPairs = 0;
+        for (int e = 0; e < edgeCount; e++) {
+            if (!kept[e]) continue;
+            int row = adjacency.rowAt(e);
+            int column = adjacency.columnAt(e);
+            keptPairs++;
+            pruned.add(row, column, adjacency.weightAt(e));
+            if (row != column) {
+                double reverse = adjacency.get(column, row);
+                if (reverse != 0) {
+                    pruned.add(column, row, reverse);
+                }
+            }
+        }
+
+        // Remove nodes that only had pruned edges; existing orphans are left alone
+        boolean[] connectedBefore = adjacency.connectedNodes();
+        boolean[] connectedAfter = pruned.connectedNodes();
+        int[] oldToNew = new int[adjacency.size()];
+        int newSize = 0;
+        for (int i = 0; i < oldToNew.length; i++) {
+            oldToNew[i] = connectedBefore[i] && !connectedAfter[i] ? -1 : newSize++;
+        }
+
+        RelationshipGraph prunedGraph = new RelationshipGraph(graph.getElements(), graph.getNames(), pruned,
+                graph.getRelationshipMap(), graph.getRelationshipCount());
+        if (newSize < adjacency.size()) {
+            prunedGraph = prunedGraph.remap(oldToNew, newSize);
+        }
+        return new Result(prunedGraph, pairs - keptPairs, adjacency.size() - newSize);
+    }
+}
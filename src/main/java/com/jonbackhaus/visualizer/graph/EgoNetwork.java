@@ -0,0 +1,127 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Neighborhoods of single nodes of an extracted graph. Undirected neighbour lists
+ * are built from the sparse adjacency on first use, so every focus step is a
+ * breadth-first search over the reached nodes and never reads the model.
+ */
+public class EgoNetwork {
+
+    /**
+     * Neighborhood graph and where its center ended up.
+     */
+    public static class Result {
+        private final RelationshipGraph graph;
+        private final int center;
+
+        Result(RelationshipGraph graph, int center) {
+            this.graph = graph;
+            this.center = center;
+        }
+
+        public RelationshipGraph getGraph() {
+            return graph;
+        }
+
+        /** Index of the center node in {@link #getGraph()}. */
+        public int getCenter() {
+            return center;
+        }
+    }
+
+    private final RelationshipGraph source;
+    // Compressed neighbour lists: neighbours of node i are neighbors[neighborStart[i] .. neighborStart[i + 1])
+    private int[] neighborStart;
+    private int[] neighbors;
+    private Map<Element, Integer> indexOfElement;
+
+    public EgoNetwork(RelationshipGraph source) {
+        this.source = source;
+    }
+
+    public RelationshipGraph getSource() {
+        return source;
+    }
+
+    /**
+     * Index of an element in the source graph, or -1.
+     */
+    public synchronized int indexOf(Element element) {
+        if (indexOfElement == null) {
+            indexOfElement = new IdentityHashMap<>();
+            for (int i = 0; i < source.size(); i++) {
+                indexOfElement.put(source.getElements().get(i), i);
+            }
+        }
+        Integer index = indexOfElement.get(element);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Nodes within {@code hops} edges of the center, in either direction, with all
+     * edges among them. Nodes keep their relative order from the source graph.
+     */
+    public Result focus(int center, int hops) {
+        buildNeighbors();
+        int n = source.size();
+        int[] distance = new int[n];
+        Arrays.fill(distance, -1);
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        distance[center] = 0;
+        queue[tail++] = center;
+        while (head < tail) {
+            int node = queue[head++];
+            if (distance[node] == hops) continue;
+            for (int k = neighborStart[node]; k < neighborStart[node + 1]; k++) {
+                int next = neighbors[k];
+                if (distance[next] < 0) {
+                    distance[next] = distance[node] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        int[] oldToNew = new int[n];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            oldToNew[i] = distance[i] >= 0 ? size++ : -1;
+        }
+        return new Result(source.remap(oldToNew, size), oldToNew[center]);
+    }
+
+    private synchronized void buildNeighbors() {
+        if (neighbors != null) return;
+        SparseAdjacency adjacency = source.getAdjacency();
+        int n = source.size();
+        int[] start = new int[n + 1];
+        for (int e = 0; e < adjacency.edgeCount(); e++) {
+            int row = adjacency.rowAt(e);
+            int column = adjacency.columnAt(e);
+            if (row == column) continue;
+            start[row + 1]++;
+            start[column + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            start[i + 1] += start[i];
+        }
+        int[] fill = Arrays.copyOf(start, n);
+        int[] list = new int[start[n]];
+        for (int e = 0; e < adjacency.edgeCount(); e++) {
+            int row = adjacency.rowAt(e);
+            int column = adjacency.columnAt(e);
+            if (row == column) continue;
+            list[fill[row]++] = column;
+            list[fill[column]++] = row;
+        }
+        neighborStart = start;
+        neighbors = list;
+    }
+}
@@ -0,0 +1,134 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.nomagic.magicdraw.uml.BaseElement;
+import com.nomagic.uml2.ext.magicdraw.classes.mdinterfaces.Interface;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Namespace;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package;
+import com.nomagic.uml2.ext.magicdraw.components.mdbasiccomponents.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Elements of a context indexed by human type (metaclass or stereotype name).
+ * Built from one containment walk; element type filters are then answered as a
+ * union of buckets in walk order, which is the order {@link GraphExtractor#collectElements}
+ * returns. The index is not updated, so it must be dropped when the context changes.
+ */
+public class ElementIndex {
+
+    private final Namespace context;
+    // All nested elements in containment walk order; bit positions index into it
+    private final List<Element> elements = new ArrayList<>();
+    private final BitSet direct = new BitSet();
+    private final Map<String, BitSet> byHumanType = new HashMap<>();
+    // Metaclasses matched by instance when subtypes are included
+    private final BitSet classes = new BitSet();
+    private final BitSet packages = new BitSet();
+    private final BitSet interfaces = new BitSet();
+    private final BitSet components = new BitSet();
+
+    private ElementIndex(Namespace context) {
+        this.context = context;
+    }
+
+    /**
+     * Walk the whole containment tree of the context once and index every element.
+     */
+    public static ElementIndex build(Namespace context) {
+        ElementIndex index = new ElementIndex(context);
+        index.walk(context, true);
+        return index;
+    }
+
+    private void walk(Namespace container, boolean directChildren) {
+        // Snapshot collection to avoid ConcurrentModificationException
+        Object[] ownedElements = container.getOwnedElement().toArray();
+
+        for (Object obj : ownedElements) {
+            if (!(obj instanceof Element)) continue;
+            Element e = (Element) obj;
+            int bit = elements.size();
+            elements.add(e);
+
+            if (directChildren) direct.set(bit);
+            byHumanType.computeIfAbsent(((BaseElement) e).getHumanType(), k -> new BitSet()).set(bit);
+            if (e instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class) classes.set(bit);
+            if (e instanceof Package) packages.set(bit);
+            if (e instanceof Interface) interfaces.set(bit);
+            if (e instanceof Component) components.set(bit);
+
+            if (e instanceof Namespace) {
+                walk((Namespace) e, false);
+            }
+        }
+    }
+
+    public Namespace getContext() {
+        return context;
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    /**
+     * Elements matching the filter, in the same order and with the same matching rules
+     * as {@link GraphExtractor#collectElements}.
+     */
+    public List<Element> select(String elementType, boolean includeSubtypes, boolean recursive) {
+        BitSet selected = new BitSet();
+        if ("Any".equals(elementType)) {
+            selected.set(0, elements.size());
+        } else {
+            BitSet exact = byHumanType.get(elementType);
+            if (exact != null) selected.or(exact);
+
+            if (includeSubtypes) {
+                switch (elementType) {
+                    case "Class":
+                        selected.or(classes);
+                        break;
+                    case "Package":
+                        selected.or(packages);
+                        break;
+                    case "Interface":
+                        selected.or(interfaces);
+                        break;
+                    case "Component":
+                        selected.or(components);
+                        break;
+                    default:
+                        for (Map.Entry<String, BitSet> bucket : byHumanType.entrySet()) {
+                            if (bucket.getKey().contains(elementType)) selected.or(bucket.getValue());
+                        }
+                        break;
+                }
+            }
+        }
+        if (!recursive) {
+            selected.and(direct);
+        }
+
+        List<Element> result = new ArrayList<>(selected.cardinality());
+        for (int bit = selected.nextSetBit(0); bit >= 0; bit = selected.nextSetBit(bit + 1)) {
+            result.add(elements.get(bit));
+        }
+        return result;
+    }
+
+    /**
+     * Whether the element is the context itself or nested anywhere inside it,
+     * i.e. whether a change to it can invalidate this index.
+     */
+    public boolean covers(Element element) {
+        for (Element e = element; e != null; e = e.getOwner()) {
+            if (e == context) return true;
+        }
+        return false;
+    }
+}
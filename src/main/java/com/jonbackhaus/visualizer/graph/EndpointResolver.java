@@ -0,0 +1,39 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+
+/**
+ * Resolves the endpoint pairs of one kind of link: a relationship or a connector.
+ * Registered per metaclass in {@link EndpointResolvers}.
+ */
+public interface EndpointResolver {
+
+    /**
+     * Receives the endpoint pairs of a relationship.
+     */
+    interface Sink {
+        void accept(Element source, Element target);
+
+        /**
+         * Whether an element is a node of the graph being built. Resolvers with
+         * several candidate elements per end use it to pick one.
+         */
+        default boolean contains(Element element) {
+            return true;
+        }
+    }
+
+    /**
+     * Emit every endpoint pair of the link. Pairs may include elements
+     * outside the diagram context; the extractor ignores those.
+     */
+    void resolve(Element link, Sink sink);
+
+    /**
+     * Whether each pair is one source/target edge. Undirected resolvers emit
+     * both orders of a pair, and each order is counted as seen from its first element.
+     */
+    default boolean isDirected() {
+        return true;
+    }
+}
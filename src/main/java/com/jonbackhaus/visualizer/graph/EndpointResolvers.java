@@ -0,0 +1,180 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Association;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.DirectedRelationship;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Property;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Relationship;
+import com.nomagic.uml2.ext.magicdraw.compositestructures.mdinternalstructures.ConnectableElement;
+import com.nomagic.uml2.ext.magicdraw.compositestructures.mdinternalstructures.Connector;
+import com.nomagic.uml2.ext.magicdraw.compositestructures.mdinternalstructures.ConnectorEnd;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of {@link EndpointResolver}s keyed by relationship or connector metaclass.
+ * The resolver for an implementation class is looked up once and cached, so
+ * extraction does a single map lookup per link. Stereotyped relationships
+ * such as SysML Allocate and Satisfy are Abstractions and resolve as directed
+ * relationships.
+ */
+public class EndpointResolvers {
+
+    /**
+     * Associations: every pair of member end types, directed from the earlier end
+     * to the later one, so a binary association still runs from end 0 to end 1.
+     */
+    public static final EndpointResolver ASSOCIATION = (rel, sink) -> {
+        List<Property> memberEnds = ((Association) rel).getMemberEnd();
+        int count = memberEnds.size();
+        Element[] types = new Element[count];
+        for (int e = 0; e < count; e++) {
+            types[e] = memberEnds.get(e).getType();
+        }
+        for (int a = 0; a < count; a++) {
+            if (types[a] == null) continue;
+            for (int b = a + 1; b < count; b++) {
+                if (types[b] != null) {
+                    sink.accept(types[a], types[b]);
+                }
+            }
+        }
+    };
+
+    /**
+     * Directed relationships: every source paired with every target.
+     */
+    public static final EndpointResolver DIRECTED = (rel, sink) -> {
+        DirectedRelationship dirRel = (DirectedRelationship) rel;
+        Object[] sources = dirRel.getSource().toArray();
+        Object[] targets = dirRel.getTarget().toArray();
+        for (Object source : sources) {
+            if (!(source instanceof Element)) continue;
+            for (Object target : targets) {
+                if (target instanceof Element) {
+                    sink.accept((Element) source, (Element) target);
+                }
+            }
+        }
+    };
+
+    /**
+     * Any other relationship: each distinct related element paired with every
+     * other related entry.
+     */
+    public static final EndpointResolver RELATED = new EndpointResolver() {
+        @Override
+        public void resolve(Element link, Sink sink) {
+            Object[] related = ((Relationship) link).getRelatedElement().toArray();
+            Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Object from : related) {
+                if (!(from instanceof Element) || !seen.add(from)) continue;
+                for (Object to : related) {
+                    if (to instanceof Element && to != from) {
+                        sink.accept((Element) from, (Element) to);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean isDirected() {
+            return false;
+        }
+    };
+
+    /**
+     * Connectors: every pair of ends, in both orders. Each end stands for the first
+     * of its role, the part owning a port role, or that part's type that is a node
+     * of the graph, so connectors link parts, ports or the blocks typing them.
+     */
+    public static final EndpointResolver CONNECTOR = new EndpointResolver() {
+        @Override
+        public void resolve(Element link, Sink sink) {
+            List<ConnectorEnd> ends = ((Connector) link).getEnd();
+            int count = ends.size();
+            Element[] endpoints = new Element[count];
+            for (int e = 0; e < count; e++) {
+                endpoints[e] = endpointOf(ends.get(e), sink);
+            }
+            for (int a = 0; a < count; a++) {
+                if (endpoints[a] == null) continue;
+                for (int b = 0; b < count; b++) {
+                    if (b != a && endpoints[b] != null && endpoints[b] != endpoints[a]) {
+                        sink.accept(endpoints[a], endpoints[b]);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean isDirected() {
+            return false;
+        }
+    };
+
+    private static Element endpointOf(ConnectorEnd end, EndpointResolver.Sink sink) {
+        ConnectableElement role = end.getRole();
+        if (role == null) return null;
+        if (sink.contains(role)) return role;
+        Property part = end.getPartWithPort();
+        if (part != null && sink.contains(part)) return part;
+        Element type = part != null ? part.getType() : role.getType();
+        return type != null && sink.contains(type) ? type : null;
+    }
+
+    // Created after the resolvers above, which it registers
+    private static final EndpointResolvers INSTANCE = new EndpointResolvers();
+
+    private static class Registration {
+        final Class<? extends Element> type;
+        final EndpointResolver resolver;
+
+        Registration(Class<? extends Element> type, EndpointResolver resolver) {
+            this.type = type;
+            this.resolver = resolver;
+        }
+    }
+
+    // Most recently registered first, so later registrations override earlier ones
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, EndpointResolver> resolved = new ConcurrentHashMap<>();
+
+    private EndpointResolvers() {
+        register(Relationship.class, RELATED);
+        register(DirectedRelationship.class, DIRECTED);
+        register(Association.class, ASSOCIATION);
+        register(Connector.class, CONNECTOR);
+    }
+
+    public static EndpointResolvers getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Use a resolver for relationships or connectors of the given metaclass and its subtypes.
+     */
+    public void register(Class<? extends Element> type, EndpointResolver resolver) {
+        registrations.add(0, new Registration(type, resolver));
+        resolved.clear();
+    }
+
+    public EndpointResolver forLink(Element link) {
+        return resolved.computeIfAbsent(link.getClass(), this::lookup);
+    }
+
+    private EndpointResolver lookup(Class<?> implementation) {
+        for (Registration registration : registrations) {
+            if (registration.type.isAssignableFrom(implementation)) {
+                return registration.resolver;
+            }
+        }
+        return RELATED;
+    }
+}
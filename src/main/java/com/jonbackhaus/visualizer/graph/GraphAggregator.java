@@ -0,0 +1,322 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.nomagic.magicdraw.uml.BaseElement;
+import com.nomagic.magicdraw.uml.RepresentationTextCreator;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.mdprofiles.Stereotype;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Rolls the elements of a large graph up into groups by owner, first applied
+ * stereotype or ancestor at a given depth below the context, summing the edge
+ * weights between groups in one pass over the adjacency.
+ * Groups with a single member are shown as that element.
+ */
+public class GraphAggregator {
+
+    public enum Grouping {
+        OWNER, STEREOTYPE, ANCESTOR
+    }
+
+    // Group key of elements without an owner or stereotype
+    private static final Object NO_GROUP = new Object();
+
+    private final Grouping grouping;
+    private final int ancestorLevel;
+    private final Function<Element, String> names;
+
+    /**
+     * @param ancestorLevel depth below the context of the grouping ancestor, used by {@link Grouping#ANCESTOR}
+     */
+    public GraphAggregator(Grouping grouping, int ancestorLevel) {
+        this(grouping, ancestorLevel, e -> RepresentationTextCreator.getRepresentedText((BaseElement) e));
+    }
+
+    /**
+     * @param names label of a grouping element
+     */
+    GraphAggregator(Grouping grouping, int ancestorLevel, Function<Element, String> names) {
+        this.grouping = grouping;
+        this.ancestorLevel = Math.max(1, ancestorLevel);
+        this.names = names;
+    }
+
+    /**
+     * Grouping for a "Group By" settings value, or null for "None".
+     */
+    public static Grouping parseGrouping(String value) {
+        if ("Owner".equals(value)) return Grouping.OWNER;
+        if ("Stereotype".equals(value)) return Grouping.STEREOTYPE;
+        if ("Ancestor".equals(value)) return Grouping.ANCESTOR;
+        return null;
+    }
+
+    public Aggregation aggregate(RelationshipGraph graph, Element context) {
+        int size = graph.size();
+        int[] groupOf = new int[size];
+        Map<Object, Integer> groupIndex = new HashMap<>();
+        List<Object> groupKeys = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Object key = groupKey(graph.getElements().get(i), context);
+            Integer group = groupIndex.get(key);
+            if (group == null) {
+                group = groupKeys.size();
+                groupIndex.put(key, group);
+                groupKeys.add(key);
+            }
+            groupOf[i] = group;
+        }
+        int groupCount = groupKeys.size();
+
+        // Members per group, in graph order
+        int[] memberStart = new int[groupCount + 1];
+        for (int i = 0; i < size; i++) {
+            memberStart[groupOf[i] + 1]++;
+        }
+        for (int g = 0; g < groupCount; g++) {
+            memberStart[g + 1] += memberStart[g];
+        }
+        int[] members = new int[size];
+        int[] fill = Arrays.copyOf(memberStart, groupCount);
+        for (int i = 0; i < size; i++) {
+            members[fill[groupOf[i]]++] = i;
+        }
+
+        List<Element> groupElements = new ArrayList<>(groupCount);
+        List<String> groupNames = new ArrayList<>(groupCount);
+        for (int g = 0; g < groupCount; g++) {
+            Object key = groupKeys.get(g);
+            Element representative = key instanceof Element ? (Element) key : null;
+            String name = representative != null
+                    ? names.apply(representative)
+                    : grouping == Grouping.STEREOTYPE ? "(no stereotype)" : "(no owner)";
+            groupElements.add(representative);
+            groupNames.add(name + " (" + (memberStart[g + 1] - memberStart[g]) + ")");
+        }
+
+        // Shown nodes: one per group, or the element itself for single-member groups
+        int[] units = new int[groupCount];
+        int[] unitOfNode = new int[size];
+        for (int g = 0; g < groupCount; g++) {
+            boolean single = memberStart[g + 1] - memberStart[g] == 1;
+            units[g] = single ? members[memberStart[g]] : -(g + 1);
+            for (int k = memberStart[g]; k < memberStart[g + 1]; k++) {
+                unitOfNode[members[k]] = g;
+            }
+        }
+
+        Aggregation aggregation = new Aggregation(graph, groupOf, memberStart, members, groupElements, groupNames);
+
+        // One pass over the adjacency: group weights, and how many edges touch each group
+        SparseAdjacency source = graph.getAdjacency();
+        SparseAdjacency grouped = new SparseAdjacency(groupCount);
+        Map<Long, List<Element>> relationships = new HashMap<>();
+        int[] edgeStart = new int[groupCount + 1];
+        for (int e = 0; e < source.edgeCount(); e++) {
+            int row = source.rowAt(e);
+            int column = source.columnAt(e);
+            int r = unitOfNode[row];
+            int c = unitOfNode[column];
+            grouped.add(r, c, source.weightAt(e));
+            if (units[r] >= 0 && units[c] >= 0) {
+                aggregation.copyRelationships(row, column, r, c, relationships);
+            }
+            edgeStart[groupOf[row] + 1]++;
+            if (groupOf[column] != groupOf[row]) {
+                edgeStart[groupOf[column] + 1]++;
+            }
+        }
+
+        // Source edges touching each group, so a group can be expanded without a full pass
+        for (int g = 0; g < groupCount; g++) {
+            edgeStart[g + 1] += edgeStart[g];
+        }
+        int[] groupEdges = new int[edgeStart[groupCount]];
+        fill = Arrays.copyOf(edgeStart, groupCount);
+        for (int e = 0; e < source.edgeCount(); e++) {
+            int gr = groupOf[source.rowAt(e)];
+            int gc = groupOf[source.columnAt(e)];
+            groupEdges[fill[gr]++] = e;
+            if (gc != gr) {
+                groupEdges[fill[gc]++] = e;
+            }
+        }
+
+        aggregation.setGroupEdges(edgeStart, groupEdges);
+        aggregation.setView(units, unitOfNode, grouped, relationships);
+        return aggregation;
+    }
+
+    private Object groupKey(Element element, Element context) {
+        switch (grouping) {
+            case STEREOTYPE:
+                List<Stereotype> stereotypes = element.getAppliedStereotype();
+                return stereotypes != null && !stereotypes.isEmpty() ? stereotypes.get(0) : NO_GROUP;
+            case ANCESTOR:
+                // Path from the element up to (not including) the context
+                List<Element> path = new ArrayList<>();
+                for (Element e = element; e != null && e != context; e = e.getOwner()) {
+                    path.add(e);
+                }
+                // Elements at or above the level stay on their own
+                return path.size() > ancestorLevel ? path.get(path.size() - ancestorLevel) : element;
+            case OWNER:
+            default:
+                Element owner = element.getOwner();
+                return owner != null ? owner : NO_GROUP;
+        }
+    }
+
+    /**
+     * Grouped view of a graph. Shown nodes are either groups or single elements;
+     * expanding a group replaces it in place with its members and only revisits
+     * the edges that touch that group.
+     */
+    public static class Aggregation {
+        private final RelationshipGraph source;
+        private final int[] groupOf;
+        private final int[] memberStart;
+        private final int[] members;
+        private final List<Element> groupElements;
+        private final List<String> groupNames;
+        private int[] edgeStart;
+        private int[] groupEdges;
+
+        // Shown node -> group g encoded as -(g + 1), or source node index
+        private int[] units;
+        // Source node -> shown node
+        private int[] unitOfNode;
+        private RelationshipGraph graph;
+
+        Aggregation(RelationshipGraph source, int[] groupOf, int[] memberStart, int[] members,
+                List<Element> groupElements, List<String> groupNames) {
+            this.source = source;
+            this.groupOf = groupOf;
+            this.memberStart = memberStart;
+            this.members = members;
+            this.groupElements = groupElements;
+            this.groupNames = groupNames;
+        }
+
+        void setGroupEdges(int[] edgeStart, int[] groupEdges) {
+            this.edgeStart = edgeStart;
+            this.groupEdges = groupEdges;
+        }
+
+        void setView(int[] units, int[] unitOfNode, SparseAdjacency adjacency,
+                Map<Long, List<Element>> relationships) {
+            this.units = units;
+            this.unitOfNode = unitOfNode;
+            List<Element> elements = new ArrayList<>(units.length);
+            List<String> names = new ArrayList<>(units.length);
+            for (int unit : units) {
+                if (unit < 0) {
+                    elements.add(groupElements.get(-unit - 1));
+                    names.add(groupNames.get(-unit - 1));
+                } else {
+                    elements.add(source.getElements().get(unit));
+                    names.add(source.getNames().get(unit));
+                }
+            }
+            this.graph = new RelationshipGraph(elements, names, adjacency, relationships,
+                    source.getRelationshipCount());
+        }
+
+        void copyRelationships(int row, int column, int r, int c, Map<Long, List<Element>> target) {
+            List<Element> rels = source.getRelationshipMap().get(SparseAdjacency.key(row, column));
+            if (rels != null) {
+                target.put(SparseAdjacency.key(r, c), rels);
+            }
+        }
+
+        /**
+         * Graph of the shown nodes. Group nodes carry the grouping element (null
+         * for elements without owner or stereotype) and a "name (count)" label.
+         */
+        public RelationshipGraph getGraph() {
+            return graph;
+        }
+
+        public boolean isGroup(int index) {
+            return index >= 0 && index < units.length && units[index] < 0;
+        }
+
+        public int getGroupCount() {
+            int count = 0;
+            for (int unit : units) {
+                if (unit < 0) count++;
+            }
+            return count;
+        }
+
+        /**
+         * Replace one group with its members at the same position. Cells between
+         * other shown nodes are copied, so only the group's own edges are revisited.
+         */
+        public Aggregation expand(int index) {
+            if (!isGroup(index)) {
+                return this;
+            }
+            int group = -units[index] - 1;
+            int memberCount = memberStart[group + 1] - memberStart[group];
+            int shift = memberCount - 1;
+            int newSize = units.length + shift;
+
+            int[] newUnits = new int[newSize];
+            System.arraycopy(units, 0, newUnits, 0, index);
+            System.arraycopy(members, memberStart[group], newUnits, index, memberCount);
+            System.arraycopy(units, index + 1, newUnits, index + memberCount, units.length - index - 1);
+
+            int[] newUnitOfNode = new int[unitOfNode.length];
+            for (int i = 0; i < unitOfNode.length; i++) {
+                int unit = unitOfNode[i];
+                newUnitOfNode[i] = unit < index ? unit : unit + shift;
+            }
+            for (int k = 0; k < memberCount; k++) {
+                newUnitOfNode[members[memberStart[group] + k]] = index + k;
+            }
+
+            // Cells not involving the expanded group keep their weights
+            SparseAdjacency adjacency = graph.getAdjacency();
+            SparseAdjacency expanded = new SparseAdjacency(newSize);
+            Map<Long, List<Element>> relationships = new HashMap<>();
+            for (int e = 0; e < adjacency.edgeCount(); e++) {
+                int r = adjacency.rowAt(e);
+                int c = adjacency.columnAt(e);
+                if (r == index || c == index) continue;
+                int newRow = r < index ? r : r + shift;
+                int newColumn = c < index ? c : c + shift;
+                expanded.add(newRow, newColumn, adjacency.weightAt(e));
+                List<Element> rels = graph.getRelationshipMap().get(SparseAdjacency.key(r, c));
+                if (rels != null) {
+                    relationships.put(SparseAdjacency.key(newRow, newColumn), rels);
+                }
+            }
+
+            // Edges of the group's members, resolved against the new shown nodes
+            SparseAdjacency sourceAdjacency = source.getAdjacency();
+            for (int k = edgeStart[group]; k < edgeStart[group + 1]; k++) {
+                int e = groupEdges[k];
+                int row = sourceAdjacency.rowAt(e);
+                int column = sourceAdjacency.columnAt(e);
+                int r = newUnitOfNode[row];
+                int c = newUnitOfNode[column];
+                expanded.add(r, c, sourceAdjacency.weightAt(e));
+                if (newUnits[r] >= 0 && newUnits[c] >= 0) {
+                    copyRelationships(row, column, r, c, relationships);
+                }
+            }
+
+            Aggregation result = new Aggregation(source, groupOf, memberStart, members, groupElements, groupNames);
+            result.setGroupEdges(edgeStart, groupEdges);
+            result.setView(newUnits, newUnitOfNode, expanded, relationships);
+            return result;
+        }
+    }
+}
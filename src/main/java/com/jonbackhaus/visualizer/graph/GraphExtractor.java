@@ -0,0 +1,376 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.jonbackhaus.visualizer.diagram.DiagramSettings;
+import com.nomagic.magicdraw.uml.BaseElement;
+import com.nomagic.magicdraw.uml.RepresentationTextCreator;
+import com.nomagic.uml2.ext.magicdraw.classes.mdinterfaces.Interface;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Association;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.DirectedRelationship;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Namespace;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Property;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Relationship;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Type;
+import com.nomagic.uml2.ext.magicdraw.compositestructures.mdinternalstructures.Connector;
+import com.nomagic.uml2.ext.magicdraw.compositestructures.mdinternalstructures.StructuredClassifier;
+import com.nomagic.uml2.ext.magicdraw.components.mdbasiccomponents.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Extracts the elements of a context and the relationships between them.
+ * Reads the model only and creates no UI, so it can run off the EDT and in parallel.
+ */
+public class GraphExtractor {
+
+    // "node" switches back to the per-element relationship scan
+    private static final boolean NODE_CENTRIC = "node".equals(System.getProperty("visualizer.extraction.mode"));
+
+    /**
+     * Collect the filtered elements of the container and build their relationship graph.
+     * Orphans are kept; callers apply a {@link NodeFilter} as needed.
+     */
+    public RelationshipGraph extract(Namespace container, DiagramSettings settings) {
+        return extractLayers(container, settings).merge(settings.getRelationCriteria());
+    }
+
+    /**
+     * Collect the filtered elements of the container and build one relationship
+     * layer per {@link RelationKind}, ignoring the relation criteria setting.
+     */
+    public LayeredGraph extractLayers(Namespace container, DiagramSettings settings) {
+        return extractLayers(collectElements(container, settings.getElementType(),
+                settings.isIncludeSubtypes(), settings.isRecursive()));
+    }
+
+    /**
+     * Build the relationship layers between already collected elements,
+     * e.g. those selected from an {@link ElementIndex}.
+     */
+    public LayeredGraph extractLayers(List<Element> elements) {
+        List<String> names = new ArrayList<>(elements.size());
+        for (Element e : elements) {
+            names.add(RepresentationTextCreator.getRepresentedText((BaseElement) e));
+        }
+
+        return buildLayers(elements, names);
+    }
+
+    private LayeredGraph buildLayers(List<Element> elements, List<String> names) {
+        return buildLayers(elements, names, NODE_CENTRIC);
+    }
+
+    LayeredGraph buildLayers(List<Element> elements, List<String> names, boolean nodeCentric) {
+        int size = elements.size();
+        Map<Element, Integer> indexOf = new IdentityHashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            indexOf.putIfAbsent(elements.get(i), i);
+        }
+
+        LayerBuilder builder = new LayerBuilder(size);
+        if (nodeCentric) {
+            buildNodeCentric(elements, indexOf, builder);
+        } else {
+            buildEdgeCentric(elements, indexOf, builder);
+        }
+        return builder.build(elements, names);
+    }
+
+    /**
+     * Resolve every relationship once: relationships are enumerated from the
+     * elements' related relationships, marked visited on first sight, and their
+     * endpoint pairs emitted a single time by the resolver registered for their
+     * metaclass. Unlike {@link #buildNodeCentric}, all ends of n-ary associations
+     * and multi-source or multi-target relationships are connected. Connectors are
+     * features rather than relationships and are enumerated from the structured
+     * classifiers among the elements, which own them.
+     */
+    private void buildEdgeCentric(List<Element> elements, Map<Element, Integer> indexOf, LayerBuilder builder) {
+        EndpointResolvers resolvers = EndpointResolvers.getInstance();
+        Set<Element> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Element node : elements) {
+            // Snapshot collection to avoid ConcurrentModificationException
+            Object[] nodeRelationships = node.get_relationshipOfRelatedElement().toArray();
+
+            for (Object relObj : nodeRelationships) {
+                if (relObj instanceof Relationship && visited.add((Relationship) relObj)) {
+                    addLink((Relationship) relObj, resolvers, indexOf, builder);
+                }
+            }
+
+            if (node instanceof StructuredClassifier) {
+                for (Object connector : ((StructuredClassifier) node).getOwnedConnector().toArray()) {
+                    if (connector instanceof Connector && visited.add((Connector) connector)) {
+                        addLink((Connector) connector, resolvers, indexOf, builder);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addLink(Element link, EndpointResolvers resolvers, Map<Element, Integer> indexOf,
+            LayerBuilder builder) {
+        int layer = RelationKind.of(link).ordinal();
+        EndpointResolver resolver = resolvers.forLink(link);
+        boolean directed = resolver.isDirected();
+        resolver.resolve(link, new EndpointResolver.Sink() {
+            @Override
+            public void accept(Element source, Element target) {
+                Integer s = indexOf.get(source);
+                Integer t = indexOf.get(target);
+                if (s == null || t == null) return;
+                if (directed) {
+                    builder.addEnds(layer, link, s, t);
+                } else {
+                    builder.addRelated(layer, link, s, t);
+                }
+            }
+
+            @Override
+            public boolean contains(Element element) {
+                return indexOf.containsKey(element);
+            }
+        });
+    }
+
+    /**
+     * Original per-element scan, kept as a fallback: every relationship is seen
+     * once per related element and counted only from its source. Only the first
+     * two ends of associations and the first source and target of directed
+     * relationships are used.
+     */
+    private void buildNodeCentric(List<Element> elements, Map<Element, Integer> indexOf, LayerBuilder builder) {
+        for (int i = 0; i < elements.size(); i++) {
+            Element node = elements.get(i);
+            // Snapshot collection to avoid ConcurrentModificationException
+            Object[] nodeRelationships = node.get_relationshipOfRelatedElement().toArray();
+
+            for (Object relObj : nodeRelationships) {
+                if (!(relObj instanceof Relationship)) continue;
+                Relationship rel = (Relationship) relObj;
+
+                // Each relationship goes to the layer of its kind
+                int layer = RelationKind.of(rel).ordinal();
+
+                if (!(rel instanceof Association) && !(rel instanceof DirectedRelationship)) {
+                    // For other relationships, use related elements (bidirectional)
+                    Object[] relatedArray = rel.getRelatedElement().toArray();
+                    for (Object targetObj : relatedArray) {
+                        if (!(targetObj instanceof Element)) continue;
+                        Element relatedEl = (Element) targetObj;
+                        if (relatedEl == node) continue;
+                        Integer j = indexOf.get(relatedEl);
+                        if (j != null) {
+                            builder.addRelated(layer, rel, i, j);
+                        }
+                    }
+                    continue;
+                }
+
+                // Only process if this node is the source (to avoid double-counting)
+                Element[] ends = resolveEnds(rel);
+                if (ends != null && ends[0] == node) {
+                    Integer j = indexOf.get(ends[1]);
+                    if (j != null) {
+                        builder.addEnds(layer, rel, i, j);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Source and target of an association or directed relationship, or null if
+     * they cannot be determined or the relationship is of another kind.
+     */
+    private static Element[] resolveEnds(Relationship rel) {
+        if (rel instanceof Association) {
+            // For Associations, use memberEnds to determine direction
+            Association assoc = (Association) rel;
+            List<?> memberEnds = assoc.getMemberEnd();
+            if (memberEnds.size() >= 2) {
+                Property firstEnd = (Property) memberEnds.get(0);
+                Property secondEnd = (Property) memberEnds.get(1);
+                Type firstType = firstEnd.getType();
+                Type secondType = secondEnd.getType();
+                // Source is the type of the first memberEnd, target is the type of the second
+                if (firstType instanceof Element && secondType instanceof Element) {
+                    return new Element[] { (Element) firstType, (Element) secondType };
+                }
+            }
+        } else if (rel instanceof DirectedRelationship) {
+            // For directed relationships, use source/target collections
+            DirectedRelationship dirRel = (DirectedRelationship) rel;
+            Object[] sources = dirRel.getSource().toArray();
+            Object[] targets = dirRel.getTarget().toArray();
+            if (sources.length > 0 && targets.length > 0) {
+                return new Element[] { (Element) sources[0], (Element) targets[0] };
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Accumulates adjacency, relationships and connectors, counts and degrees per
+     * relationship layer.
+     */
+    private static class LayerBuilder {
+        private final SparseAdjacency[] layers;
+        private final List<Map<Long, List<Element>>> relationships;
+        private final int[] relationshipCounts;
+        private final int[][] degrees;
+
+        LayerBuilder(int size) {
+            int kinds = RelationKind.values().length;
+            layers = new SparseAdjacency[kinds];
+            relationships = new ArrayList<>(kinds);
+            relationshipCounts = new int[kinds];
+            degrees = new int[kinds][size];
+            for (int k = 0; k < kinds; k++) {
+                layers[k] = new SparseAdjacency(size);
+                relationships.add(new HashMap<>());
+            }
+        }
+
+        /**
+         * One relationship between a source and a target, added in both directions
+         * so chord arcs are sized symmetrically; the source->target cell determines
+         * ribbon coloring.
+         */
+        void addEnds(int layer, Element link, int source, int target) {
+            layers[layer].add(source, target, 1.0);
+            layers[layer].add(target, source, 1.0);
+            degrees[layer][source]++;
+            degrees[layer][target]++;
+            relationshipCounts[layer]++;
+
+            // Store relationship for navigation from either end
+            Map<Long, List<Element>> map = relationships.get(layer);
+            map.computeIfAbsent(SparseAdjacency.key(source, target), k -> new ArrayList<>()).add(link);
+            map.computeIfAbsent(SparseAdjacency.key(target, source), k -> new ArrayList<>()).add(link);
+        }
+
+        /**
+         * One direction of a relationship without a source and target.
+         */
+        void addRelated(int layer, Element link, int from, int to) {
+            layers[layer].add(from, to, 1.0);
+            degrees[layer][from]++;
+            relationshipCounts[layer]++;
+            relationships.get(layer).computeIfAbsent(SparseAdjacency.key(from, to), k -> new ArrayList<>()).add(link);
+        }
+
+        LayeredGraph build(List<Element> elements, List<String> names) {
+            return new LayeredGraph(elements, names, layers, relationships, relationshipCounts, degrees);
+        }
+    }
+
+    /**
+     * Collect elements from the container, optionally recursively.
+     */
+    public List<Element> collectElements(Namespace container, String elementType,
+            boolean includeSubtypes, boolean recursive) {
+        List<Element> result = new ArrayList<>();
+        collectElementsRecursive(container, elementType, includeSubtypes, recursive, result);
+        return result;
+    }
+
+    private void collectElementsRecursive(Namespace container, String elementType,
+            boolean includeSubtypes, boolean recursive, List<Element> result) {
+        // Snapshot collection to avoid ConcurrentModificationException
+        Object[] ownedElements = container.getOwnedElement().toArray();
+
+        for (Object obj : ownedElements) {
+            if (!(obj instanceof Element)) continue;
+            Element e = (Element) obj;
+
+            if (matchesElementType(e, elementType, includeSubtypes)) {
+                result.add(e);
+            }
+
+            // Recurse into nested namespaces
+            if (recursive && e instanceof Namespace) {
+                collectElementsRecursive((Namespace) e, elementType, includeSubtypes, true, result);
+            }
+        }
+    }
+
+    /**
+     * Check if an element matches the specified element type filter.
+     * When includeSubtypes is true, also matches stereotyped subtypes
+     * (e.g., SysML Blocks are stereotyped Classes).
+     */
+    public static boolean matchesElementType(Element e, String elementType, boolean includeSubtypes) {
+        if ("Any".equals(elementType)) {
+            return true;
+        }
+
+        String humanType = ((BaseElement) e).getHumanType();
+
+        // Exact match on humanType
+        if (humanType.equals(elementType)) {
+            return true;
+        }
+
+        // If includeSubtypes, check metaclass hierarchy
+        if (includeSubtypes) {
+            switch (elementType) {
+                case "Class":
+                    // SysML Blocks, ConstraintBlocks, etc. are stereotyped Classes
+                    return e instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class;
+                case "Package":
+                    // Profiles, Models are stereotyped Packages
+                    return e instanceof Package;
+                case "Interface":
+                    return e instanceof Interface;
+                case "Component":
+                    return e instanceof Component;
+                default:
+                    // For other types, fall back to humanType contains check
+                    return humanType.contains(elementType);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Check if a relationship matches the specified relation criteria filter.
+     * Named kinds are matched by {@link RelationKind#of}, which uses the humanType
+     * to handle stereotyped relationships correctly.
+     * Criteria may list several kinds separated by commas; an empty list matches nothing.
+     */
+    public static boolean matchesRelationCriteria(Relationship rel, String criteria) {
+        if ("Any".equals(criteria)) {
+            return true;
+        }
+        if (criteria.isEmpty()) {
+            return false;
+        }
+        if (criteria.indexOf(',') >= 0) {
+            for (String part : criteria.split(",")) {
+                if (matchesRelationCriteria(rel, part.trim())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        for (RelationKind kind : RelationKind.values()) {
+            if (kind.getLabel().equals(criteria)) {
+                // Connectors are not relationships, so "Connector" matches none
+                return RelationKind.of(rel) == kind;
+            }
+        }
+        // Unknown criteria, show all
+        return true;
+    }
+}
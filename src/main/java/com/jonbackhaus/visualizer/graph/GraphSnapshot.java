@@ -0,0 +1,96 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.nomagic.magicdraw.core.Project;
+import com.nomagic.magicdraw.uml.BaseElement;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Compact copy of a RelationshipGraph that holds element IDs and primitive arrays
+ * instead of model references, kept while a diagram is hibernated.
+ * Relationships behind each cell are not kept; they are looked up again on navigation.
+ */
+public class GraphSnapshot {
+
+    private final String[] elementIds;
+    private final String[] names;
+    private final int[] rows;
+    private final int[] columns;
+    private final double[] weights;
+    private final int relationshipCount;
+
+    private GraphSnapshot(String[] elementIds, String[] names, int[] rows, int[] columns, double[] weights,
+            int relationshipCount) {
+        this.elementIds = elementIds;
+        this.names = names;
+        this.rows = rows;
+        this.columns = columns;
+        this.weights = weights;
+        this.relationshipCount = relationshipCount;
+    }
+
+    public static GraphSnapshot of(RelationshipGraph graph) {
+        int size = graph.size();
+        String[] ids = new String[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = graph.getElements().get(i).getID();
+        }
+
+        SparseAdjacency adjacency = graph.getAdjacency();
+        int edges = adjacency.edgeCount();
+        int[] rows = new int[edges];
+        int[] columns = new int[edges];
+        double[] weights = new double[edges];
+        for (int e = 0; e < edges; e++) {
+            rows[e] = adjacency.rowAt(e);
+            columns[e] = adjacency.columnAt(e);
+            weights[e] = adjacency.weightAt(e);
+        }
+
+        return new GraphSnapshot(ids, graph.getNames().toArray(new String[0]), rows, columns, weights,
+                graph.getRelationshipCount());
+    }
+
+    public int size() {
+        return elementIds.length;
+    }
+
+    /**
+     * Resolve the element IDs again. Elements deleted in the meantime are dropped.
+     */
+    public RelationshipGraph restore(Project project) {
+        List<Element> elements = new ArrayList<>(elementIds.length);
+        int[] oldToNew = new int[elementIds.length];
+        int newSize = 0;
+        for (int i = 0; i < elementIds.length; i++) {
+            BaseElement element = project.getElementByID(elementIds[i]);
+            if (element instanceof Element) {
+                elements.add((Element) element);
+                oldToNew[i] = newSize++;
+            } else {
+                oldToNew[i] = -1;
+            }
+        }
+
+        List<String> restoredNames = new ArrayList<>(newSize);
+        for (int i = 0; i < names.length; i++) {
+            if (oldToNew[i] >= 0) {
+                restoredNames.add(names[i]);
+            }
+        }
+
+        SparseAdjacency adjacency = new SparseAdjacency(newSize);
+        for (int e = 0; e < rows.length; e++) {
+            int r = oldToNew[rows[e]];
+            int c = oldToNew[columns[e]];
+            if (r >= 0 && c >= 0) {
+                adjacency.add(r, c, weights[e]);
+            }
+        }
+
+        return new RelationshipGraph(elements, restoredNames, adjacency, new HashMap<>(), relationshipCount);
+    }
+}
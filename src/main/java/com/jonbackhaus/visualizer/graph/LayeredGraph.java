@@ -0,0 +1,83 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Elements of a context with one adjacency layer per {@link RelationKind}.
+ * Built in a single extraction pass; graphs for any combination of kinds are
+ * then merged from the layers without reading the model.
+ */
+public class LayeredGraph {
+
+    private final List<Element> elements;
+    private final List<String> names;
+    private final SparseAdjacency[] layers;
+    private final List<Map<Long, List<Element>>> relationships;
+    private final int[] relationshipCounts;
+    // Weighted degree per layer and node, counted while the layers were built
+    private final int[][] degrees;
+
+    LayeredGraph(List<Element> elements, List<String> names, SparseAdjacency[] layers,
+            List<Map<Long, List<Element>>> relationships, int[] relationshipCounts, int[][] degrees) {
+        this.elements = elements;
+        this.names = names;
+        this.layers = layers;
+        this.relationships = relationships;
+        this.relationshipCounts = relationshipCounts;
+        this.degrees = degrees;
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    public SparseAdjacency getLayer(RelationKind kind) {
+        return layers[kind.ordinal()];
+    }
+
+    public int getRelationshipCount(RelationKind kind) {
+        return relationshipCounts[kind.ordinal()];
+    }
+
+    /**
+     * Graph of the relationships matching a relation criteria setting.
+     */
+    public RelationshipGraph merge(String criteria) {
+        return merge(RelationKind.parse(criteria));
+    }
+
+    public RelationshipGraph merge(EnumSet<RelationKind> kinds) {
+        // A single layer is used as is; layers are never modified after extraction
+        if (kinds.size() == 1) {
+            RelationKind kind = kinds.iterator().next();
+            return new RelationshipGraph(elements, names, layers[kind.ordinal()],
+                    relationships.get(kind.ordinal()), relationshipCounts[kind.ordinal()], degrees[kind.ordinal()]);
+        }
+
+        SparseAdjacency merged = new SparseAdjacency(elements.size());
+        Map<Long, List<Element>> mergedRelationships = new HashMap<>();
+        int[] mergedDegrees = new int[elements.size()];
+        int count = 0;
+        for (RelationKind kind : kinds) {
+            int[] layerDegrees = degrees[kind.ordinal()];
+            for (int i = 0; i < mergedDegrees.length; i++) {
+                mergedDegrees[i] += layerDegrees[i];
+            }
+            SparseAdjacency layer = layers[kind.ordinal()];
+            for (int e = 0; e < layer.edgeCount(); e++) {
+                merged.add(layer.rowAt(e), layer.columnAt(e), layer.weightAt(e));
+            }
+            for (Map.Entry<Long, List<Element>> entry : relationships.get(kind.ordinal()).entrySet()) {
+                mergedRelationships.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).addAll(entry.getValue());
+            }
+            count += relationshipCounts[kind.ordinal()];
+        }
+        return new RelationshipGraph(elements, names, merged, mergedRelationships, count, mergedDegrees);
+    }
+}
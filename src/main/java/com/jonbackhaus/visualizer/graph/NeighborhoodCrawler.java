@@ -0,0 +1,126 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.jonbackhaus.visualizer.MetacrawlerService;
+import com.jonbackhaus.visualizer.VisualizerLog;
+import com.nomagic.magicdraw.uml.BaseElement;
+import com.nomagic.magicdraw.uml.RepresentationTextCreator;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the graph of the elements within a number of metamodel reference hops
+ * of a seed element, using the Metacrawler's cached property accessors.
+ * Each hop is crawled in parallel; results are merged in frontier order, so the
+ * graph is deterministic, and no more elements than the node budget are added.
+ * Every reference between two included elements adds weight 1 in both directions;
+ * references among elements of the last hop are not crawled.
+ */
+public class NeighborhoodCrawler {
+
+    // Frontier elements handed to a worker at a time
+    private static final int CHUNK_SIZE = 64;
+
+    private final int hops;
+    private final int nodeBudget;
+    private final int parallelism;
+
+    public NeighborhoodCrawler(int hops, int nodeBudget) {
+        this(hops, nodeBudget, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    public NeighborhoodCrawler(int hops, int nodeBudget, int parallelism) {
+        this.hops = hops;
+        this.nodeBudget = Math.max(1, nodeBudget);
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * @throws IllegalStateException if reading references failed or the crawl was
+     *         interrupted; no partial graph is returned
+     */
+    public RelationshipGraph crawl(Element seed) {
+        List<Element> elements = new ArrayList<>();
+        Map<Element, Integer> indexOf = new IdentityHashMap<>();
+        elements.add(seed);
+        indexOf.put(seed, 0);
+        // Reference endpoints as flat (source, target) index pairs
+        List<int[]> references = new ArrayList<>();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "Visualizer-Neighborhood-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Element> frontier = Collections.singletonList(seed);
+            for (int hop = 0; hop < hops && !frontier.isEmpty(); hop++) {
+                List<Future<List<Element[]>>> chunks = new ArrayList<>();
+                for (int from = 0; from < frontier.size(); from += CHUNK_SIZE) {
+                    List<Element> chunk = frontier.subList(from, Math.min(frontier.size(), from + CHUNK_SIZE));
+                    chunks.add(pool.submit(() -> collectReferences(chunk)));
+                }
+
+                List<Element> next = new ArrayList<>();
+                for (Future<List<Element[]>> chunk : chunks) {
+                    for (Element[] reference : chunk.get()) {
+                        Integer target = indexOf.get(reference[1]);
+                        if (target == null) {
+                            if (elements.size() >= nodeBudget) continue;
+                            target = elements.size();
+                            elements.add(reference[1]);
+                            indexOf.put(reference[1], target);
+                            next.add(reference[1]);
+                        }
+                        references.add(new int[] { indexOf.get(reference[0]), target });
+                    }
+                }
+                frontier = next;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Neighborhood crawl interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Neighborhood crawl failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        SparseAdjacency adjacency = new SparseAdjacency(elements.size());
+        for (int[] reference : references) {
+            adjacency.add(reference[0], reference[1], 1.0);
+            adjacency.add(reference[1], reference[0], 1.0);
+        }
+        List<String> names = new ArrayList<>(elements.size());
+        for (Element e : elements) {
+            names.add(RepresentationTextCreator.getRepresentedText((BaseElement) e));
+        }
+        VisualizerLog.debug("Crawled " + elements.size() + " elements and " + references.size() +
+            " references around " + names.get(0));
+
+        // References are not Relationships, so there is nothing to navigate to per cell
+        return new RelationshipGraph(elements, names, adjacency, Collections.emptyMap(), references.size());
+    }
+
+    private static List<Element[]> collectReferences(List<Element> chunk) {
+        List<Element[]> references = new ArrayList<>();
+        for (Element element : chunk) {
+            MetacrawlerService.visitReferences(element, (property, target) -> {
+                if (target != element) {
+                    references.add(new Element[] { element, target });
+                }
+            });
+        }
+        return references;
+    }
+}
@@ -0,0 +1,111 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.jonbackhaus.visualizer.diagram.DiagramSettings;
+
+/**
+ * Drops nodes by degree before pruning: keeps nodes within a degree range and,
+ * optionally, only the N nodes of highest degree. Works in linear time on the
+ * degree counters of the graph, so it also replaces the orphan filter
+ * (an orphan is a node of degree 0).
+ */
+public class NodeFilter {
+
+    /**
+     * Filtered graph and how many nodes were removed to produce it.
+     */
+    public static class Result {
+        private final RelationshipGraph graph;
+        private final int droppedNodes;
+
+        Result(RelationshipGraph graph, int droppedNodes) {
+            this.graph = graph;
+            this.droppedNodes = droppedNodes;
+        }
+
+        public RelationshipGraph getGraph() {
+            return graph;
+        }
+
+        public int getDroppedNodes() {
+            return droppedNodes;
+        }
+    }
+
+    private final int minDegree;
+    private final int maxDegree;
+    private final int topNodes;
+
+    /**
+     * @param minDegree minimum degree of a kept node, 1 to drop orphans
+     * @param maxDegree maximum degree of a kept node, 0 for no limit
+     * @param topNodes  number of highest-degree nodes to keep, 0 for no limit
+     */
+    public NodeFilter(int minDegree, int maxDegree, int topNodes) {
+        this.minDegree = minDegree;
+        this.maxDegree = maxDegree;
+        this.topNodes = topNodes;
+    }
+
+    /**
+     * Filter for the degree settings; hiding orphans raises the minimum degree to 1.
+     */
+    public static NodeFilter of(DiagramSettings settings) {
+        int minDegree = settings.isShowOrphans() ? settings.getMinDegree() : Math.max(1, settings.getMinDegree());
+        return new NodeFilter(minDegree, settings.getMaxDegree(), settings.getTopNodes());
+    }
+
+    public boolean isActive() {
+        return minDegree > 0 || maxDegree > 0 || topNodes > 0;
+    }
+
+    public Result filter(RelationshipGraph graph) {
+        int[] degrees = graph.getDegrees();
+        int size = degrees.length;
+
+        boolean[] kept = new boolean[size];
+        int keptCount = 0;
+        int highest = 0;
+        for (int i = 0; i < size; i++) {
+            int degree = degrees[i];
+            if (degree >= minDegree && (maxDegree <= 0 || degree <= maxDegree)) {
+                kept[i] = true;
+                keptCount++;
+                highest = Math.max(highest, degree);
+            }
+        }
+
+        if (topNodes > 0 && keptCount > topNodes) {
+            // Counting pass over the degrees finds the lowest degree still in the top N;
+            // nodes tied at that degree are kept in model order until N is reached
+            int[] histogram = new int[highest + 1];
+            for (int i = 0; i < size; i++) {
+                if (kept[i]) histogram[degrees[i]]++;
+            }
+            int threshold = highest;
+            int above = 0;
+            while (above + histogram[threshold] < topNodes) {
+                above += histogram[threshold--];
+            }
+            int tiesLeft = topNodes - above;
+            for (int i = 0; i < size; i++) {
+                if (!kept[i] || degrees[i] > threshold) continue;
+                if (degrees[i] == threshold && tiesLeft > 0) {
+                    tiesLeft--;
+                } else {
+                    kept[i] = false;
+                }
+            }
+            keptCount = topNodes;
+        }
+
+        if (keptCount == size) {
+            return new Result(graph, 0);
+        }
+        int[] oldToNew = new int[size];
+        int newSize = 0;
+        for (int i = 0; i < size; i++) {
+            oldToNew[i] = kept[i] ? newSize++ : -1;
+        }
+        return new Result(graph.remap(oldToNew, newSize), size - newSize);
+    }
+}
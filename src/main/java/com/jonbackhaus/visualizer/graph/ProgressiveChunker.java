@@ -0,0 +1,115 @@
+package com.jonbackhaus.visualizer.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits a large graph into chunks for progressive delivery to the page.
+ * Nodes are renumbered by descending degree, so every chunk reveals the next
+ * block of nodes, hubs first, and carries the edges that have become drawable,
+ * heaviest first. The first chunk is therefore a coarse picture of the hubs
+ * and their strongest relationships; later chunks refine it.
+ */
+public class ProgressiveChunker {
+
+    /**
+     * One delivery step: nodes {@code [fromNode, toNode)} of the ranked graph and
+     * the positions of the adjacency edges sent with them.
+     */
+    public static class Chunk {
+        private final int fromNode;
+        private final int toNode;
+        private final int[] edges;
+
+        Chunk(int fromNode, int toNode, int[] edges) {
+            this.fromNode = fromNode;
+            this.toNode = toNode;
+            this.edges = edges;
+        }
+
+        public int getFromNode() {
+            return fromNode;
+        }
+
+        public int getToNode() {
+            return toNode;
+        }
+
+        /** Positions in {@link SparseAdjacency#rowAt}/{@link SparseAdjacency#columnAt} order. */
+        public int[] getEdges() {
+            return edges;
+        }
+    }
+
+    private final int nodesPerChunk;
+    private final int edgesPerChunk;
+
+    /**
+     * @param nodesPerChunk nodes revealed by each chunk
+     * @param edgesPerChunk maximum number of edges sent with one chunk
+     */
+    public ProgressiveChunker(int nodesPerChunk, int edgesPerChunk) {
+        this.nodesPerChunk = Math.max(1, nodesPerChunk);
+        this.edgesPerChunk = Math.max(1, edgesPerChunk);
+    }
+
+    /**
+     * The graph with its nodes renumbered by descending degree; ties keep model order.
+     */
+    public static RelationshipGraph rankByDegree(RelationshipGraph graph) {
+        int[] degrees = graph.getDegrees();
+        Integer[] order = new Integer[degrees.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Integer.compare(degrees[b], degrees[a]));
+
+        int[] oldToNew = new int[degrees.length];
+        for (int rank = 0; rank < order.length; rank++) {
+            oldToNew[order[rank]] = rank;
+        }
+        return graph.remap(oldToNew, degrees.length);
+    }
+
+    /**
+     * Plan the chunks of a graph ranked by {@link #rankByDegree}. An edge becomes
+     * sendable with the chunk that reveals the later of its two nodes; sendable
+     * edges go out heaviest first, carrying over to later chunks when a chunk is full.
+     */
+    public List<Chunk> plan(RelationshipGraph ranked) {
+        SparseAdjacency adjacency = ranked.getAdjacency();
+        int n = ranked.size();
+        int edgeCount = adjacency.edgeCount();
+
+        Integer[] order = new Integer[edgeCount];
+        for (int e = 0; e < edgeCount; e++) order[e] = e;
+        Arrays.sort(order, (a, b) -> {
+            int byBlock = Integer.compare(block(adjacency, a), block(adjacency, b));
+            return byBlock != 0 ? byBlock : Double.compare(adjacency.weightAt(b), adjacency.weightAt(a));
+        });
+
+        List<Chunk> chunks = new ArrayList<>();
+        int revealed = 0;
+        int next = 0;
+        while (revealed < n || next < edgeCount) {
+            int from = revealed;
+            int to = Math.min(n, revealed + nodesPerChunk);
+            int lastBlock = (Math.max(to, 1) - 1) / nodesPerChunk;
+            int end = next;
+            while (end < edgeCount && end - next < edgesPerChunk && block(adjacency, order[end]) <= lastBlock) {
+                end++;
+            }
+            int[] edges = new int[end - next];
+            for (int i = 0; i < edges.length; i++) {
+                edges[i] = order[next + i];
+            }
+            chunks.add(new Chunk(from, to, edges));
+            revealed = to;
+            next = end;
+        }
+        return chunks;
+    }
+
+    private int block(SparseAdjacency adjacency, int edge) {
+        return Math.max(adjacency.rowAt(edge), adjacency.columnAt(edge)) / nodesPerChunk;
+    }
+}
@@ -0,0 +1,110 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.nomagic.magicdraw.uml.BaseElement;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.compositestructures.mdinternalstructures.Connector;
+
+import java.util.EnumSet;
+
+/**
+ * Relationship kinds offered as relation criteria. Every relationship falls into
+ * exactly one kind; relationships matching none of the named kinds are OTHER.
+ * Connectors, which are not relationships, are a kind of their own and are
+ * only included when selected explicitly: "Any" stands for the relationship kinds,
+ * so diagrams saved before connectors were extracted keep their counts.
+ */
+public enum RelationKind {
+    DEPENDENCY("Dependency"),
+    ASSOCIATION("Association"),
+    GENERALIZATION("Generalization"),
+    REALIZATION("Realization"),
+    USAGE("Usage"),
+    CONNECTOR("Connector"),
+    OTHER("Other");
+
+    // Kinds selected by "Any"
+    private static final EnumSet<RelationKind> ANY = EnumSet.complementOf(EnumSet.of(CONNECTOR));
+
+    private final String label;
+
+    RelationKind(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Name used in the settings and the configuration panel.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Kind of a relationship or connector. Called once per extracted link, so the
+     * human type is read once and tested in a single chain. The human type rather
+     * than the metaclass decides, so stereotyped relationships such as SysML
+     * Allocate, which are Abstractions, are OTHER.
+     */
+    public static RelationKind of(Element link) {
+        if (link instanceof Connector) {
+            return CONNECTOR;
+        }
+        String humanType = ((BaseElement) link).getHumanType();
+        if ("Dependency".equals(humanType)) {
+            // Not its subtypes like Usage or Realization
+            return DEPENDENCY;
+        }
+        if (humanType.contains("Association")) {
+            return ASSOCIATION;
+        }
+        if ("Generalization".equals(humanType)) {
+            return GENERALIZATION;
+        }
+        if (humanType.contains("Realization")) {
+            // Interface Realization, Realization, etc.
+            return REALIZATION;
+        }
+        if ("Usage".equals(humanType)) {
+            return USAGE;
+        }
+        return OTHER;
+    }
+
+    /**
+     * Kinds selected by a relation criteria setting: "Any", a single kind, or a
+     * comma-separated list of kinds, where "Any" adds every kind but connectors.
+     */
+    public static EnumSet<RelationKind> parse(String criteria) {
+        if (criteria == null) {
+            return EnumSet.copyOf(ANY);
+        }
+        EnumSet<RelationKind> kinds = EnumSet.noneOf(RelationKind.class);
+        for (String part : criteria.split(",")) {
+            if ("Any".equals(part.trim())) {
+                kinds.addAll(ANY);
+            }
+            for (RelationKind kind : values()) {
+                if (kind.label.equals(part.trim())) {
+                    kinds.add(kind);
+                }
+            }
+        }
+        return kinds;
+    }
+
+    /**
+     * Inverse of {@link #parse(String)}.
+     */
+    public static String format(EnumSet<RelationKind> kinds) {
+        StringBuilder sb = new StringBuilder();
+        EnumSet<RelationKind> listed = EnumSet.copyOf(kinds);
+        if (kinds.containsAll(ANY)) {
+            sb.append("Any");
+            listed.removeAll(ANY);
+        }
+        for (RelationKind kind : listed) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(kind.label);
+        }
+        return sb.toString();
+    }
+}
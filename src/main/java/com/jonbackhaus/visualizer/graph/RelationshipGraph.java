@@ -0,0 +1,113 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Elements of a diagram context together with the weighted relationships between them.
+ * Node indices match the positions in {@link #getElements()} and {@link #getNames()}.
+ */
+public class RelationshipGraph {
+
+    private final List<Element> elements;
+    private final List<String> names;
+    private final SparseAdjacency adjacency;
+    // Relationships and connectors behind each adjacency cell, keyed by SparseAdjacency.key(row, column)
+    private final Map<Long, List<Element>> relationships;
+    private final int relationshipCount;
+    // Weighted degree (adjacency row sum) per node, counted during extraction or on first use
+    private int[] degrees;
+
+    public RelationshipGraph(List<Element> elements, List<String> names, SparseAdjacency adjacency,
+            Map<Long, List<Element>> relationships, int relationshipCount) {
+        this(elements, names, adjacency, relationships, relationshipCount, null);
+    }
+
+    RelationshipGraph(List<Element> elements, List<String> names, SparseAdjacency adjacency,
+            Map<Long, List<Element>> relationships, int relationshipCount, int[] degrees) {
+        this.elements = elements;
+        this.names = names;
+        this.adjacency = adjacency;
+        this.relationships = relationships;
+        this.relationshipCount = relationshipCount;
+        this.degrees = degrees;
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    public List<Element> getElements() {
+        return elements;
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+
+    public SparseAdjacency getAdjacency() {
+        return adjacency;
+    }
+
+    public int getRelationshipCount() {
+        return relationshipCount;
+    }
+
+    Map<Long, List<Element>> getRelationshipMap() {
+        return relationships;
+    }
+
+    /**
+     * Weighted degree of every node; zero for orphans.
+     */
+    public int[] getDegrees() {
+        if (degrees == null) {
+            int[] counted = new int[size()];
+            adjacency.forEachEdge((row, column, weight) -> counted[row] += (int) weight);
+            degrees = counted;
+        }
+        return degrees;
+    }
+
+    /**
+     * Relationships or connectors connecting two nodes, trying the reverse direction if needed.
+     */
+    public List<Element> getRelationships(int sourceIndex, int targetIndex) {
+        List<Element> rels = relationships.get(SparseAdjacency.key(sourceIndex, targetIndex));
+        if (rels == null || rels.isEmpty()) {
+            rels = relationships.get(SparseAdjacency.key(targetIndex, sourceIndex));
+        }
+        return rels != null ? rels : Collections.emptyList();
+    }
+
+    /**
+     * Build a graph keeping only the nodes with a non-negative entry in {@code oldToNew}.
+     */
+    public RelationshipGraph remap(int[] oldToNew, int newSize) {
+        List<Element> newElements = new ArrayList<>(Collections.nCopies(newSize, (Element) null));
+        List<String> newNames = new ArrayList<>(Collections.nCopies(newSize, (String) null));
+        for (int i = 0; i < oldToNew.length; i++) {
+            if (oldToNew[i] >= 0) {
+                newElements.set(oldToNew[i], elements.get(i));
+                newNames.set(oldToNew[i], names.get(i));
+            }
+        }
+
+        Map<Long, List<Element>> newRelationships = new HashMap<>();
+        for (Map.Entry<Long, List<Element>> entry : relationships.entrySet()) {
+            int r = oldToNew[SparseAdjacency.rowOf(entry.getKey())];
+            int c = oldToNew[SparseAdjacency.columnOf(entry.getKey())];
+            if (r >= 0 && c >= 0) {
+                newRelationships.put(SparseAdjacency.key(r, c), entry.getValue());
+            }
+        }
+
+        return new RelationshipGraph(newElements, newNames, adjacency.remap(oldToNew, newSize),
+                newRelationships, relationshipCount);
+    }
+}
@@ -0,0 +1,138 @@
+package com.jonbackhaus.visualizer.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sparse weighted adjacency between node indices.
+ * Edges are stored once per ordered (row, column) pair in insertion order,
+ * so a diagram with thousands of elements but few relationships stays small.
+ */
+public class SparseAdjacency {
+
+    /**
+     * Callback for iterating over the stored edges.
+     */
+    public interface EdgeVisitor {
+        void visit(int row, int column, double weight);
+    }
+
+    private final int size;
+    private final Map<Long, Integer> edgeIndex = new HashMap<>();
+    private int[] rows = new int[16];
+    private int[] columns = new int[16];
+    private double[] weights = new double[16];
+    private int edgeCount = 0;
+
+    public SparseAdjacency(int size) {
+        this.size = size;
+    }
+
+    public static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    public static int rowOf(long key) {
+        return (int) (key >>> 32);
+    }
+
+    public static int columnOf(long key) {
+        return (int) key;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Add weight to the (row, column) cell, creating the edge if needed.
+     */
+    public void add(int row, int column, double weight) {
+        long k = key(row, column);
+        Integer existing = edgeIndex.get(k);
+        if (existing != null) {
+            weights[existing] += weight;
+            return;
+        }
+        if (edgeCount == rows.length) {
+            int capacity = rows.length * 2;
+            rows = Arrays.copyOf(rows, capacity);
+            columns = Arrays.copyOf(columns, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        rows[edgeCount] = row;
+        columns[edgeCount] = column;
+        weights[edgeCount] = weight;
+        edgeIndex.put(k, edgeCount);
+        edgeCount++;
+    }
+
+    public double get(int row, int column) {
+        Integer index = edgeIndex.get(key(row, column));
+        return index != null ? weights[index] : 0.0;
+    }
+
+    public int rowAt(int edge) {
+        return rows[edge];
+    }
+
+    public int columnAt(int edge) {
+        return columns[edge];
+    }
+
+    public double weightAt(int edge) {
+        return weights[edge];
+    }
+
+    public void forEachEdge(EdgeVisitor visitor) {
+        for (int e = 0; e < edgeCount; e++) {
+            visitor.visit(rows[e], columns[e], weights[e]);
+        }
+    }
+
+    /**
+     * Mark every node that has at least one incoming or outgoing edge.
+     */
+    public boolean[] connectedNodes() {
+        boolean[] connected = new boolean[size];
+        for (int e = 0; e < edgeCount; e++) {
+            if (weights[e] > 0) {
+                connected[rows[e]] = true;
+                connected[columns[e]] = true;
+            }
+        }
+        return connected;
+    }
+
+    /**
+     * Build a new adjacency keeping only the given nodes, renumbered by their
+     * position in {@code oldToNew} (-1 drops the node).
+     */
+    public SparseAdjacency remap(int[] oldToNew, int newSize) {
+        SparseAdjacency result = new SparseAdjacency(newSize);
+        for (int e = 0; e < edgeCount; e++) {
+            int r = oldToNew[rows[e]];
+            int c = oldToNew[columns[e]];
+            if (r >= 0 && c >= 0) {
+                result.add(r, c, weights[e]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Expand into the dense square matrix expected by d3.chord().
+     */
+    public double[][] toDenseMatrix() {
+        double[][] matrix = new double[size][size];
+        for (int e = 0; e < edgeCount; e++) {
+            matrix[rows[e]][columns[e]] += weights[e];
+        }
+        return matrix;
+    }
+}
@@ -1,36 +1,70 @@
 package com.jonbackhaus.visualizer.ui;
 
-import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.jonbackhaus.visualizer.diagram.DiagramSettings;
+import com.jonbackhaus.visualizer.graph.RelationKind;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Namespace;
 import com.nomagic.magicdraw.uml.RepresentationTextCreator;
 import com.nomagic.magicdraw.uml.BaseElement;
 
 import javax.swing.*;
+import javax.swing.event.ChangeListener;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
 
 /**
- * Configuration panel for Chord Diagram, styled after MagicDraw's Relation Map.
+ * Configuration panel for Visualizer diagrams, styled after MagicDraw's Relation Map.
  */
 public class DiagramConfigPanel extends JPanel {
 
+    private JComboBox<String> sourceCombo;
+    private JSpinner hopsSpinner;
+    private JSpinner nodeBudgetSpinner;
+    // Seed of a neighborhood diagram, set when the diagram is created from an element
+    private String seedElementId;
     private JTextField contextField;
     private JButton selectContextButton;
     private JCheckBox recursiveCheckbox;
     private JComboBox<String> elementTypeCombo;
     private JCheckBox includeSubtypesCheckbox;
-    private JComboBox<String> relationCriteriaCombo;
+    private JComboBox<String> groupByCombo;
+    private JSpinner groupLevelSpinner;
+    private JSpinner groupThresholdSpinner;
+    private final Map<RelationKind, JCheckBox> relationKindCheckboxes = new EnumMap<>(RelationKind.class);
     private JCheckBox showImpliedCheckbox;
     private JSpinner depthSpinner;
     private JCheckBox showOrphansCheckbox;
+    private JSpinner minDegreeSpinner;
+    private JSpinner maxDegreeSpinner;
+    private JSpinner topNodesSpinner;
+    private JSpinner maxEdgesSpinner;
+    private JSpinner minEdgeWeightSpinner;
+    private JLabel pruningStatusLabel;
     private JCheckBox showLabelsCheckbox;
     private JCheckBox showLegendCheckbox;
+    private JCheckBox precomputeLayoutCheckbox;
+    private JCheckBox focusOnClickCheckbox;
+    private JSpinner focusHopsSpinner;
+    private JPanel focusTrailPanel;
     private JButton refreshButton;
+    private final List<Component> diagramOnly = new ArrayList<>();
 
     private Namespace contextElement;
     private Namespace defaultContext;
 
     public DiagramConfigPanel() {
+        this(false);
+    }
+
+    /**
+     * @param filtersOnly show only the element, relation and pruning filters, e.g. for a batch export
+     */
+    public DiagramConfigPanel(boolean filtersOnly) {
         setLayout(new GridBagLayout());
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         setPreferredSize(new Dimension(280, 500));
@@ -41,7 +75,9 @@ public class DiagramConfigPanel extends JPanel {
         gbc.anchor = GridBagConstraints.WEST;
 
         int row = 0;
+        int first;
 
+        first = getComponentCount();
         // Section: Context
         gbc.gridx = 0;
         gbc.gridy = row++;
@@ -67,6 +103,7 @@ public class DiagramConfigPanel extends JPanel {
         selectContextButton.setToolTipText("Select context element");
         add(selectContextButton, gbc);
         row++;
+        markDiagramOnly(first);
 
         // Recursive checkbox
         gbc.gridx = 0;
@@ -78,9 +115,43 @@ public class DiagramConfigPanel extends JPanel {
         gbc.gridwidth = 1;
         row++;
 
+        first = getComponentCount();
+        // Source
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        add(new JLabel("Source:"), gbc);
+        gbc.gridx = 1;
+        sourceCombo = new JComboBox<>(new String[] {
+            DiagramSettings.SOURCE_CONTEXT, DiagramSettings.SOURCE_NEIGHBORHOOD
+        });
+        sourceCombo.setSelectedItem(DiagramSettings.SOURCE_CONTEXT);
+        sourceCombo.setToolTipText("Neighborhood shows the metamodel references around the element the diagram was created from");
+        add(sourceCombo, gbc);
+        row++;
+
+        // Hops
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        add(new JLabel("Hops:"), gbc);
+        gbc.gridx = 1;
+        hopsSpinner = new JSpinner(new SpinnerNumberModel(2, 1, 10, 1));
+        add(hopsSpinner, gbc);
+        row++;
+
+        // Node Budget
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        add(new JLabel("Node Budget:"), gbc);
+        gbc.gridx = 1;
+        nodeBudgetSpinner = new JSpinner(new SpinnerNumberModel(500, 10, 100000, 100));
+        nodeBudgetSpinner.setToolTipText("Stop adding neighborhood elements after this many");
+        add(nodeBudgetSpinner, gbc);
+        row++;
+
         // Spacer
         gbc.gridy = row++;
         add(Box.createVerticalStrut(10), gbc);
+        markDiagramOnly(first);
 
         // Section: Elements
         gbc.gridx = 0;
@@ -113,6 +184,41 @@ public class DiagramConfigPanel extends JPanel {
         gbc.gridwidth = 1;
         row++;
 
+        first = getComponentCount();
+        // Group By
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        add(new JLabel("Group By:"), gbc);
+        gbc.gridx = 1;
+        groupByCombo = new JComboBox<>(new String[] {
+            "None", "Owner", "Stereotype", "Ancestor"
+        });
+        groupByCombo.setSelectedItem("None");
+        groupByCombo.setToolTipText("Roll elements up into groups; double-click a group to expand it");
+        add(groupByCombo, gbc);
+        row++;
+
+        // Ancestor Level
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        add(new JLabel("Ancestor Level:"), gbc);
+        gbc.gridx = 1;
+        groupLevelSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 20, 1));
+        groupLevelSpinner.setToolTipText("Depth below the context of the ancestor to group by");
+        add(groupLevelSpinner, gbc);
+        row++;
+
+        // Group Above
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        add(new JLabel("Group Above:"), gbc);
+        gbc.gridx = 1;
+        groupThresholdSpinner = new JSpinner(new SpinnerNumberModel(500, 0, 1000000, 100));
+        groupThresholdSpinner.setToolTipText("Group only when there are more elements than this");
+        add(groupThresholdSpinner, gbc);
+        row++;
+        markDiagramOnly(first);
+
         // Spacer
         gbc.gridy = row++;
         add(Box.createVerticalStrut(10), gbc);
@@ -131,13 +237,19 @@ public class DiagramConfigPanel extends JPanel {
         gbc.gridy = row;
         add(new JLabel("Criteria:"), gbc);
         gbc.gridx = 1;
-        relationCriteriaCombo = new JComboBox<>(new String[] {
-            "Any", "Dependency", "Association", "Generalization", "Realization", "Usage"
-        });
-        relationCriteriaCombo.setSelectedItem("Any");
-        add(relationCriteriaCombo, gbc);
+        JPanel relationKindPanel = new JPanel(new GridLayout(0, 2));
+        for (RelationKind kind : RelationKind.values()) {
+            JCheckBox checkbox = new JCheckBox(kind.getLabel(), kind != RelationKind.CONNECTOR);
+            if (kind == RelationKind.CONNECTOR) {
+                checkbox.setToolTipText("Connectors between parts and ports; not included unless selected");
+            }
+            relationKindCheckboxes.put(kind, checkbox);
+            relationKindPanel.add(checkbox);
+        }
+        add(relationKindPanel, gbc);
         row++;
 
+        first = getComponentCount();
         // Show Implied
         gbc.gridx = 0;
         gbc.gridy = row;
@@ -147,6 +259,7 @@ public class DiagramConfigPanel extends JPanel {
         add(showImpliedCheckbox, gbc);
         gbc.gridwidth = 1;
         row++;
+        markDiagramOnly(first);
 
         // Spacer
         gbc.gridy = row++;
@@ -161,6 +274,7 @@ public class DiagramConfigPanel extends JPanel {
         add(displayLabel, gbc);
         gbc.gridwidth = 1;
 
+        first = getComponentCount();
         // Depth
         gbc.gridx = 0;
         gbc.gridy = row;
@@ -169,6 +283,7 @@ public class DiagramConfigPanel extends JPanel {
         depthSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 10, 1));
         add(depthSpinner, gbc);
         row++;
+        markDiagramOnly(first);
 
         // Show Orphans
         gbc.gridx = 0;
@@ -181,6 +296,67 @@ public class DiagramConfigPanel extends JPanel {
         gbc.gridwidth = 1;
         row++;
 
+        // Min Degree
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        add(new JLabel("Min Degree:"), gbc);
+        gbc.gridx = 1;
+        minDegreeSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 1000000, 1));
+        minDegreeSpinner.setToolTipText("Hide elements with fewer relationships than this");
+        add(minDegreeSpinner, gbc);
+        row++;
+
+        // Max Degree
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        add(new JLabel("Max Degree:"), gbc);
+        gbc.gridx = 1;
+        maxDegreeSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 1000000, 1));
+        maxDegreeSpinner.setToolTipText("Hide elements with more relationships than this (0 = no limit)");
+        add(maxDegreeSpinner, gbc);
+        row++;
+
+        // Top Hubs
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        add(new JLabel("Top Hubs:"), gbc);
+        gbc.gridx = 1;
+        topNodesSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 1000000, 50));
+        topNodesSpinner.setToolTipText("Keep only the elements with the most relationships (0 = all)");
+        add(topNodesSpinner, gbc);
+        row++;
+
+        // Max Ribbons
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        add(new JLabel("Max Ribbons:"), gbc);
+        gbc.gridx = 1;
+        maxEdgesSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 1000000, 100));
+        maxEdgesSpinner.setToolTipText("Keep only the heaviest ribbons (0 = all)");
+        add(maxEdgesSpinner, gbc);
+        row++;
+
+        // Min Weight
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        add(new JLabel("Min Weight:"), gbc);
+        gbc.gridx = 1;
+        minEdgeWeightSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 10000, 1));
+        minEdgeWeightSpinner.setToolTipText("Hide ribbons with fewer relationships than this");
+        add(minEdgeWeightSpinner, gbc);
+        row++;
+
+        first = getComponentCount();
+        // Pruning status
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        gbc.gridwidth = 2;
+        pruningStatusLabel = new JLabel(" ");
+        pruningStatusLabel.setForeground(Color.GRAY);
+        add(pruningStatusLabel, gbc);
+        gbc.gridwidth = 1;
+        row++;
+
         // Show Labels
         gbc.gridx = 0;
         gbc.gridy = row;
@@ -201,6 +377,59 @@ public class DiagramConfigPanel extends JPanel {
         gbc.gridwidth = 1;
         row++;
 
+        // Precompute Layout
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        gbc.gridwidth = 2;
+        precomputeLayoutCheckbox = new JCheckBox("Precompute Layout");
+        precomputeLayoutCheckbox.setSelected(true);
+        precomputeLayoutCheckbox.setToolTipText("Compute chord geometry in the background so the diagram only has to draw it");
+        add(precomputeLayoutCheckbox, gbc);
+        gbc.gridwidth = 1;
+        row++;
+
+        // Spacer
+        gbc.gridy = row++;
+        add(Box.createVerticalStrut(10), gbc);
+
+        // Section: Focus
+        gbc.gridx = 0;
+        gbc.gridy = row++;
+        gbc.gridwidth = 2;
+        JLabel focusLabel = new JLabel("Focus");
+        focusLabel.setFont(focusLabel.getFont().deriveFont(Font.BOLD));
+        add(focusLabel, gbc);
+        gbc.gridwidth = 1;
+
+        // Focus on Click
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        gbc.gridwidth = 2;
+        focusOnClickCheckbox = new JCheckBox("Focus on click");
+        focusOnClickCheckbox.setSelected(false);
+        focusOnClickCheckbox.setToolTipText("Clicking an element shows its neighborhood instead of selecting it in the containment tree");
+        add(focusOnClickCheckbox, gbc);
+        gbc.gridwidth = 1;
+        row++;
+
+        // Focus Hops
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        add(new JLabel("Focus Hops:"), gbc);
+        gbc.gridx = 1;
+        focusHopsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 10, 1));
+        add(focusHopsSpinner, gbc);
+        row++;
+
+        // Focus trail
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        gbc.gridwidth = 2;
+        focusTrailPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 2, 0));
+        add(focusTrailPanel, gbc);
+        gbc.gridwidth = 1;
+        row++;
+
         // Spacer
         gbc.gridy = row++;
         add(Box.createVerticalStrut(15), gbc);
@@ -215,6 +444,7 @@ public class DiagramConfigPanel extends JPanel {
         refreshButton.setPreferredSize(new Dimension(100, 28));
         add(refreshButton, gbc);
         row++;
+        markDiagramOnly(first);
 
         // Push everything up
         gbc.gridy = row;
@@ -222,6 +452,33 @@ public class DiagramConfigPanel extends JPanel {
         gbc.weighty = 1.0;
         gbc.fill = GridBagConstraints.BOTH;
         add(new JPanel(), gbc);
+
+        sourceCombo.addActionListener(e -> updateSourceControls());
+        updateSourceControls();
+
+        if (filtersOnly) {
+            for (Component component : diagramOnly) {
+                component.setVisible(false);
+            }
+            setPreferredSize(null);
+        }
+    }
+
+    // Components added since the given index only apply to a diagram, not to the filters
+    private void markDiagramOnly(int fromComponent) {
+        for (int i = fromComponent; i < getComponentCount(); i++) {
+            diagramOnly.add(getComponent(i));
+        }
+    }
+
+    /**
+     * Neighborhoods follow every metamodel reference, so the relation kinds do not apply to them.
+     */
+    private void updateSourceControls() {
+        boolean context = !DiagramSettings.SOURCE_NEIGHBORHOOD.equals(getSource());
+        for (JCheckBox checkbox : relationKindCheckboxes.values()) {
+            checkbox.setEnabled(context);
+        }
     }
 
     /**
@@ -276,6 +533,18 @@ public class DiagramConfigPanel extends JPanel {
         return contextElement != null;
     }
 
+    public String getSource() {
+        return (String) sourceCombo.getSelectedItem();
+    }
+
+    public int getHops() {
+        return (Integer) hopsSpinner.getValue();
+    }
+
+    public int getNodeBudget() {
+        return (Integer) nodeBudgetSpinner.getValue();
+    }
+
     public boolean isRecursive() {
         return recursiveCheckbox.isSelected();
     }
@@ -288,8 +557,26 @@ public class DiagramConfigPanel extends JPanel {
         return includeSubtypesCheckbox.isSelected();
     }
 
+    public String getGroupBy() {
+        return (String) groupByCombo.getSelectedItem();
+    }
+
+    public int getGroupLevel() {
+        return (Integer) groupLevelSpinner.getValue();
+    }
+
+    public int getGroupThreshold() {
+        return (Integer) groupThresholdSpinner.getValue();
+    }
+
     public String getRelationCriteria() {
-        return (String) relationCriteriaCombo.getSelectedItem();
+        EnumSet<RelationKind> kinds = EnumSet.noneOf(RelationKind.class);
+        for (Map.Entry<RelationKind, JCheckBox> entry : relationKindCheckboxes.entrySet()) {
+            if (entry.getValue().isSelected()) {
+                kinds.add(entry.getKey());
+            }
+        }
+        return RelationKind.format(kinds);
     }
 
     public boolean isShowImplied() {
@@ -304,6 +591,26 @@ public class DiagramConfigPanel extends JPanel {
         return showOrphansCheckbox.isSelected();
     }
 
+    public int getMinDegree() {
+        return (Integer) minDegreeSpinner.getValue();
+    }
+
+    public int getMaxDegree() {
+        return (Integer) maxDegreeSpinner.getValue();
+    }
+
+    public int getTopNodes() {
+        return (Integer) topNodesSpinner.getValue();
+    }
+
+    public int getMaxEdges() {
+        return (Integer) maxEdgesSpinner.getValue();
+    }
+
+    public int getMinEdgeWeight() {
+        return (Integer) minEdgeWeightSpinner.getValue();
+    }
+
     public boolean isShowLabels() {
         return showLabelsCheckbox.isSelected();
     }
@@ -312,7 +619,23 @@ public class DiagramConfigPanel extends JPanel {
         return showLegendCheckbox.isSelected();
     }
 
+    public boolean isPrecomputeLayout() {
+        return precomputeLayoutCheckbox.isSelected();
+    }
+
     // Setters for loading saved settings
+    public void setSource(String value) {
+        sourceCombo.setSelectedItem(value);
+    }
+
+    public void setHops(int value) {
+        hopsSpinner.setValue(value);
+    }
+
+    public void setNodeBudget(int value) {
+        nodeBudgetSpinner.setValue(value);
+    }
+
     public void setRecursive(boolean value) {
         recursiveCheckbox.setSelected(value);
     }
@@ -325,8 +648,23 @@ public class DiagramConfigPanel extends JPanel {
         includeSubtypesCheckbox.setSelected(value);
     }
 
+    public void setGroupBy(String value) {
+        groupByCombo.setSelectedItem(value);
+    }
+
+    public void setGroupLevel(int value) {
+        groupLevelSpinner.setValue(value);
+    }
+
+    public void setGroupThreshold(int value) {
+        groupThresholdSpinner.setValue(value);
+    }
+
     public void setRelationCriteria(String value) {
-        relationCriteriaCombo.setSelectedItem(value);
+        EnumSet<RelationKind> kinds = RelationKind.parse(value);
+        for (Map.Entry<RelationKind, JCheckBox> entry : relationKindCheckboxes.entrySet()) {
+            entry.getValue().setSelected(kinds.contains(entry.getKey()));
+        }
     }
 
     public void setShowImplied(boolean value) {
@@ -341,6 +679,37 @@ public class DiagramConfigPanel extends JPanel {
         showOrphansCheckbox.setSelected(value);
     }
 
+    public void setMinDegree(int value) {
+        minDegreeSpinner.setValue(value);
+    }
+
+    public void setMaxDegree(int value) {
+        maxDegreeSpinner.setValue(value);
+    }
+
+    public void setTopNodes(int value) {
+        topNodesSpinner.setValue(value);
+    }
+
+    public void setMaxEdges(int value) {
+        maxEdgesSpinner.setValue(value);
+    }
+
+    public void setMinEdgeWeight(int value) {
+        minEdgeWeightSpinner.setValue(value);
+    }
+
+    /**
+     * Show how many ribbons and elements the last refresh hid by degree filtering and pruning.
+     */
+    public void setPruningStatus(int droppedEdges, int droppedNodes) {
+        if (droppedEdges == 0 && droppedNodes == 0) {
+            pruningStatusLabel.setText(" ");
+        } else {
+            pruningStatusLabel.setText(String.format("Hidden: %,d ribbons, %,d elements", droppedEdges, droppedNodes));
+        }
+    }
+
     public void setShowLabels(boolean value) {
         showLabelsCheckbox.setSelected(value);
     }
@@ -349,7 +718,142 @@ public class DiagramConfigPanel extends JPanel {
         showLegendCheckbox.setSelected(value);
     }
 
+    public void setPrecomputeLayout(boolean value) {
+        precomputeLayoutCheckbox.setSelected(value);
+    }
+
+    public boolean isFocusOnClick() {
+        return focusOnClickCheckbox.isSelected();
+    }
+
+    public int getFocusHops() {
+        return (Integer) focusHopsSpinner.getValue();
+    }
+
+    public void setFocusOnClick(boolean value) {
+        focusOnClickCheckbox.setSelected(value);
+    }
+
+    public void setFocusHops(int value) {
+        focusHopsSpinner.setValue(value);
+    }
+
+    /**
+     * Show the focus breadcrumbs: "All" followed by the focused elements, oldest first.
+     * Selecting a crumb calls {@code onSelect} with its position in {@code names},
+     * or -1 for "All". An empty list hides the trail.
+     */
+    public void setFocusTrail(List<String> names, IntConsumer onSelect) {
+        focusTrailPanel.removeAll();
+        if (!names.isEmpty()) {
+            focusTrailPanel.add(createCrumb("All", () -> onSelect.accept(-1), true));
+            for (int i = 0; i < names.size(); i++) {
+                int position = i;
+                focusTrailPanel.add(new JLabel("\u203a"));
+                focusTrailPanel.add(createCrumb(names.get(i), () -> onSelect.accept(position), i < names.size() - 1));
+            }
+        }
+        focusTrailPanel.revalidate();
+        focusTrailPanel.repaint();
+    }
+
+    private static JComponent createCrumb(String name, Runnable onSelect, boolean enabled) {
+        String text = name.length() > 24 ? name.substring(0, 21) + "..." : name;
+        if (!enabled) {
+            JLabel current = new JLabel(text);
+            current.setToolTipText(name);
+            return current;
+        }
+        JButton crumb = new JButton(text);
+        crumb.setToolTipText(name);
+        crumb.setBorderPainted(false);
+        crumb.setContentAreaFilled(false);
+        crumb.setMargin(new Insets(0, 0, 0, 0));
+        crumb.setForeground(Color.BLUE.darker());
+        crumb.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        crumb.addActionListener(e -> onSelect.run());
+        return crumb;
+    }
+
+    /**
+     * Snapshot of the current filter and display values (context not included).
+     */
+    public DiagramSettings getSettings() {
+        DiagramSettings settings = new DiagramSettings();
+        settings.setSource(getSource());
+        settings.setSeedElementId(seedElementId);
+        settings.setHops(getHops());
+        settings.setNodeBudget(getNodeBudget());
+        settings.setRecursive(isRecursive());
+        settings.setElementType(getElementType());
+        settings.setIncludeSubtypes(isIncludeSubtypes());
+        settings.setGroupBy(getGroupBy());
+        settings.setGroupLevel(getGroupLevel());
+        settings.setGroupThreshold(getGroupThreshold());
+        settings.setRelationCriteria(getRelationCriteria());
+        settings.setShowImplied(isShowImplied());
+        settings.setDepth(getDepth());
+        settings.setShowOrphans(isShowOrphans());
+        settings.setMinDegree(getMinDegree());
+        settings.setMaxDegree(getMaxDegree());
+        settings.setTopNodes(getTopNodes());
+        settings.setMaxEdges(getMaxEdges());
+        settings.setMinEdgeWeight(getMinEdgeWeight());
+        settings.setShowLabels(isShowLabels());
+        settings.setShowLegend(isShowLegend());
+        settings.setPrecomputeLayout(isPrecomputeLayout());
+        settings.setFocusOnClick(isFocusOnClick());
+        settings.setFocusHops(getFocusHops());
+        return settings;
+    }
+
+    /**
+     * Apply loaded filter and display values (context not included).
+     */
+    public void applySettings(DiagramSettings settings) {
+        setSource(settings.getSource());
+        seedElementId = settings.getSeedElementId();
+        setHops(settings.getHops());
+        setNodeBudget(settings.getNodeBudget());
+        setRecursive(settings.isRecursive());
+        setElementType(settings.getElementType());
+        setIncludeSubtypes(settings.isIncludeSubtypes());
+        setGroupBy(settings.getGroupBy());
+        setGroupLevel(settings.getGroupLevel());
+        setGroupThreshold(settings.getGroupThreshold());
+        setRelationCriteria(settings.getRelationCriteria());
+        setShowImplied(settings.isShowImplied());
+        setDepth(settings.getDepth());
+        setShowOrphans(settings.isShowOrphans());
+        setMinDegree(settings.getMinDegree());
+        setMaxDegree(settings.getMaxDegree());
+        setTopNodes(settings.getTopNodes());
+        setMaxEdges(settings.getMaxEdges());
+        setMinEdgeWeight(settings.getMinEdgeWeight());
+        setShowLabels(settings.isShowLabels());
+        setShowLegend(settings.isShowLegend());
+        setPrecomputeLayout(settings.isPrecomputeLayout());
+        setFocusOnClick(settings.isFocusOnClick());
+        setFocusHops(settings.getFocusHops());
+    }
+
     public void addRefreshListener(ActionListener listener) {
         refreshButton.addActionListener(listener);
     }
+
+    /**
+     * Listen for focus hop changes, which are applied to the current focus without a refresh.
+     */
+    public void addFocusHopsListener(ChangeListener listener) {
+        focusHopsSpinner.addChangeListener(listener);
+    }
+
+    /**
+     * Listen for relation kind toggles, which can be applied without re-reading the model.
+     */
+    public void addRelationCriteriaListener(ActionListener listener) {
+        for (JCheckBox checkbox : relationKindCheckboxes.values()) {
+            checkbox.addActionListener(listener);
+        }
+    }
 }
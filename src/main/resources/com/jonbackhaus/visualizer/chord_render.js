@@ -39,17 +39,250 @@ function navigateToRelationship(sourceIndex, targetIndex) {
     }
 }
 
+/**
+ * Ask Java to replace a group with its members.
+ */
+function expandGroup(index) {
+    if (window.javaNavigation && typeof window.javaNavigation.expandGroup === 'function') {
+        console.log('Expanding group index: ' + index);
+        window.javaNavigation.expandGroup(index);
+    } else {
+        console.log('Java navigation bridge not available');
+    }
+}
+
+/**
+ * One tooltip for arcs, labels, ribbons and legend rows. Details come from
+ * javaNavigation the first time an item is hovered and are cached until the next
+ * update; without the bridge the names shipped with the data are shown.
+ */
+const tooltip = {
+    element: null,
+    names: [],
+    cache: new Map()
+};
+
+function resetTooltip(container, names) {
+    const element = document.createElement('div');
+    element.className = 'chord-tooltip';
+    container.appendChild(element);
+    tooltip.element = element;
+    tooltip.names = names;
+    tooltip.cache.clear();
+}
+
+function lookup(key, fetch, fallback) {
+    let text = tooltip.cache.get(key);
+    if (text === undefined) {
+        text = (window.javaNavigation && fetch()) || fallback;
+        tooltip.cache.set(key, text);
+    }
+    return text;
+}
+
+function describeElement(index) {
+    return lookup('e' + index,
+        () => typeof window.javaNavigation.describeElement === 'function' && window.javaNavigation.describeElement(index),
+        tooltip.names[index]);
+}
+
+function describeRelationship(source, target) {
+    return lookup('r' + source + ',' + target,
+        () => typeof window.javaNavigation.describeRelationship === 'function' &&
+            window.javaNavigation.describeRelationship(source, target),
+        tooltip.names[source] + ' \u2194 ' + tooltip.names[target]);
+}
+
+/**
+ * Show the tooltip next to the pointer; text is only built when it is shown.
+ */
+function showTooltip(event, text) {
+    const element = tooltip.element;
+    if (!element) return;
+    const bounds = element.parentNode.getBoundingClientRect();
+    element.textContent = text;
+    element.style.left = (event.clientX - bounds.left + 12) + 'px';
+    element.style.top = (event.clientY - bounds.top + 12) + 'px';
+    element.style.display = 'block';
+}
+
+function hideTooltip() {
+    if (tooltip.element) tooltip.element.style.display = 'none';
+}
+
+const LEGEND_ROW_HEIGHT = 20;
+// Minimum distance between two arc labels along the label circle, in pixels
+const LABEL_SPACING_PX = 12;
+
+/**
+ * Choose which groups get a permanent label.
+ * Heavier groups claim space first; a label is kept only if no already kept
+ * label lies within LABEL_SPACING_PX along the circle. The circle is split into
+ * slots at least that wide, so each candidate only checks its own and adjacent slots.
+ * @returns {Array<boolean>} labeled flag per group index
+ */
+function selectLabels(groups, labelRadius) {
+    const tau = 2 * Math.PI;
+    const minSeparation = LABEL_SPACING_PX / labelRadius;
+    const slotCount = Math.max(1, Math.floor(tau / minSeparation));
+    const slots = new Array(slotCount);
+    const labeled = new Array(groups.length).fill(false);
+
+    const byWeight = groups.slice().sort((a, b) => b.value - a.value);
+    for (const g of byWeight) {
+        const angle = (g.startAngle + g.endAngle) / 2;
+        const slot = Math.floor(angle / tau * slotCount) % slotCount;
+        if (slots[slot] !== undefined) continue;
+
+        let free = true;
+        for (const offset of [-1, 1]) {
+            const other = slots[(slot + offset + slotCount) % slotCount];
+            if (other === undefined) continue;
+            const distance = Math.abs(other - angle);
+            if (Math.min(distance, tau - distance) < minSeparation) {
+                free = false;
+                break;
+            }
+        }
+        if (free) {
+            slots[slot] = angle;
+            labeled[g.index] = true;
+        }
+    }
+    return labeled;
+}
+
+/**
+ * Create a scrollable legend that only materializes the rows in view.
+ * A lowercase copy of the names is built once so filtering is a plain substring scan.
+ */
+function createLegend(container, names, legendWidth) {
+    const lowerNames = names.map(name => name.toLowerCase());
+    let visible = names.map((name, i) => i);
+
+    const legend = document.createElement('div');
+    legend.className = 'legend';
+    legend.style.width = legendWidth + 'px';
+
+    const title = document.createElement('div');
+    title.className = 'legend-title';
+    legend.appendChild(title);
+
+    const filter = document.createElement('input');
+    filter.type = 'search';
+    filter.className = 'legend-filter';
+    filter.placeholder = 'Filter...';
+    legend.appendChild(filter);
+
+    const viewport = document.createElement('div');
+    viewport.className = 'legend-viewport';
+    const spacer = document.createElement('div');
+    const rows = document.createElement('div');
+    rows.className = 'legend-rows';
+    viewport.appendChild(spacer);
+    viewport.appendChild(rows);
+    legend.appendChild(viewport);
+    container.appendChild(legend);
+
+    function renderRows() {
+        const first = Math.floor(viewport.scrollTop / LEGEND_ROW_HEIGHT);
+        const count = Math.ceil(viewport.clientHeight / LEGEND_ROW_HEIGHT) + 1;
+        const last = Math.min(visible.length, first + count);
+
+        const fragment = document.createDocumentFragment();
+        for (let k = first; k < last; k++) {
+            const index = visible[k];
+            const row = document.createElement('div');
+            row.className = 'legend-row';
+            row.dataset.index = index;
+
+            const swatch = document.createElement('span');
+            swatch.className = 'legend-swatch';
+            swatch.style.background = color(index);
+            swatch.style.borderColor = d3.rgb(color(index)).darker();
+            row.appendChild(swatch);
+            row.appendChild(document.createTextNode(
+                names[index].length > 25 ? names[index].substring(0, 22) + '...' : names[index]));
+            fragment.appendChild(row);
+        }
+        rows.style.transform = `translateY(${first * LEGEND_ROW_HEIGHT}px)`;
+        rows.replaceChildren(fragment);
+    }
+
+    function applyFilter() {
+        const query = filter.value.trim().toLowerCase();
+        visible = [];
+        for (let i = 0; i < lowerNames.length; i++) {
+            if (!query || lowerNames[i].includes(query)) visible.push(i);
+        }
+        title.textContent = query
+            ? `Legend (${visible.length} of ${names.length})`
+            : `Legend (${names.length})`;
+        spacer.style.height = (visible.length * LEGEND_ROW_HEIGHT) + 'px';
+        viewport.scrollTop = 0;
+        renderRows();
+    }
+
+    let framePending = false;
+    viewport.addEventListener('scroll', () => {
+        if (framePending) return;
+        framePending = true;
+        requestAnimationFrame(() => {
+            framePending = false;
+            renderRows();
+        });
+    });
+    filter.addEventListener('input', applyFilter);
+    // One listener for all rows, since rows are recreated while scrolling
+    rows.addEventListener('click', event => {
+        const row = event.target.closest('.legend-row');
+        if (row) navigateToElement(Number(row.dataset.index));
+    });
+    rows.addEventListener('mousemove', event => {
+        const row = event.target.closest('.legend-row');
+        if (row) {
+            showTooltip(event, describeElement(Number(row.dataset.index)) + '\nClick to navigate');
+        } else {
+            hideTooltip();
+        }
+    });
+    rows.addEventListener('mouseleave', hideTooltip);
+
+    applyFilter();
+}
+
+/**
+ * Rebuild d3.chord()-shaped output from the flat layout computed in Java.
+ * Groups are [index, startAngle, endAngle, value] quadruples; each chord is
+ * a source quadruple followed by a target quadruple.
+ */
+function chordsFromLayout(layout) {
+    const segment = (a, i) => ({ index: a[i], startAngle: a[i + 1], endAngle: a[i + 2], value: a[i + 3] });
+
+    const chords = [];
+    for (let i = 0; i < layout.chords.length; i += 8) {
+        chords.push({ source: segment(layout.chords, i), target: segment(layout.chords, i + 4) });
+    }
+    chords.groups = [];
+    for (let i = 0; i < layout.groups.length; i += 4) {
+        chords.groups.push(segment(layout.groups, i));
+    }
+    return chords;
+}
+
 /**
  * Updates the diagram with new data.
- * @param {Object} data - Adjacency matrix and labels.
- * @param {Array<Array<number>>} data.matrix - Square Adjacency Matrix.
+ * @param {Object} data - Adjacency matrix or precomputed layout, and labels.
+ * @param {Array<Array<number>>} [data.matrix] - Square Adjacency Matrix, laid out in the page.
+ * @param {Object} [data.layout] - Finished chord geometry; takes precedence over the matrix.
  * @param {Array<string>} data.names - Labels for each index.
  * @param {Object} data.options - Display options.
  * @param {boolean} data.options.showLabels - Whether to show labels around arcs.
  * @param {boolean} data.options.showLegend - Whether to show the legend.
  */
 window.updateDiagram = function(data) {
-    console.log('updateDiagram called with data:', JSON.stringify(data).substring(0, 200) + '...');
+    // Counts only: serializing the payload to log it would cost more than rendering it
+    console.log('updateDiagram called with ' + (data && data.names ? data.names.length : 0) + ' elements');
 
     try {
         // Validate D3 is available
@@ -57,22 +290,28 @@ window.updateDiagram = function(data) {
             throw new Error('D3.js is not available');
         }
 
-        const { matrix, names, options = {} } = data;
+        const { matrix, layout, names, groups = [], options = {} } = data;
         const showLabels = options.showLabels !== false; // Default true
         const showLegend = options.showLegend === true;  // Default false
 
         // Validate data
-        if (!matrix || !Array.isArray(matrix)) {
-            throw new Error('Invalid matrix data: ' + typeof matrix);
-        }
         if (!names || !Array.isArray(names)) {
             throw new Error('Invalid names data: ' + typeof names);
         }
-        if (matrix.length === 0) {
-            throw new Error('Matrix is empty');
+        if (layout) {
+            if (layout.groups.length / 4 !== names.length) {
+                throw new Error('Layout size (' + layout.groups.length / 4 + ') does not match names length (' + names.length + ')');
+            }
+        } else {
+            if (!matrix || !Array.isArray(matrix)) {
+                throw new Error('Invalid matrix data: ' + typeof matrix);
+            }
+            if (matrix.length !== names.length) {
+                throw new Error('Matrix size (' + matrix.length + ') does not match names length (' + names.length + ')');
+            }
         }
-        if (matrix.length !== names.length) {
-            throw new Error('Matrix size (' + matrix.length + ') does not match names length (' + names.length + ')');
+        if (names.length === 0) {
+            throw new Error('Matrix is empty');
         }
 
         console.log('Data validated: ' + names.length + ' elements, showLabels=' + showLabels + ', showLegend=' + showLegend);
@@ -80,6 +319,7 @@ window.updateDiagram = function(data) {
         // Clear the chart div completely (removes loading message)
         const chartDiv = document.getElementById('chart');
         chartDiv.innerHTML = '';
+        resetTooltip(chartDiv, names);
 
         // Calculate dimensions
         const width = chartDiv.clientWidth || window.innerWidth;
@@ -90,11 +330,6 @@ window.updateDiagram = function(data) {
         const outerRadius = Math.min(diagramWidth, height) * 0.5 - labelPadding;
         const innerRadius = outerRadius - 30;
 
-        // Create chord layout
-        const chord = d3.chord()
-            .padAngle(0.05)
-            .sortSubgroups(d3.descending);
-
         const arc = d3.arc()
             .innerRadius(innerRadius)
             .outerRadius(outerRadius);
@@ -112,10 +347,14 @@ window.updateDiagram = function(data) {
         const diagramG = svg.append("g")
             .attr("transform", `translate(${diagramWidth / 2}, ${height / 2})`);
 
-        const chords = chord(matrix);
+        // Use the precomputed layout when provided, otherwise lay out in the page
+        const chords = layout
+            ? chordsFromLayout(layout)
+            : d3.chord().padAngle(0.05).sortSubgroups(d3.descending)(matrix);
         console.log('Chords computed: ' + chords.length + ' chords, ' + chords.groups.length + ' groups');
 
-        // Draw arc groups
+        // Draw arc groups; aggregated groups expand on double-click
+        const groupSet = new Set(groups);
         const group = diagramG.append("g")
           .selectAll("g")
           .data(chords.groups)
@@ -128,31 +367,70 @@ window.updateDiagram = function(data) {
             .style("cursor", "pointer")
             .on("click", function(event, d) {
                 navigateToElement(d.index);
+            })
+            .on("dblclick", function(event, d) {
+                if (groupSet.has(d.index)) expandGroup(d.index);
+            })
+            .on("mouseenter", function(event, d) {
+                if (hoverLabel && !labeled[d.index]) showHoverLabel(d);
+            })
+            .on("mousemove", function(event, d) {
+                showTooltip(event, `${describeElement(d.index)}\n${d.value} connections\nClick to navigate` +
+                    (groupSet.has(d.index) ? ', double-click to expand' : ''));
+            })
+            .on("mouseleave", function() {
+                if (hoverLabel) hoverLabel.style("display", "none");
+                hideTooltip();
             });
 
-        group.append("title")
-            .text(d => `${names[d.index]}: ${d.value} connections\nClick to navigate`);
+        // Add labels around the arcs (if enabled). Only labels that fit get a
+        // text node; the rest share one hover label, so DOM size stays bounded.
+        const labelRadius = outerRadius + 10;
+        const labelTransform = d => {
+            const angle = (d.startAngle + d.endAngle) / 2;
+            return `rotate(${(angle * 180 / Math.PI - 90)}) translate(${labelRadius}) ${angle > Math.PI ? "rotate(180)" : ""}`;
+        };
+        const labelAnchor = d => (d.startAngle + d.endAngle) / 2 > Math.PI ? "end" : "start";
+        const labelText = d => names[d.index].length > 20 ? names[d.index].substring(0, 17) + '...' : names[d.index];
+
+        const labeled = showLabels ? selectLabels(chords.groups, labelRadius) : [];
+        let hoverLabel = null;
+        const showHoverLabel = d => {
+            hoverLabel
+                .attr("transform", labelTransform(d))
+                .attr("text-anchor", labelAnchor(d))
+                .text(labelText(d))
+                .style("display", null);
+        };
 
-        // Add labels around the arcs (if enabled)
         if (showLabels) {
-            group.append("text")
-                .each(d => { d.angle = (d.startAngle + d.endAngle) / 2; })
+            console.log('Labels shown: ' + labeled.filter(Boolean).length + ' of ' + names.length);
+            group.filter(d => labeled[d.index])
+              .append("text")
                 .attr("dy", "0.35em")
-                .attr("transform", d => `
-                    rotate(${(d.angle * 180 / Math.PI - 90)})
-                    translate(${outerRadius + 10})
-                    ${d.angle > Math.PI ? "rotate(180)" : ""}
-                `)
-                .attr("text-anchor", d => d.angle > Math.PI ? "end" : "start")
-                .text(d => names[d.index].length > 20 ? names[d.index].substring(0, 17) + '...' : names[d.index])
+                .attr("transform", labelTransform)
+                .attr("text-anchor", labelAnchor)
+                .text(labelText)
                 .style("font-size", "11px")
                 .style("fill", "#333")
                 .style("cursor", "pointer")
                 .on("click", function(event, d) {
                     navigateToElement(d.index);
                 })
-              .append("title")
-                .text(d => `${names[d.index]}\nClick to navigate`);
+                .on("mousemove", function(event, d) {
+                    showTooltip(event, `${describeElement(d.index)}\nClick to navigate`);
+                })
+                .on("mouseleave", hideTooltip);
+        }
+
+        if (showLabels && labeled.some(l => !l)) {
+            hoverLabel = diagramG.append("text")
+                .attr("dy", "0.35em")
+                .style("font-size", "11px")
+                .style("font-weight", "bold")
+                .style("fill", "#333")
+                .style("pointer-events", "none")
+                .style("display", "none");
         }
 
         // Draw ribbons (chords)
@@ -169,46 +447,15 @@ window.updateDiagram = function(data) {
                 // Navigate to the relationship itself
                 navigateToRelationship(d.source.index, d.target.index);
             })
-          .append("title")
-            .text(d => `${names[d.source.index]} \u2194 ${names[d.target.index]}: ${d.source.value}\nClick to navigate to relationship`);
+            .on("mousemove", function(event, d) {
+                showTooltip(event, `${describeRelationship(d.source.index, d.target.index)}\n` +
+                    `Weight: ${d.source.value}\nClick to navigate to relationship`);
+            })
+            .on("mouseleave", hideTooltip);
 
         // Create legend (if enabled)
         if (showLegend) {
-            const legend = svg.append("g")
-                .attr("transform", `translate(${diagramWidth + 20}, 30)`);
-
-            legend.append("text")
-                .attr("x", 0)
-                .attr("y", 0)
-                .style("font-weight", "bold")
-                .style("font-size", "12px")
-                .text("Legend");
-
-            const legendItems = legend.selectAll(".legend-item")
-                .data(names)
-                .join("g")
-                .attr("class", "legend-item")
-                .attr("transform", (d, i) => `translate(0, ${20 + i * 20})`)
-                .style("cursor", "pointer")
-                .on("click", function(event, d) {
-                    const index = names.indexOf(d);
-                    navigateToElement(index);
-                });
-
-            legendItems.append("rect")
-                .attr("width", 14)
-                .attr("height", 14)
-                .attr("fill", (d, i) => color(i))
-                .attr("stroke", (d, i) => d3.rgb(color(i)).darker());
-
-            legendItems.append("text")
-                .attr("x", 20)
-                .attr("y", 11)
-                .style("font-size", "11px")
-                .text(d => d.length > 25 ? d.substring(0, 22) + '...' : d);
-
-            legendItems.append("title")
-                .text(d => d + '\nClick to navigate');
+            createLegend(chartDiv, names, legendWidth);
         }
 
         console.log('Diagram rendered successfully');
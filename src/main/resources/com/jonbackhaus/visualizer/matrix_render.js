@@ -0,0 +1,626 @@
+/**
+ * Canvas Adjacency Matrix Renderer
+ *
+ * The matrix is drawn in TILE_SIZE tiles that are cached until the zoom or the
+ * row order changes, so panning only renders newly exposed tiles. When cells get
+ * smaller than a pixel, a coarser level of detail is drawn instead: level L sums
+ * 2^L x 2^L cells into one block. Only non-zero cells are ever visited.
+ */
+
+const TILE_SIZE = 256;
+const MAX_CACHED_TILES = 256;
+// Tiles rendered per animation frame are capped; the rest follow in later frames
+const FRAME_BUDGET_MS = 12;
+const LABEL_MARGIN = 140;
+const MIN_LABEL_CELL_PX = 10;
+const ZOOM_STEP = 1.25;
+const MAX_CELL_PX = 40;
+const CLICK_TOLERANCE_PX = 3;
+
+// Sequential blues, light to dark
+const PALETTE = (function() {
+    const from = [222, 235, 247];
+    const to = [8, 48, 107];
+    const colors = [];
+    for (let i = 0; i < 64; i++) {
+        const t = i / 63;
+        colors.push('rgb(' + from.map((c, k) => Math.round(c + (to[k] - c) * t)).join(',') + ')');
+    }
+    return colors;
+})();
+
+const matrix = {
+    n: 0,
+    names: [],
+    owners: null,
+    ownerNames: [],
+    rows: null,
+    columns: null,
+    weights: null,
+    cellWeights: null,
+    groups: new Set(),
+    showLabels: true,
+    ordering: 'model',
+    order: null,      // position -> node
+    position: null,   // node -> position
+    boundaries: [],   // positions where the owner package changes
+    levels: [],
+    tiles: new Map(),
+    zoom: 0,
+    fitCellPx: 1,
+    cellPx: 1,
+    offsetX: 0,
+    offsetY: 0,
+    canvas: null,
+    ctx: null,
+    tooltip: null,
+    status: null,
+    drawPending: false
+};
+
+/**
+ * Navigate to an element in MagicDraw's containment tree.
+ */
+function navigateToElement(index) {
+    if (window.javaNavigation && typeof window.javaNavigation.selectElement === 'function') {
+        console.log('Navigating to element index: ' + index);
+        window.javaNavigation.selectElement(index);
+    } else {
+        console.log('Java navigation bridge not available');
+    }
+}
+
+/**
+ * Navigate to a relationship in MagicDraw's containment tree.
+ */
+function navigateToRelationship(sourceIndex, targetIndex) {
+    if (window.javaNavigation && typeof window.javaNavigation.selectRelationship === 'function') {
+        console.log('Navigating to relationship: ' + sourceIndex + ' -> ' + targetIndex);
+        window.javaNavigation.selectRelationship(sourceIndex, targetIndex);
+    } else {
+        console.log('Java navigation bridge not available');
+    }
+}
+
+/**
+ * Ask Java to replace a group with its members.
+ */
+function expandGroup(index) {
+    if (window.javaNavigation && typeof window.javaNavigation.expandGroup === 'function') {
+        console.log('Expanding group index: ' + index);
+        window.javaNavigation.expandGroup(index);
+    } else {
+        console.log('Java navigation bridge not available');
+    }
+}
+
+function margin() {
+    return matrix.showLabels ? LABEL_MARGIN : 0;
+}
+
+/**
+ * Set the row/column order and drop everything derived from it.
+ */
+function applyOrdering(ordering) {
+    const n = matrix.n;
+    const order = new Int32Array(n);
+    for (let i = 0; i < n; i++) order[i] = i;
+    if (ordering === 'owner') {
+        const ownerNames = matrix.ownerNames;
+        const owners = matrix.owners;
+        Array.prototype.sort.call(order, (a, b) => {
+            const oa = ownerNames[owners[a]];
+            const ob = ownerNames[owners[b]];
+            return oa < ob ? -1 : oa > ob ? 1 : a - b;
+        });
+    }
+
+    const position = new Int32Array(n);
+    for (let p = 0; p < n; p++) position[order[p]] = p;
+
+    const boundaries = [];
+    if (ordering === 'owner') {
+        for (let p = 1; p < n; p++) {
+            if (matrix.owners[order[p]] !== matrix.owners[order[p - 1]]) boundaries.push(p);
+        }
+    }
+
+    matrix.ordering = ordering;
+    matrix.order = order;
+    matrix.position = position;
+    matrix.boundaries = boundaries;
+    matrix.levels = [];
+    matrix.tiles.clear();
+}
+
+/**
+ * Aggregated blocks of one level of detail, built in one pass over the cells.
+ * Rows hold their non-empty block columns sorted, so a tile can binary-search its range.
+ */
+function getLevel(level) {
+    if (matrix.levels[level]) return matrix.levels[level];
+
+    const byRow = new Map();
+    const position = matrix.position;
+    for (let e = 0; e < matrix.weights.length; e++) {
+        const r = position[matrix.rows[e]] >> level;
+        const c = position[matrix.columns[e]] >> level;
+        let blocks = byRow.get(r);
+        if (!blocks) {
+            blocks = new Map();
+            byRow.set(r, blocks);
+        }
+        blocks.set(c, (blocks.get(c) || 0) + matrix.weights[e]);
+    }
+
+    const rows = new Map();
+    let max = 0;
+    byRow.forEach((blocks, r) => {
+        const cols = Int32Array.from(blocks.keys()).sort();
+        const weights = new Float64Array(cols.length);
+        for (let i = 0; i < cols.length; i++) {
+            weights[i] = blocks.get(cols[i]);
+            if (weights[i] > max) max = weights[i];
+        }
+        rows.set(r, { cols, weights });
+    });
+
+    matrix.levels[level] = { rows, logMax: Math.log1p(max) };
+    return matrix.levels[level];
+}
+
+function currentLevel() {
+    return matrix.cellPx >= 1 ? 0 : Math.ceil(Math.log2(1 / matrix.cellPx));
+}
+
+function lowerBound(values, target) {
+    let lo = 0;
+    let hi = values.length;
+    while (lo < hi) {
+        const mid = (lo + hi) >> 1;
+        if (values[mid] < target) lo = mid + 1; else hi = mid;
+    }
+    return lo;
+}
+
+function renderTile(level, tx, ty) {
+    const tile = document.createElement('canvas');
+    tile.width = TILE_SIZE;
+    tile.height = TILE_SIZE;
+    const ctx = tile.getContext('2d');
+
+    const lod = getLevel(level);
+    const blockPx = matrix.cellPx * (1 << level);
+    const gap = blockPx >= 4 ? 1 : 0;
+    const x0 = tx * TILE_SIZE;
+    const y0 = ty * TILE_SIZE;
+    const firstCol = Math.floor(x0 / blockPx);
+    const lastCol = Math.floor((x0 + TILE_SIZE) / blockPx);
+    const firstRow = Math.floor(y0 / blockPx);
+    const lastRow = Math.floor((y0 + TILE_SIZE) / blockPx);
+    const size = Math.max(1, blockPx - gap);
+
+    for (let r = firstRow; r <= lastRow; r++) {
+        const blocks = lod.rows.get(r);
+        if (!blocks) continue;
+        for (let i = lowerBound(blocks.cols, firstCol); i < blocks.cols.length && blocks.cols[i] <= lastCol; i++) {
+            const t = lod.logMax > 0 ? Math.log1p(blocks.weights[i]) / lod.logMax : 1;
+            ctx.fillStyle = PALETTE[Math.min(PALETTE.length - 1, Math.floor(t * PALETTE.length))];
+            ctx.fillRect(blocks.cols[i] * blockPx - x0, r * blockPx - y0, size, size);
+        }
+    }
+    return tile;
+}
+
+function scheduleDraw() {
+    if (matrix.drawPending) return;
+    matrix.drawPending = true;
+    requestAnimationFrame(draw);
+}
+
+function draw() {
+    matrix.drawPending = false;
+    const canvas = matrix.canvas;
+    if (!canvas) return;
+    const ctx = matrix.ctx;
+    const m = margin();
+    const viewWidth = canvas.width - m;
+    const viewHeight = canvas.height - m;
+    const extent = matrix.n * matrix.cellPx;
+
+    ctx.clearRect(0, 0, canvas.width, canvas.height);
+    ctx.fillStyle = '#fff';
+    ctx.fillRect(m, m, Math.min(viewWidth, extent - matrix.offsetX), Math.min(viewHeight, extent - matrix.offsetY));
+
+    // Tiles
+    ctx.save();
+    ctx.beginPath();
+    ctx.rect(m, m, viewWidth, viewHeight);
+    ctx.clip();
+
+    const level = currentLevel();
+    const lastTile = Math.floor((extent - 1) / TILE_SIZE);
+    const txStart = Math.floor(matrix.offsetX / TILE_SIZE);
+    const txEnd = Math.min(lastTile, Math.floor((matrix.offsetX + viewWidth) / TILE_SIZE));
+    const tyStart = Math.floor(matrix.offsetY / TILE_SIZE);
+    const tyEnd = Math.min(lastTile, Math.floor((matrix.offsetY + viewHeight) / TILE_SIZE));
+    const start = performance.now();
+    let incomplete = false;
+
+    for (let ty = tyStart; ty <= tyEnd; ty++) {
+        for (let tx = txStart; tx <= txEnd; tx++) {
+            const key = matrix.zoom + ':' + tx + ':' + ty;
+            let tile = matrix.tiles.get(key);
+            if (tile) {
+                // Refresh LRU position
+                matrix.tiles.delete(key);
+                matrix.tiles.set(key, tile);
+            } else if (performance.now() - start < FRAME_BUDGET_MS) {
+                tile = renderTile(level, tx, ty);
+                matrix.tiles.set(key, tile);
+                if (matrix.tiles.size > MAX_CACHED_TILES) {
+                    matrix.tiles.delete(matrix.tiles.keys().next().value);
+                }
+            } else {
+                incomplete = true;
+                continue;
+            }
+            ctx.drawImage(tile, m + tx * TILE_SIZE - matrix.offsetX, m + ty * TILE_SIZE - matrix.offsetY);
+        }
+    }
+
+    // Owner package separators
+    if (matrix.boundaries.length > 0) {
+        ctx.strokeStyle = '#999';
+        ctx.lineWidth = 1;
+        ctx.beginPath();
+        for (const p of matrix.boundaries) {
+            const at = p * matrix.cellPx;
+            if (at >= matrix.offsetX && at <= matrix.offsetX + viewWidth) {
+                const x = Math.round(m + at - matrix.offsetX) + 0.5;
+                ctx.moveTo(x, m);
+                ctx.lineTo(x, m + Math.min(viewHeight, extent - matrix.offsetY));
+            }
+            if (at >= matrix.offsetY && at <= matrix.offsetY + viewHeight) {
+                const y = Math.round(m + at - matrix.offsetY) + 0.5;
+                ctx.moveTo(m, y);
+                ctx.lineTo(m + Math.min(viewWidth, extent - matrix.offsetX), y);
+            }
+        }
+        ctx.stroke();
+    }
+    ctx.restore();
+
+    drawLabels(viewWidth, viewHeight);
+    updateStatus();
+
+    if (incomplete) scheduleDraw();
+}
+
+/**
+ * Row and column names of the visible positions, once cells are large enough to read.
+ */
+function drawLabels(viewWidth, viewHeight) {
+    if (!matrix.showLabels || matrix.cellPx < MIN_LABEL_CELL_PX) return;
+    const ctx = matrix.ctx;
+    const m = LABEL_MARGIN;
+    const cellPx = matrix.cellPx;
+    const first = Math.floor(Math.min(matrix.offsetX, matrix.offsetY) / cellPx);
+    const last = Math.min(matrix.n - 1,
+        Math.floor((Math.max(matrix.offsetX + viewWidth, matrix.offsetY + viewHeight)) / cellPx));
+
+    ctx.save();
+    ctx.fillStyle = '#333';
+    ctx.font = Math.min(12, cellPx - 2) + 'px sans-serif';
+    ctx.textBaseline = 'middle';
+    ctx.textAlign = 'right';
+    for (let p = first; p <= last; p++) {
+        const name = truncate(matrix.names[matrix.order[p]], m - 8);
+        const y = m + (p + 0.5) * cellPx - matrix.offsetY;
+        if (y > m && y < m + viewHeight) {
+            ctx.fillText(name, m - 4, y);
+        }
+        const x = m + (p + 0.5) * cellPx - matrix.offsetX;
+        if (x > m && x < m + viewWidth) {
+            ctx.save();
+            ctx.translate(x, m - 4);
+            ctx.rotate(Math.PI / 2);
+            ctx.textAlign = 'right';
+            ctx.fillText(name, 0, 0);
+            ctx.restore();
+        }
+    }
+    ctx.restore();
+}
+
+function truncate(text, maxWidth) {
+    const ctx = matrix.ctx;
+    if (ctx.measureText(text).width <= maxWidth) return text;
+    let end = text.length;
+    while (end > 1 && ctx.measureText(text.substring(0, end) + '…').width > maxWidth) end--;
+    return text.substring(0, end) + '…';
+}
+
+function updateStatus() {
+    if (!matrix.status) return;
+    const level = currentLevel();
+    matrix.status.textContent = matrix.n + ' elements, ' + matrix.weights.length + ' cells, ' +
+        Math.round(matrix.cellPx * 100) / 100 + ' px/cell' +
+        (level > 0 ? ', ' + (1 << level) + '×' + (1 << level) + ' cells per block' : '');
+}
+
+function clampOffsets() {
+    const m = margin();
+    const extent = matrix.n * matrix.cellPx;
+    const maxX = Math.max(0, extent - (matrix.canvas.width - m));
+    const maxY = Math.max(0, extent - (matrix.canvas.height - m));
+    matrix.offsetX = Math.max(0, Math.min(maxX, matrix.offsetX));
+    matrix.offsetY = Math.max(0, Math.min(maxY, matrix.offsetY));
+}
+
+/**
+ * Zoom in steps of ZOOM_STEP from the fit-to-view size, so tile cache keys stay stable.
+ */
+function setZoom(zoom, anchorX, anchorY) {
+    const m = margin();
+    const maxZoom = Math.ceil(Math.log(MAX_CELL_PX / matrix.fitCellPx) / Math.log(ZOOM_STEP));
+    zoom = Math.max(0, Math.min(Math.max(0, maxZoom), zoom));
+    if (zoom === matrix.zoom) return;
+
+    const cellPx = matrix.fitCellPx * Math.pow(ZOOM_STEP, zoom);
+    const worldX = (anchorX - m + matrix.offsetX) / matrix.cellPx;
+    const worldY = (anchorY - m + matrix.offsetY) / matrix.cellPx;
+    matrix.zoom = zoom;
+    matrix.cellPx = cellPx;
+    matrix.offsetX = worldX * cellPx - (anchorX - m);
+    matrix.offsetY = worldY * cellPx - (anchorY - m);
+    clampOffsets();
+    scheduleDraw();
+}
+
+function fitToView() {
+    const m = margin();
+    const available = Math.max(1, Math.min(matrix.canvas.width, matrix.canvas.height) - m);
+    matrix.fitCellPx = Math.min(MAX_CELL_PX, available / matrix.n);
+    matrix.cellPx = matrix.fitCellPx;
+    matrix.zoom = 0;
+    matrix.offsetX = 0;
+    matrix.offsetY = 0;
+    matrix.tiles.clear();
+    scheduleDraw();
+}
+
+function resizeCanvas() {
+    const viewport = matrix.canvas.parentNode;
+    matrix.canvas.width = viewport.clientWidth;
+    matrix.canvas.height = viewport.clientHeight;
+    fitToView();
+}
+
+/**
+ * Matrix position under a canvas point, or -1 outside the matrix.
+ */
+function positionAt(coordinate, offset) {
+    const m = margin();
+    if (coordinate < m) return -1;
+    const p = Math.floor((coordinate - m + offset) / matrix.cellPx);
+    return p < matrix.n ? p : -1;
+}
+
+function cellWeight(row, column) {
+    return matrix.cellWeights.get(row * matrix.n + column) || 0;
+}
+
+function handleClick(x, y) {
+    const m = margin();
+    const rowPos = positionAt(y, matrix.offsetY);
+    const colPos = positionAt(x, matrix.offsetX);
+    if (x < m && rowPos >= 0) {
+        navigateToElement(matrix.order[rowPos]);
+    } else if (y < m && colPos >= 0) {
+        navigateToElement(matrix.order[colPos]);
+    } else if (rowPos >= 0 && colPos >= 0) {
+        const row = matrix.order[rowPos];
+        const column = matrix.order[colPos];
+        if (cellWeight(row, column) > 0 || cellWeight(column, row) > 0) {
+            navigateToRelationship(row, column);
+        }
+    }
+}
+
+function updateTooltip(x, y) {
+    const tooltip = matrix.tooltip;
+    const rowPos = positionAt(y, matrix.offsetY);
+    const colPos = positionAt(x, matrix.offsetX);
+    const m = margin();
+    let text = null;
+    if (rowPos >= 0 && colPos >= 0) {
+        const row = matrix.order[rowPos];
+        const column = matrix.order[colPos];
+        const weight = cellWeight(row, column);
+        text = matrix.names[row] + ' → ' + matrix.names[column] + (weight > 0 ? ': ' + weight : '');
+    } else if (x < m && rowPos >= 0) {
+        text = matrix.names[matrix.order[rowPos]];
+    } else if (y < m && colPos >= 0) {
+        text = matrix.names[matrix.order[colPos]];
+    }
+
+    if (text === null) {
+        tooltip.style.display = 'none';
+        return;
+    }
+    tooltip.textContent = text;
+    tooltip.style.left = (x + 12) + 'px';
+    tooltip.style.top = (y + 12) + 'px';
+    tooltip.style.display = 'block';
+}
+
+function attachInteraction(canvas) {
+    let drag = null;
+
+    canvas.addEventListener('wheel', event => {
+        event.preventDefault();
+        setZoom(matrix.zoom + (event.deltaY < 0 ? 1 : -1), event.offsetX, event.offsetY);
+    }, { passive: false });
+
+    canvas.addEventListener('mousedown', event => {
+        drag = { x: event.offsetX, y: event.offsetY, offsetX: matrix.offsetX, offsetY: matrix.offsetY, moved: false };
+    });
+
+    canvas.addEventListener('mousemove', event => {
+        if (drag) {
+            const dx = event.offsetX - drag.x;
+            const dy = event.offsetY - drag.y;
+            if (Math.abs(dx) > CLICK_TOLERANCE_PX || Math.abs(dy) > CLICK_TOLERANCE_PX) drag.moved = true;
+            if (drag.moved) {
+                matrix.offsetX = drag.offsetX - dx;
+                matrix.offsetY = drag.offsetY - dy;
+                clampOffsets();
+                scheduleDraw();
+                matrix.tooltip.style.display = 'none';
+                return;
+            }
+        }
+        updateTooltip(event.offsetX, event.offsetY);
+    });
+
+    canvas.addEventListener('mouseup', event => {
+        if (drag && !drag.moved) handleClick(event.offsetX, event.offsetY);
+        drag = null;
+    });
+
+    // Double-clicking the label of an aggregated group expands it
+    canvas.addEventListener('dblclick', event => {
+        const m = margin();
+        const rowPos = positionAt(event.offsetY, matrix.offsetY);
+        const colPos = positionAt(event.offsetX, matrix.offsetX);
+        let index = -1;
+        if (event.offsetX < m && rowPos >= 0) index = matrix.order[rowPos];
+        else if (event.offsetY < m && colPos >= 0) index = matrix.order[colPos];
+        if (index >= 0 && matrix.groups.has(index)) expandGroup(index);
+    });
+
+    canvas.addEventListener('mouseleave', () => {
+        drag = null;
+        matrix.tooltip.style.display = 'none';
+    });
+}
+
+function createView(chartDiv) {
+    chartDiv.innerHTML = '';
+
+    const toolbar = document.createElement('div');
+    toolbar.className = 'matrix-toolbar';
+    toolbar.appendChild(document.createTextNode('Order:'));
+    const orderSelect = document.createElement('select');
+    [['model', 'Model order'], ['owner', 'Owner package']].forEach(([value, label]) => {
+        const option = document.createElement('option');
+        option.value = value;
+        option.textContent = label;
+        orderSelect.appendChild(option);
+    });
+    orderSelect.value = matrix.ordering;
+    orderSelect.addEventListener('change', () => {
+        applyOrdering(orderSelect.value);
+        scheduleDraw();
+    });
+    toolbar.appendChild(orderSelect);
+
+    const fitButton = document.createElement('button');
+    fitButton.textContent = 'Fit';
+    fitButton.addEventListener('click', fitToView);
+    toolbar.appendChild(fitButton);
+
+    const status = document.createElement('span');
+    status.className = 'matrix-status';
+    toolbar.appendChild(status);
+    chartDiv.appendChild(toolbar);
+
+    const viewport = document.createElement('div');
+    viewport.className = 'matrix-viewport';
+    const canvas = document.createElement('canvas');
+    viewport.appendChild(canvas);
+    const tooltip = document.createElement('div');
+    tooltip.className = 'matrix-tooltip';
+    viewport.appendChild(tooltip);
+    chartDiv.appendChild(viewport);
+
+    matrix.canvas = canvas;
+    matrix.ctx = canvas.getContext('2d');
+    matrix.tooltip = tooltip;
+    matrix.status = status;
+    attachInteraction(canvas);
+}
+
+/**
+ * Main function to update the diagram with new data from Java.
+ * @param {Object} data - {names, owners, ownerNames, cells: [row, column, weight, ...], groups, options}
+ */
+window.updateDiagram = function(data) {
+    // Counts only: serializing the payload to log it would cost more than rendering it
+    console.log('updateDiagram called with ' + (data && data.names ? data.names.length : 0) + ' elements');
+
+    try {
+        const { names, owners, ownerNames, cells, groups = [], options = {} } = data;
+
+        // Validate data
+        if (!names || !Array.isArray(names)) {
+            throw new Error('Invalid names data: ' + typeof names);
+        }
+        if (!cells || cells.length % 3 !== 0) {
+            throw new Error('Invalid cell data');
+        }
+        if (!owners || owners.length !== names.length) {
+            throw new Error('Owner count does not match names length (' + names.length + ')');
+        }
+        if (names.length === 0) {
+            throw new Error('Matrix is empty');
+        }
+
+        const edgeCount = cells.length / 3;
+        const n = names.length;
+        matrix.n = n;
+        matrix.names = names;
+        matrix.owners = owners;
+        matrix.ownerNames = ownerNames;
+        matrix.showLabels = options.showLabels !== false;
+        matrix.groups = new Set(groups);
+        matrix.rows = new Int32Array(edgeCount);
+        matrix.columns = new Int32Array(edgeCount);
+        matrix.weights = new Float64Array(edgeCount);
+        matrix.cellWeights = new Map();
+        for (let e = 0; e < edgeCount; e++) {
+            matrix.rows[e] = cells[3 * e];
+            matrix.columns[e] = cells[3 * e + 1];
+            matrix.weights[e] = cells[3 * e + 2];
+            matrix.cellWeights.set(matrix.rows[e] * n + matrix.columns[e], matrix.weights[e]);
+        }
+
+        console.log('Data validated: ' + n + ' elements, ' + edgeCount + ' cells, showLabels=' + matrix.showLabels);
+
+        const chartDiv = document.getElementById('chart');
+        if (!matrix.canvas || !chartDiv.contains(matrix.canvas)) {
+            createView(chartDiv);
+        }
+        applyOrdering(matrix.ordering);
+        resizeCanvas();
+
+        console.log('Adjacency matrix rendered successfully');
+    } catch (error) {
+        console.error('Error rendering diagram:', error.message);
+        console.error('Stack trace:', error.stack);
+        // Display error in the chart div
+        document.getElementById('chart').innerHTML =
+            '<div style="padding: 20px; color: #c00; font-size: 14px;">' +
+            '<strong>Rendering Error:</strong> ' + error.message +
+            '</div>';
+        matrix.canvas = null;
+    }
+};
+
+window.addEventListener('resize', () => {
+    if (matrix.canvas && matrix.n > 0) resizeCanvas();
+});
+
+// Log when script is loaded
+console.log('matrix_render.js loaded successfully');
@@ -0,0 +1,351 @@
+/**
+ * Force-directed layout for the Network Diagram, run inside a Web Worker.
+ *
+ * The page only defines this function; network_render.js starts a worker from its
+ * source text, so the simulation never blocks the page. Forces follow d3-force:
+ * many-body repulsion approximated with a Barnes-Hut quadtree, springs along the
+ * links and a weak pull towards the origin that keeps components together.
+ *
+ * Messages in:  {type: 'start', n, sources, targets}, {type: 'extend', n, sources, targets},
+ *               {type: 'stop'}
+ * Messages out: {type: 'tick', x, y, alpha}, {type: 'end', x, y}
+ */
+function networkLayoutWorker() {
+    const CHARGE = -30;
+    const THETA2 = 0.81;
+    const DISTANCE_MIN2 = 1;
+    const LINK_DISTANCE = 30;
+    const GRAVITY = 0.05;
+    const VELOCITY_DECAY = 0.6;
+    const ALPHA_MIN = 0.001;
+    const ALPHA_DECAY = 1 - Math.pow(ALPHA_MIN, 1 / 300);
+    // Points that still share a cell at this depth are kept together in one leaf
+    const MAX_DEPTH = 32;
+    // Ticks run in slices of this length between position updates
+    const SLICE_MS = 30;
+    // Energy restored when nodes are added, so the new ones settle without
+    // shaking up the existing layout
+    const REHEAT_ALPHA = 0.3;
+
+    let n = 0;
+    let x, y, vx, vy;
+    let sources, targets, linkStrength, linkBias;
+    let alpha = 1;
+    let running = false;
+
+    // Quadtree in flat arrays, rebuilt every tick. Cell corners are tracked while
+    // inserting; quadX/quadY hold each cell's centre of mass.
+    let capacity = 0;
+    let quadSize, quadMass, quadX, quadY, quadChild, quadHead, quadInternal, nextPoint;
+    let quadCount = 0;
+
+    function allocateTree(points) {
+        capacity = Math.max(16, points * 4);
+        quadSize = new Float64Array(capacity);
+        quadMass = new Float64Array(capacity);
+        quadX = new Float64Array(capacity);
+        quadY = new Float64Array(capacity);
+        quadChild = new Int32Array(capacity * 4);
+        quadHead = new Int32Array(capacity);
+        quadInternal = new Uint8Array(capacity);
+        nextPoint = new Int32Array(points);
+    }
+
+    function newQuad(size) {
+        if (quadCount === capacity) {
+            // Deep trees of clustered points can exceed the estimate
+            const old = { quadSize, quadMass, quadX, quadY, quadChild, quadHead, quadInternal, nextPoint };
+            allocateTree(capacity / 2);
+            quadSize.set(old.quadSize);
+            quadMass.set(old.quadMass);
+            quadX.set(old.quadX);
+            quadY.set(old.quadY);
+            quadChild.set(old.quadChild);
+            quadHead.set(old.quadHead);
+            quadInternal.set(old.quadInternal);
+            nextPoint = old.nextPoint;
+        }
+        const q = quadCount++;
+        quadX[q] = 0;
+        quadY[q] = 0;
+        quadSize[q] = size;
+        quadMass[q] = 0;
+        quadHead[q] = -1;
+        quadInternal[q] = 0;
+        quadChild.fill(-1, q * 4, q * 4 + 4);
+        return q;
+    }
+
+    function childFor(q, i, depthInfo) {
+        const half = quadSize[q] / 2;
+        const right = x[i] >= depthInfo.x0 + half ? 1 : 0;
+        const bottom = y[i] >= depthInfo.y0 + half ? 1 : 0;
+        const k = right + 2 * bottom;
+        const cx0 = depthInfo.x0 + right * half;
+        const cy0 = depthInfo.y0 + bottom * half;
+        let child = quadChild[q * 4 + k];
+        if (child === -1) {
+            child = newQuad(half);
+            quadChild[q * 4 + k] = child;
+        }
+        depthInfo.x0 = cx0;
+        depthInfo.y0 = cy0;
+        return child;
+    }
+
+    function insert(i, rootX0, rootY0) {
+        let q = 0;
+        const corner = { x0: rootX0, y0: rootY0 };
+        for (let depth = 0; ; depth++) {
+            if (quadInternal[q]) {
+                q = childFor(q, i, corner);
+                continue;
+            }
+            if (quadHead[q] === -1 || depth >= MAX_DEPTH) {
+                nextPoint[i] = quadHead[q];
+                quadHead[q] = i;
+                return;
+            }
+            // Split the leaf: push its point one level down, then place i
+            const j = quadHead[q];
+            quadHead[q] = -1;
+            quadInternal[q] = 1;
+            const jCorner = { x0: corner.x0, y0: corner.y0 };
+            const child = childFor(q, j, jCorner);
+            nextPoint[j] = -1;
+            quadHead[child] = j;
+        }
+    }
+
+    function accumulate(q) {
+        let mass = 0;
+        let sx = 0;
+        let sy = 0;
+        if (quadInternal[q]) {
+            for (let k = 0; k < 4; k++) {
+                const child = quadChild[q * 4 + k];
+                if (child === -1) continue;
+                accumulate(child);
+                mass += quadMass[child];
+                sx += quadX[child] * quadMass[child];
+                sy += quadY[child] * quadMass[child];
+            }
+        } else {
+            for (let i = quadHead[q]; i !== -1; i = nextPoint[i]) {
+                mass++;
+                sx += x[i];
+                sy += y[i];
+            }
+        }
+        quadMass[q] = mass;
+        quadX[q] = mass > 0 ? sx / mass : 0;
+        quadY[q] = mass > 0 ? sy / mass : 0;
+    }
+
+    function buildTree() {
+        let minX = Infinity, minY = Infinity, maxX = -Infinity, maxY = -Infinity;
+        for (let i = 0; i < n; i++) {
+            if (x[i] < minX) minX = x[i];
+            if (x[i] > maxX) maxX = x[i];
+            if (y[i] < minY) minY = y[i];
+            if (y[i] > maxY) maxY = y[i];
+        }
+        const size = Math.max(maxX - minX, maxY - minY) + 1;
+        quadCount = 0;
+        newQuad(size);
+        for (let i = 0; i < n; i++) insert(i, minX, minY);
+        accumulate(0);
+    }
+
+    const stack = [];
+
+    function applyCharge() {
+        buildTree();
+        for (let i = 0; i < n; i++) {
+            stack.length = 0;
+            stack.push(0);
+            while (stack.length > 0) {
+                const q = stack.pop();
+                if (quadMass[q] === 0) continue;
+                let dx = quadX[q] - x[i];
+                let dy = quadY[q] - y[i];
+                let l = dx * dx + dy * dy;
+
+                if (quadInternal[q]) {
+                    // Far enough away: treat the whole cell as one body
+                    if (quadSize[q] * quadSize[q] / THETA2 < l) {
+                        if (l < DISTANCE_MIN2) l = Math.sqrt(DISTANCE_MIN2 * l);
+                        const w = CHARGE * alpha * quadMass[q] / l;
+                        vx[i] += dx * w;
+                        vy[i] += dy * w;
+                        continue;
+                    }
+                    for (let k = 0; k < 4; k++) {
+                        const child = quadChild[q * 4 + k];
+                        if (child !== -1) stack.push(child);
+                    }
+                    continue;
+                }
+
+                for (let j = quadHead[q]; j !== -1; j = nextPoint[j]) {
+                    if (j === i) continue;
+                    dx = x[j] - x[i];
+                    dy = y[j] - y[i];
+                    l = dx * dx + dy * dy;
+                    if (dx === 0) { dx = (Math.random() - 0.5) * 1e-6; l += dx * dx; }
+                    if (dy === 0) { dy = (Math.random() - 0.5) * 1e-6; l += dy * dy; }
+                    if (l < DISTANCE_MIN2) l = Math.sqrt(DISTANCE_MIN2 * l);
+                    const w = CHARGE * alpha / l;
+                    vx[i] += dx * w;
+                    vy[i] += dy * w;
+                }
+            }
+        }
+    }
+
+    function applyLinks() {
+        for (let e = 0; e < sources.length; e++) {
+            const s = sources[e];
+            const t = targets[e];
+            let dx = x[t] + vx[t] - x[s] - vx[s] || (Math.random() - 0.5) * 1e-6;
+            let dy = y[t] + vy[t] - y[s] - vy[s] || (Math.random() - 0.5) * 1e-6;
+            let l = Math.sqrt(dx * dx + dy * dy);
+            l = (l - LINK_DISTANCE) / l * alpha * linkStrength[e];
+            dx *= l;
+            dy *= l;
+            const b = linkBias[e];
+            vx[t] -= dx * b;
+            vy[t] -= dy * b;
+            vx[s] += dx * (1 - b);
+            vy[s] += dy * (1 - b);
+        }
+    }
+
+    function tick() {
+        alpha += (0 - alpha) * ALPHA_DECAY;
+        applyLinks();
+        applyCharge();
+        for (let i = 0; i < n; i++) {
+            vx[i] -= x[i] * GRAVITY * alpha;
+            vy[i] -= y[i] * GRAVITY * alpha;
+            x[i] += vx[i] *= VELOCITY_DECAY;
+            y[i] += vy[i] *= VELOCITY_DECAY;
+        }
+    }
+
+    function runSlice() {
+        if (!running) return;
+        const start = Date.now();
+        while (alpha >= ALPHA_MIN && Date.now() - start < SLICE_MS) {
+            tick();
+        }
+        if (alpha < ALPHA_MIN) {
+            running = false;
+            self.postMessage({ type: 'end', x: Float32Array.from(x), y: Float32Array.from(y) });
+            return;
+        }
+        self.postMessage({ type: 'tick', x: Float32Array.from(x), y: Float32Array.from(y), alpha });
+        // Yield so a 'stop' message can be handled between slices
+        setTimeout(runSlice, 0);
+    }
+
+    // Phyllotaxis start positions, as in d3-force
+    const INITIAL_ANGLE = Math.PI * (3 - Math.sqrt(5));
+
+    function placeInitially(i) {
+        const radius = 10 * Math.sqrt(0.5 + i);
+        x[i] = radius * Math.cos(i * INITIAL_ANGLE);
+        y[i] = radius * Math.sin(i * INITIAL_ANGLE);
+    }
+
+    function start(message) {
+        n = message.n;
+        sources = message.sources;
+        targets = message.targets;
+        x = new Float64Array(n);
+        y = new Float64Array(n);
+        vx = new Float64Array(n);
+        vy = new Float64Array(n);
+        for (let i = 0; i < n; i++) placeInitially(i);
+
+        computeLinkForces();
+        allocateTree(n);
+        alpha = 1;
+        running = true;
+        runSlice();
+    }
+
+    function grow(array, length) {
+        const grown = new Float64Array(length);
+        grown.set(array.subarray(0, Math.min(array.length, length)));
+        return grown;
+    }
+
+    /**
+     * Add the nodes and links of a further chunk, keeping the positions reached so far.
+     * New nodes start next to a neighbour that already has a position.
+     */
+    function extend(message) {
+        const oldN = n;
+        n = message.n;
+        sources = message.sources;
+        targets = message.targets;
+        x = grow(x, n);
+        y = grow(y, n);
+        vx = grow(vx, n);
+        vy = grow(vy, n);
+
+        const anchor = new Int32Array(n).fill(-1);
+        for (let e = 0; e < sources.length; e++) {
+            const s = sources[e];
+            const t = targets[e];
+            if (t >= oldN && s < oldN && anchor[t] < 0) anchor[t] = s;
+            if (s >= oldN && t < oldN && anchor[s] < 0) anchor[s] = t;
+        }
+        for (let i = oldN; i < n; i++) {
+            const a = anchor[i];
+            if (a >= 0) {
+                x[i] = x[a] + (Math.random() - 0.5) * LINK_DISTANCE;
+                y[i] = y[a] + (Math.random() - 0.5) * LINK_DISTANCE;
+            } else {
+                placeInitially(i);
+            }
+        }
+
+        computeLinkForces();
+        allocateTree(n);
+        alpha = Math.max(alpha, REHEAT_ALPHA);
+        if (!running) {
+            running = true;
+            runSlice();
+        }
+    }
+
+    function computeLinkForces() {
+        // Weaker springs on hubs, so they are not pulled around by every neighbour
+        const degree = new Int32Array(n);
+        for (let e = 0; e < sources.length; e++) {
+            degree[sources[e]]++;
+            degree[targets[e]]++;
+        }
+        linkStrength = new Float64Array(sources.length);
+        linkBias = new Float64Array(sources.length);
+        for (let e = 0; e < sources.length; e++) {
+            const ds = degree[sources[e]];
+            const dt = degree[targets[e]];
+            linkStrength[e] = 1 / Math.min(ds, dt);
+            linkBias[e] = ds / (ds + dt);
+        }
+    }
+
+    self.onmessage = function(event) {
+        const message = event.data;
+        if (message.type === 'start') {
+            start(message);
+        } else if (message.type === 'extend') {
+            extend(message);
+        } else if (message.type === 'stop') {
+            running = false;
+        }
+    };
+}
@@ -0,0 +1,632 @@
+/**
+ * Canvas Network Diagram Renderer
+ *
+ * Positions come from the force layout in network_layout.js, which runs in a Web
+ * Worker and posts intermediate positions while it settles. The page redraws at
+ * most once per animation frame and fits the graph to the view until the user
+ * zooms or pans.
+ *
+ * Large graphs arrive in chunks, hubs first: the first through updateDiagram(),
+ * the rest through appendDiagramData(). Chunks are applied in animation-frame
+ * time slices and each batch of new nodes extends the running layout.
+ */
+
+const NODE_COLOR = '#1f77b4';
+const HOVER_COLOR = '#ff7f0e';
+const LINK_COLOR = 'rgba(120, 120, 120, 0.35)';
+// Labels appear once the view is zoomed in at least this far
+const LABEL_MIN_SCALE = 1.2;
+const MAX_LABELS = 500;
+const ZOOM_FACTOR = 1.2;
+const FIT_PADDING_PX = 20;
+const HIT_TOLERANCE_PX = 4;
+const CLICK_TOLERANCE_PX = 3;
+// Time per animation frame spent applying received chunks
+const CHUNK_SLICE_MS = 8;
+const CHUNK_LINK_BATCH = 2000;
+
+const network = {
+    n: 0,
+    names: [],
+    sources: null,
+    targets: null,
+    // Link and degree storage with spare capacity; sources/targets are views of it
+    sourceBuffer: new Int32Array(0),
+    targetBuffer: new Int32Array(0),
+    degree: new Int32Array(0),
+    radius: null,
+    // Chunks received but not yet applied, and delivery progress
+    pendingChunks: [],
+    applyPending: false,
+    chunksApplied: 0,
+    chunkCount: 1,
+    groups: new Set(),
+    x: null,
+    y: null,
+    alpha: 1,
+    settled: false,
+    worker: null,
+    showLabels: true,
+    scale: 1,
+    translateX: 0,
+    translateY: 0,
+    userMoved: false,
+    hovered: -1,
+    canvas: null,
+    ctx: null,
+    tooltip: null,
+    status: null,
+    drawPending: false
+};
+
+/**
+ * Navigate to an element in MagicDraw's containment tree.
+ */
+function navigateToElement(index) {
+    if (window.javaNavigation && typeof window.javaNavigation.selectElement === 'function') {
+        console.log('Navigating to element index: ' + index);
+        window.javaNavigation.selectElement(index);
+    } else {
+        console.log('Java navigation bridge not available');
+    }
+}
+
+/**
+ * Navigate to a relationship in MagicDraw's containment tree.
+ */
+function navigateToRelationship(sourceIndex, targetIndex) {
+    if (window.javaNavigation && typeof window.javaNavigation.selectRelationship === 'function') {
+        console.log('Navigating to relationship: ' + sourceIndex + ' -> ' + targetIndex);
+        window.javaNavigation.selectRelationship(sourceIndex, targetIndex);
+    } else {
+        console.log('Java navigation bridge not available');
+    }
+}
+
+/**
+ * Ask Java to replace a group with its members.
+ */
+function expandGroup(index) {
+    if (window.javaNavigation && typeof window.javaNavigation.expandGroup === 'function') {
+        console.log('Expanding group index: ' + index);
+        window.javaNavigation.expandGroup(index);
+    } else {
+        console.log('Java navigation bridge not available');
+    }
+}
+
+/**
+ * Start the force layout in a fresh worker, stopping any previous one.
+ * The worker is created from the source of networkLayoutWorker(), since the page
+ * is loaded from inline HTML and has no script URL to point a worker at.
+ */
+function startLayout() {
+    if (network.worker) {
+        network.worker.terminate();
+    }
+    const source = '(' + networkLayoutWorker.toString() + ')();';
+    const url = URL.createObjectURL(new Blob([source], { type: 'application/javascript' }));
+    const worker = new Worker(url);
+    URL.revokeObjectURL(url);
+
+    worker.onmessage = event => {
+        if (worker !== network.worker) return;
+        const message = event.data;
+        network.x = message.x;
+        network.y = message.y;
+        network.settled = message.type === 'end';
+        network.alpha = network.settled ? 0 : message.alpha;
+        if (!network.userMoved) fitView();
+        scheduleDraw();
+    };
+    worker.onerror = event => console.error('Layout worker error: ' + event.message);
+
+    network.worker = worker;
+    network.settled = false;
+    network.alpha = 1;
+    const sources = network.sources.slice();
+    const targets = network.targets.slice();
+    worker.postMessage({ type: 'start', n: network.n, sources, targets }, [sources.buffer, targets.buffer]);
+}
+
+/**
+ * Number of nodes the layout has positions for; nodes of a chunk that the worker
+ * has not picked up yet are not drawn.
+ */
+function placedCount() {
+    return network.x ? Math.min(network.n, network.x.length) : 0;
+}
+
+function fitView() {
+    if (!network.x || !network.canvas) return;
+    let minX = Infinity, minY = Infinity, maxX = -Infinity, maxY = -Infinity;
+    const placed = placedCount();
+    for (let i = 0; i < placed; i++) {
+        if (network.x[i] < minX) minX = network.x[i];
+        if (network.x[i] > maxX) maxX = network.x[i];
+        if (network.y[i] < minY) minY = network.y[i];
+        if (network.y[i] > maxY) maxY = network.y[i];
+    }
+    const width = network.canvas.width;
+    const height = network.canvas.height;
+    network.scale = Math.min(
+        (width - 2 * FIT_PADDING_PX) / Math.max(1, maxX - minX),
+        (height - 2 * FIT_PADDING_PX) / Math.max(1, maxY - minY),
+        2);
+    network.translateX = width / 2 - (minX + maxX) / 2 * network.scale;
+    network.translateY = height / 2 - (minY + maxY) / 2 * network.scale;
+}
+
+function scheduleDraw() {
+    if (network.drawPending) return;
+    network.drawPending = true;
+    requestAnimationFrame(draw);
+}
+
+function draw() {
+    network.drawPending = false;
+    const canvas = network.canvas;
+    if (!canvas) return;
+    const ctx = network.ctx;
+    ctx.setTransform(1, 0, 0, 1, 0, 0);
+    ctx.clearRect(0, 0, canvas.width, canvas.height);
+    updateStatus();
+    if (!network.x) return;
+
+    const x = network.x;
+    const y = network.y;
+    const scale = network.scale;
+    const placed = placedCount();
+    ctx.setTransform(scale, 0, 0, scale, network.translateX, network.translateY);
+
+    // Links in a single path
+    ctx.strokeStyle = LINK_COLOR;
+    ctx.lineWidth = 1 / scale;
+    ctx.beginPath();
+    for (let e = 0; e < network.sources.length; e++) {
+        const s = network.sources[e];
+        const t = network.targets[e];
+        if (s >= placed || t >= placed) continue;
+        ctx.moveTo(x[s], y[s]);
+        ctx.lineTo(x[t], y[t]);
+    }
+    ctx.stroke();
+
+    // Nodes in a single path
+    ctx.fillStyle = NODE_COLOR;
+    ctx.beginPath();
+    for (let i = 0; i < placed; i++) {
+        const r = network.radius[i];
+        ctx.moveTo(x[i] + r, y[i]);
+        ctx.arc(x[i], y[i], r, 0, 2 * Math.PI);
+    }
+    ctx.fill();
+
+    if (network.hovered >= 0 && network.hovered < placed) {
+        const i = network.hovered;
+        ctx.fillStyle = HOVER_COLOR;
+        ctx.beginPath();
+        ctx.arc(x[i], y[i], network.radius[i] + 1 / scale, 0, 2 * Math.PI);
+        ctx.fill();
+    }
+
+    if (network.showLabels && scale >= LABEL_MIN_SCALE) {
+        drawLabels();
+    }
+}
+
+/**
+ * Names of the nodes inside the view, up to MAX_LABELS.
+ */
+function drawLabels() {
+    const ctx = network.ctx;
+    const scale = network.scale;
+    ctx.setTransform(1, 0, 0, 1, 0, 0);
+    ctx.fillStyle = '#333';
+    ctx.font = '11px sans-serif';
+    ctx.textBaseline = 'middle';
+    let drawn = 0;
+    const placed = placedCount();
+    for (let i = 0; i < placed && drawn < MAX_LABELS; i++) {
+        const sx = network.x[i] * scale + network.translateX;
+        const sy = network.y[i] * scale + network.translateY;
+        if (sx < 0 || sy < 0 || sx > network.canvas.width || sy > network.canvas.height) continue;
+        ctx.fillText(network.names[i], sx + network.radius[i] * scale + 3, sy);
+        drawn++;
+    }
+}
+
+function updateStatus() {
+    if (!network.status) return;
+    const loading = network.chunksApplied < network.chunkCount
+        ? ', loading ' + network.chunksApplied + '/' + network.chunkCount
+        : '';
+    network.status.textContent = network.n + ' elements, ' + network.sources.length + ' links' + loading +
+        ', layout ' + (network.settled ? 'settled' : 'running (' + Math.round(network.alpha * 100) + '%)');
+}
+
+function toWorld(sx, sy) {
+    return [(sx - network.translateX) / network.scale, (sy - network.translateY) / network.scale];
+}
+
+/**
+ * Node under a canvas point, or -1.
+ */
+function nodeAt(sx, sy) {
+    if (!network.x) return -1;
+    const [wx, wy] = toWorld(sx, sy);
+    const tolerance = HIT_TOLERANCE_PX / network.scale;
+    let best = -1;
+    let bestDistance = Infinity;
+    const placed = placedCount();
+    for (let i = 0; i < placed; i++) {
+        const dx = network.x[i] - wx;
+        const dy = network.y[i] - wy;
+        const d = Math.sqrt(dx * dx + dy * dy);
+        if (d <= network.radius[i] + tolerance && d < bestDistance) {
+            best = i;
+            bestDistance = d;
+        }
+    }
+    return best;
+}
+
+/**
+ * Link under a canvas point, or -1.
+ */
+function linkAt(sx, sy) {
+    if (!network.x) return -1;
+    const [wx, wy] = toWorld(sx, sy);
+    const tolerance = HIT_TOLERANCE_PX / network.scale;
+    let best = -1;
+    let bestDistance = tolerance;
+    const placed = placedCount();
+    for (let e = 0; e < network.sources.length; e++) {
+        if (network.sources[e] >= placed || network.targets[e] >= placed) continue;
+        const ax = network.x[network.sources[e]];
+        const ay = network.y[network.sources[e]];
+        const bx = network.x[network.targets[e]];
+        const by = network.y[network.targets[e]];
+        const lengthSquared = (bx - ax) * (bx - ax) + (by - ay) * (by - ay);
+        const t = lengthSquared > 0
+            ? Math.max(0, Math.min(1, ((wx - ax) * (bx - ax) + (wy - ay) * (by - ay)) / lengthSquared))
+            : 0;
+        const px = ax + t * (bx - ax) - wx;
+        const py = ay + t * (by - ay) - wy;
+        const d = Math.sqrt(px * px + py * py);
+        if (d <= bestDistance) {
+            best = e;
+            bestDistance = d;
+        }
+    }
+    return best;
+}
+
+function handleClick(sx, sy) {
+    const node = nodeAt(sx, sy);
+    if (node >= 0) {
+        navigateToElement(node);
+        return;
+    }
+    const link = linkAt(sx, sy);
+    if (link >= 0) {
+        navigateToRelationship(network.sources[link], network.targets[link]);
+    }
+}
+
+function updateHover(sx, sy) {
+    const node = nodeAt(sx, sy);
+    if (node !== network.hovered) {
+        network.hovered = node;
+        scheduleDraw();
+    }
+    const tooltip = network.tooltip;
+    if (node < 0) {
+        tooltip.style.display = 'none';
+        return;
+    }
+    tooltip.textContent = network.names[node];
+    tooltip.style.left = (sx + 12) + 'px';
+    tooltip.style.top = (sy + 12) + 'px';
+    tooltip.style.display = 'block';
+}
+
+function attachInteraction(canvas) {
+    let drag = null;
+
+    canvas.addEventListener('wheel', event => {
+        event.preventDefault();
+        const factor = event.deltaY < 0 ? ZOOM_FACTOR : 1 / ZOOM_FACTOR;
+        const [wx, wy] = toWorld(event.offsetX, event.offsetY);
+        network.scale *= factor;
+        network.translateX = event.offsetX - wx * network.scale;
+        network.translateY = event.offsetY - wy * network.scale;
+        network.userMoved = true;
+        scheduleDraw();
+    }, { passive: false });
+
+    canvas.addEventListener('mousedown', event => {
+        drag = { x: event.offsetX, y: event.offsetY, translateX: network.translateX, translateY: network.translateY, moved: false };
+    });
+
+    canvas.addEventListener('mousemove', event => {
+        if (drag) {
+            const dx = event.offsetX - drag.x;
+            const dy = event.offsetY - drag.y;
+            if (Math.abs(dx) > CLICK_TOLERANCE_PX || Math.abs(dy) > CLICK_TOLERANCE_PX) drag.moved = true;
+            if (drag.moved) {
+                network.translateX = drag.translateX + dx;
+                network.translateY = drag.translateY + dy;
+                network.userMoved = true;
+                network.tooltip.style.display = 'none';
+                scheduleDraw();
+                return;
+            }
+        }
+        updateHover(event.offsetX, event.offsetY);
+    });
+
+    canvas.addEventListener('mouseup', event => {
+        if (drag && !drag.moved) handleClick(event.offsetX, event.offsetY);
+        drag = null;
+    });
+
+    // Double-clicking an aggregated group expands it
+    canvas.addEventListener('dblclick', event => {
+        const node = nodeAt(event.offsetX, event.offsetY);
+        if (node >= 0 && network.groups.has(node)) expandGroup(node);
+    });
+
+    canvas.addEventListener('mouseleave', () => {
+        drag = null;
+        network.tooltip.style.display = 'none';
+        if (network.hovered >= 0) {
+            network.hovered = -1;
+            scheduleDraw();
+        }
+    });
+}
+
+function createView(chartDiv) {
+    chartDiv.innerHTML = '';
+
+    const toolbar = document.createElement('div');
+    toolbar.className = 'network-toolbar';
+
+    const fitButton = document.createElement('button');
+    fitButton.textContent = 'Fit';
+    fitButton.addEventListener('click', () => {
+        network.userMoved = false;
+        fitView();
+        scheduleDraw();
+    });
+    toolbar.appendChild(fitButton);
+
+    const relayoutButton = document.createElement('button');
+    relayoutButton.textContent = 'Re-run Layout';
+    relayoutButton.addEventListener('click', () => {
+        network.userMoved = false;
+        startLayout();
+    });
+    toolbar.appendChild(relayoutButton);
+
+    const status = document.createElement('span');
+    status.className = 'network-status';
+    toolbar.appendChild(status);
+    chartDiv.appendChild(toolbar);
+
+    const viewport = document.createElement('div');
+    viewport.className = 'network-viewport';
+    const canvas = document.createElement('canvas');
+    viewport.appendChild(canvas);
+    const tooltip = document.createElement('div');
+    tooltip.className = 'network-tooltip';
+    viewport.appendChild(tooltip);
+    chartDiv.appendChild(viewport);
+
+    network.canvas = canvas;
+    network.ctx = canvas.getContext('2d');
+    network.tooltip = tooltip;
+    network.status = status;
+    attachInteraction(canvas);
+}
+
+function resizeCanvas() {
+    const viewport = network.canvas.parentNode;
+    network.canvas.width = viewport.clientWidth;
+    network.canvas.height = viewport.clientHeight;
+    if (!network.userMoved) fitView();
+    scheduleDraw();
+}
+
+/**
+ * Add the nodes revealed by a chunk after the existing ones.
+ */
+function appendNodes(names) {
+    const n = network.n + names.length;
+    for (let i = 0; i < names.length; i++) network.names.push(names[i]);
+    const degree = new Int32Array(n);
+    degree.set(network.degree);
+    network.degree = degree;
+    const radius = new Float32Array(n);
+    radius.set(network.radius);
+    network.radius = radius;
+    network.n = n;
+    updateRadius(network.n - names.length);
+}
+
+/**
+ * Add links [from, to) of a (source, target, weight) triple array, growing the
+ * link storage by doubling.
+ */
+function appendLinks(links, from, to) {
+    const count = network.sources.length;
+    const needed = count + to - from;
+    if (network.sourceBuffer.length < needed) {
+        const capacity = Math.max(needed, 2 * network.sourceBuffer.length);
+        const sources = new Int32Array(capacity);
+        const targets = new Int32Array(capacity);
+        sources.set(network.sources);
+        targets.set(network.targets);
+        network.sourceBuffer = sources;
+        network.targetBuffer = targets;
+    }
+    for (let e = from; e < to; e++) {
+        const s = links[3 * e];
+        const t = links[3 * e + 1];
+        network.sourceBuffer[count + e - from] = s;
+        network.targetBuffer[count + e - from] = t;
+        network.degree[s]++;
+        network.degree[t]++;
+    }
+    network.sources = network.sourceBuffer.subarray(0, needed);
+    network.targets = network.targetBuffer.subarray(0, needed);
+}
+
+function updateRadius(from) {
+    for (let i = from; i < network.n; i++) {
+        network.radius[i] = 3 + Math.min(6, Math.sqrt(network.degree[i]));
+    }
+}
+
+function scheduleChunkApply() {
+    if (network.applyPending) return;
+    network.applyPending = true;
+    requestAnimationFrame(applyPendingChunks);
+}
+
+/**
+ * Apply received chunks for at most CHUNK_SLICE_MS per frame, so the page stays
+ * responsive while a large graph streams in. The layout is extended once per
+ * frame in which a chunk was completed.
+ */
+function applyPendingChunks() {
+    network.applyPending = false;
+    if (!network.canvas) return;
+    const start = performance.now();
+    let completed = false;
+    while (network.pendingChunks.length > 0 && performance.now() - start < CHUNK_SLICE_MS) {
+        const chunk = network.pendingChunks[0];
+        if (!chunk.nodesAdded) {
+            appendNodes(chunk.names);
+            chunk.nodesAdded = true;
+        }
+        const linkCount = chunk.links.length / 3;
+        const end = Math.min(linkCount, chunk.offset + CHUNK_LINK_BATCH);
+        appendLinks(chunk.links, chunk.offset, end);
+        chunk.offset = end;
+        if (end === linkCount) {
+            network.pendingChunks.shift();
+            network.chunksApplied++;
+            completed = true;
+        }
+    }
+    if (completed) {
+        updateRadius(0);
+        extendLayout();
+        scheduleDraw();
+    }
+    if (network.pendingChunks.length > 0) scheduleChunkApply();
+}
+
+function extendLayout() {
+    if (!network.worker) return;
+    network.settled = false;
+    const sources = network.sources.slice();
+    const targets = network.targets.slice();
+    network.worker.postMessage({ type: 'extend', n: network.n, sources, targets }, [sources.buffer, targets.buffer]);
+}
+
+/**
+ * Receive a further chunk of a progressively delivered graph.
+ * @param {Object} data - {names: names of the nodes it reveals, links: [source, target, weight, ...]}
+ */
+window.appendDiagramData = function(data) {
+    if (!network.canvas) return;
+    const { names = [], links = [] } = data;
+    if (links.length % 3 !== 0) {
+        console.error('Invalid link data in diagram chunk');
+        return;
+    }
+    network.pendingChunks.push({ names, links, offset: 0, nodesAdded: false });
+    scheduleChunkApply();
+};
+
+/**
+ * Main function to update the diagram with new data from Java.
+ * @param {Object} data - {names, links: [source, target, weight, ...], groups, options}, and for
+ *     the first chunk of a large graph, chunk: {index, count, totalNodes}
+ */
+window.updateDiagram = function(data) {
+    // Counts only: serializing the payload to log it would cost more than rendering it
+    console.log('updateDiagram called with ' + (data && data.names ? data.names.length : 0) + ' elements');
+
+    try {
+        if (typeof Worker === 'undefined') {
+            throw new Error('Web Workers are not available');
+        }
+
+        const { names, links, groups = [], options = {} } = data;
+
+        // Validate data
+        if (!names || !Array.isArray(names)) {
+            throw new Error('Invalid names data: ' + typeof names);
+        }
+        if (!links || links.length % 3 !== 0) {
+            throw new Error('Invalid link data');
+        }
+        if (names.length === 0) {
+            throw new Error('Graph is empty');
+        }
+
+        const n = names.length;
+        const linkCount = links.length / 3;
+        network.n = 0;
+        network.names = [];
+        network.showLabels = options.showLabels !== false;
+        network.groups = new Set(groups);
+        network.sourceBuffer = new Int32Array(linkCount);
+        network.targetBuffer = new Int32Array(linkCount);
+        network.sources = network.sourceBuffer.subarray(0, 0);
+        network.targets = network.targetBuffer.subarray(0, 0);
+        network.degree = new Int32Array(0);
+        network.radius = new Float32Array(0);
+        network.pendingChunks = [];
+        network.chunksApplied = 1;
+        network.chunkCount = data.chunk ? data.chunk.count : 1;
+        appendNodes(names);
+        appendLinks(links, 0, linkCount);
+        updateRadius(0);
+        network.x = null;
+        network.y = null;
+        network.hovered = -1;
+        network.userMoved = false;
+
+        console.log('Data validated: ' + n + ' elements, ' + linkCount + ' links, showLabels=' + network.showLabels);
+
+        const chartDiv = document.getElementById('chart');
+        if (!network.canvas || !chartDiv.contains(network.canvas)) {
+            createView(chartDiv);
+        }
+        resizeCanvas();
+        startLayout();
+
+        console.log('Network layout started');
+    } catch (error) {
+        console.error('Error rendering diagram:', error.message);
+        console.error('Stack trace:', error.stack);
+        // Display error in the chart div
+        document.getElementById('chart').innerHTML =
+            '<div style="padding: 20px; color: #c00; font-size: 14px;">' +
+            '<strong>Rendering Error:</strong> ' + error.message +
+            '</div>';
+        network.canvas = null;
+    }
+};
+
+window.addEventListener('resize', () => {
+    if (network.canvas && network.n > 0) resizeCanvas();
+});
+
+// Log when script is loaded
+console.log('network_render.js loaded successfully');
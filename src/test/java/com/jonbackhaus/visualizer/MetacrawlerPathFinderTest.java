@@ -0,0 +1,72 @@
+package com.jonbackhaus.visualizer;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetacrawlerPathFinderTest {
+
+    private final Element start = TestElements.element("S");
+    private final Element middle = TestElements.element("X");
+    private final Element meeting = TestElements.element("M");
+    private final Element goal = TestElements.element("G");
+
+    @Test
+    void buildPathJoinsBothSidesAtTheMeetingElement() {
+        // S.a -> X, X.b -> M, G.c -> M
+        Map<Element, MetacrawlerPathFinder.Link> fromStart = new IdentityHashMap<>();
+        fromStart.put(start, null);
+        fromStart.put(middle, new MetacrawlerPathFinder.Link(start, "a"));
+        fromStart.put(meeting, new MetacrawlerPathFinder.Link(middle, "b"));
+        Map<Element, MetacrawlerPathFinder.Link> fromGoal = new IdentityHashMap<>();
+        fromGoal.put(goal, null);
+        fromGoal.put(meeting, new MetacrawlerPathFinder.Link(goal, "c"));
+
+        MetacrawlerPathFinder.Path path = MetacrawlerPathFinder.buildPath(meeting, fromStart, fromGoal);
+
+        assertEquals(Arrays.asList(start, middle, meeting, goal), path.getElements());
+        assertEquals(3, path.getHops());
+        assertEquals("a", path.getProperty(0));
+        assertEquals("b", path.getProperty(1));
+        assertEquals("c", path.getProperty(2));
+        assertTrue(path.isForward(0));
+        assertTrue(path.isForward(1));
+        assertFalse(path.isForward(2));
+    }
+
+    @Test
+    void buildPathMeetingAtTheStartPointsBack() {
+        // G.d -> S
+        Map<Element, MetacrawlerPathFinder.Link> fromStart = new IdentityHashMap<>();
+        fromStart.put(start, null);
+        Map<Element, MetacrawlerPathFinder.Link> fromGoal = new IdentityHashMap<>();
+        fromGoal.put(goal, null);
+        fromGoal.put(start, new MetacrawlerPathFinder.Link(goal, "d"));
+
+        MetacrawlerPathFinder.Path path = MetacrawlerPathFinder.buildPath(start, fromStart, fromGoal);
+
+        assertEquals(Arrays.asList(start, goal), path.getElements());
+        assertEquals("d", path.getProperty(0));
+        assertFalse(path.isForward(0));
+    }
+
+    @Test
+    void findReturnsTheElementItselfForTheSameStartAndGoal() {
+        MetacrawlerPathFinder.Result result = new MetacrawlerPathFinder(4, 1_000_000_000L, 1000, 10)
+                .find(start, start, null);
+
+        assertEquals(1, result.getPaths().size());
+        assertEquals(Collections.singletonList(start), result.getPaths().get(0).getElements());
+        assertEquals(0, result.getPaths().get(0).getHops());
+        assertNull(result.getLimitReached());
+    }
+}
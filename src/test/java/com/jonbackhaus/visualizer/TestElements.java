@@ -0,0 +1,87 @@
+package com.jonbackhaus.visualizer;
+
+import com.jonbackhaus.visualizer.graph.RelationshipGraph;
+import com.jonbackhaus.visualizer.graph.SparseAdjacency;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Model elements and graphs for tests that run without MagicDraw.
+ */
+public final class TestElements {
+
+    private TestElements() {
+    }
+
+    /**
+     * Element with an ID and an owner; identity equality, every other method returns a default.
+     */
+    public static Element element(String id, Element owner) {
+        return element(Element.class, id, "getOwner", owner);
+    }
+
+    /**
+     * Element of a metaclass with an ID and the given method results, as alternating
+     * method names and values; identity equality, every other method returns a default.
+     */
+    public static <T extends Element> T element(Class<T> type, String id, Object... results) {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < results.length; i += 2) {
+            values.put((String) results[i], results[i + 1]);
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getID":
+                        case "toString":
+                            return id;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            if (values.containsKey(method.getName())) return values.get(method.getName());
+                            Class<?> returnType = method.getReturnType();
+                            if (returnType == boolean.class) return false;
+                            if (returnType == int.class) return 0;
+                            return null;
+                    }
+                }));
+    }
+
+    public static Element element(String id) {
+        return element(id, null);
+    }
+
+    /**
+     * Graph over elements "n0".."n(size-1)", named by their IDs.
+     */
+    public static RelationshipGraph graph(SparseAdjacency adjacency) {
+        List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < adjacency.size(); i++) {
+            elements.add(element("n" + i));
+        }
+        return graph(elements, adjacency);
+    }
+
+    public static RelationshipGraph graph(List<Element> elements, SparseAdjacency adjacency) {
+        List<String> names = new ArrayList<>();
+        for (Element element : elements) {
+            names.add(element.getID());
+        }
+        return new RelationshipGraph(elements, names, adjacency, new HashMap<>(), adjacency.edgeCount());
+    }
+
+    /**
+     * Add an undirected edge as two symmetric cells.
+     */
+    public static void link(SparseAdjacency adjacency, int a, int b, double weight) {
+        adjacency.add(a, b, weight);
+        adjacency.add(b, a, weight);
+    }
+}
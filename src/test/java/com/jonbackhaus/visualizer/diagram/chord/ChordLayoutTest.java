@@ -0,0 +1,93 @@
+package com.jonbackhaus.visualizer.diagram.chord;
+
+import com.jonbackhaus.visualizer.graph.SparseAdjacency;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChordLayoutTest {
+
+    private static final double EPSILON = 1e-9;
+
+    private static final double[][] MATRIX = {
+            {0, 5, 1, 0},
+            {2, 0, 0, 3},
+            {1, 0, 2, 0},
+            {0, 3, 0, 0}
+    };
+
+    // d3.chord().padAngle(0.05).sortSubgroups(d3.descending)(MATRIX), from d3 v7
+    private static final double[][] GROUPS = {
+            {0, 0, 2.147006579005, 6},
+            {1, 2.197006579005, 3.986178728175, 5},
+            {2, 4.036178728175, 5.109682017677, 3},
+            {3, 5.159682017677, 6.23318530718, 3}
+    };
+
+    private static final double[][][] CHORDS = {
+            {{0, 0, 1.78917214917, 5}, {1, 3.270509868507, 3.986178728175, 2}},
+            {{0, 1.78917214917, 2.147006579005, 1}, {2, 4.751847587843, 5.109682017677, 1}},
+            {{1, 2.197006579005, 3.270509868507, 3}, {3, 5.159682017677, 6.23318530718, 3}},
+            {{2, 4.036178728175, 4.751847587843, 2}, {2, 4.036178728175, 4.751847587843, 2}}
+    };
+
+    private static SparseAdjacency adjacency() {
+        SparseAdjacency adjacency = new SparseAdjacency(MATRIX.length);
+        for (int i = 0; i < MATRIX.length; i++) {
+            for (int j = 0; j < MATRIX.length; j++) {
+                if (MATRIX[i][j] != 0) {
+                    adjacency.add(i, j, MATRIX[i][j]);
+                }
+            }
+        }
+        return adjacency;
+    }
+
+    private static void assertSegment(double[] expected, ChordLayout.Segment actual) {
+        assertEquals((int) expected[0], actual.index);
+        assertEquals(expected[1], actual.startAngle, EPSILON);
+        assertEquals(expected[2], actual.endAngle, EPSILON);
+        assertEquals(expected[3], actual.value, EPSILON);
+    }
+
+    @Test
+    void groupsMatchD3() {
+        ChordLayout.Segment[] groups = ChordLayout.compute(adjacency()).getGroups();
+
+        assertEquals(GROUPS.length, groups.length);
+        for (int i = 0; i < GROUPS.length; i++) {
+            assertSegment(GROUPS[i], groups[i]);
+        }
+    }
+
+    @Test
+    void chordsMatchD3() {
+        List<ChordLayout.Chord> chords = ChordLayout.compute(adjacency()).getChords();
+
+        assertEquals(CHORDS.length, chords.size());
+        for (int i = 0; i < CHORDS.length; i++) {
+            assertSegment(CHORDS[i][0], chords.get(i).source);
+            assertSegment(CHORDS[i][1], chords.get(i).target);
+        }
+    }
+
+    @Test
+    void paddingBeyondTheCircleSplitsItEvenly() {
+        ChordLayout.Segment[] groups = ChordLayout.compute(adjacency(), 2).getGroups();
+
+        for (int i = 0; i < groups.length; i++) {
+            assertEquals(i * Math.PI / 2, groups[i].startAngle, EPSILON);
+            assertEquals(groups[i].startAngle, groups[i].endAngle, EPSILON);
+        }
+    }
+
+    @Test
+    void jsonFlattensSegments() {
+        ChordLayout layout = ChordLayout.compute(adjacency());
+
+        assertEquals(GROUPS.length * 4, layout.toJson().getAsJsonArray("groups").size());
+        assertEquals(CHORDS.length * 8, layout.toJson().getAsJsonArray("chords").size());
+    }
+}
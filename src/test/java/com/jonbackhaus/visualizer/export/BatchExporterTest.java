@@ -0,0 +1,97 @@
+package com.jonbackhaus.visualizer.export;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.jonbackhaus.visualizer.TestElements;
+import com.jonbackhaus.visualizer.graph.RelationshipGraph;
+import com.jonbackhaus.visualizer.graph.SparseAdjacency;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchExporterTest {
+
+    @TempDir
+    File dir;
+
+    private static BatchExporter.Result result(String contextId) {
+        SparseAdjacency adjacency = new SparseAdjacency(3);
+        adjacency.add(0, 1, 2);
+        adjacency.add(2, 0, 1);
+        RelationshipGraph graph = TestElements.graph(adjacency);
+        return new BatchExporter.Result(contextId, "Context " + contextId, graph);
+    }
+
+    @Test
+    void jsonLinesWriterWritesOneRecordPerLine() throws IOException {
+        File file = new File(dir, "export.jsonl");
+        try (BatchExporter.RecordWriter writer = new BatchExporter.JsonLinesRecordWriter(file)) {
+            writer.write(result("a"));
+            writer.write(result("b"));
+        }
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+
+        JsonObject record = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        assertEquals("a", record.get("contextId").getAsString());
+        assertEquals("Context a", record.get("context").getAsString());
+        assertEquals(2, record.get("relationships").getAsInt());
+
+        JsonArray elements = record.getAsJsonArray("elements");
+        assertEquals(3, elements.size());
+        assertEquals("n2", elements.get(2).getAsJsonObject().get("id").getAsString());
+        assertEquals("n2", elements.get(2).getAsJsonObject().get("name").getAsString());
+
+        JsonArray edges = record.getAsJsonArray("edges");
+        assertEquals(2, edges.size());
+        JsonArray edge = edges.get(1).getAsJsonArray();
+        assertEquals(2, edge.get(0).getAsInt());
+        assertEquals(0, edge.get(1).getAsInt());
+        assertEquals(1.0, edge.get(2).getAsDouble());
+
+        assertEquals("b", JsonParser.parseString(lines.get(1)).getAsJsonObject().get("contextId").getAsString());
+    }
+
+    @Test
+    void binaryWriterWritesHeaderAndRecords() throws IOException {
+        File file = new File(dir, "export.bin");
+        try (BatchExporter.RecordWriter writer = new BatchExporter.BinaryRecordWriter(file)) {
+            writer.write(result("a"));
+            writer.write(result("b"));
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            assertEquals(BatchExporter.BINARY_MAGIC, in.readInt());
+            assertEquals(BatchExporter.BINARY_VERSION, in.readInt());
+            for (String contextId : new String[]{"a", "b"}) {
+                assertEquals(contextId, in.readUTF());
+                assertEquals("Context " + contextId, in.readUTF());
+                assertEquals(3, in.readInt());
+                for (int i = 0; i < 3; i++) {
+                    assertEquals("n" + i, in.readUTF());
+                    assertEquals("n" + i, in.readUTF());
+                }
+                assertEquals(2, in.readInt());
+                assertEquals(0, in.readInt());
+                assertEquals(1, in.readInt());
+                assertEquals(2.0, in.readDouble());
+                assertEquals(2, in.readInt());
+                assertEquals(0, in.readInt());
+                assertEquals(1.0, in.readDouble());
+            }
+            assertEquals(-1, in.read());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.jonbackhaus.visualizer.TestElements;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EdgePrunerTest {
+
+    // Pairs {0,1}: 5 and 1 back, {1,2}: 3, {2,3}: 1, {0,3}: 2; node 4 is an orphan
+    private static RelationshipGraph graph() {
+        SparseAdjacency adjacency = new SparseAdjacency(5);
+        adjacency.add(0, 1, 5);
+        adjacency.add(1, 0, 1);
+        adjacency.add(1, 2, 3);
+        adjacency.add(2, 3, 1);
+        adjacency.add(0, 3, 2);
+        return TestElements.graph(adjacency);
+    }
+
+    @Test
+    void activeOnlyWithALimit() {
+        assertFalse(new EdgePruner(0, 1).isActive());
+        assertTrue(new EdgePruner(1, 0).isActive());
+        assertTrue(new EdgePruner(0, 2).isActive());
+    }
+
+    @Test
+    void keepsTheHeaviestPairs() {
+        EdgePruner.Result result = new EdgePruner(2, 0).prune(graph());
+
+        assertEquals(2, result.getDroppedEdges());
+        assertEquals(1, result.getDroppedNodes());
+        RelationshipGraph pruned = result.getGraph();
+        assertEquals(Arrays.asList("n0", "n1", "n2", "n4"), pruned.getNames());
+        SparseAdjacency adjacency = pruned.getAdjacency();
+        assertEquals(3, adjacency.edgeCount());
+        assertEquals(5.0, adjacency.get(0, 1));
+        assertEquals(1.0, adjacency.get(1, 0));
+        assertEquals(3.0, adjacency.get(1, 2));
+    }
+
+    @Test
+    void dropsPairsBelowTheMinimumWeight() {
+        EdgePruner.Result result = new EdgePruner(0, 3).prune(graph());
+
+        assertEquals(2, result.getDroppedEdges());
+        assertEquals(1, result.getDroppedNodes());
+        assertEquals(3, result.getGraph().getAdjacency().edgeCount());
+    }
+
+    @Test
+    void keepsEverythingUnderTheLimit() {
+        EdgePruner.Result result = new EdgePruner(10, 0).prune(graph());
+
+        assertEquals(0, result.getDroppedEdges());
+        assertEquals(0, result.getDroppedNodes());
+        assertEquals(5, result.getGraph().size());
+        assertEquals(5, result.getGraph().getAdjacency().edgeCount());
+    }
+}
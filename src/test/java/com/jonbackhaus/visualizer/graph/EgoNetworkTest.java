@@ -0,0 +1,57 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.jonbackhaus.visualizer.TestElements;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EgoNetworkTest {
+
+    // Chain n0 - n1 - n2 -> n3, n4 on its own
+    private static RelationshipGraph graph() {
+        SparseAdjacency adjacency = new SparseAdjacency(5);
+        TestElements.link(adjacency, 0, 1, 1);
+        TestElements.link(adjacency, 1, 2, 1);
+        adjacency.add(2, 3, 1);
+        return TestElements.graph(adjacency);
+    }
+
+    @Test
+    void focusKeepsNodesWithinTheHops() {
+        EgoNetwork.Result result = new EgoNetwork(graph()).focus(1, 1);
+
+        assertEquals(Arrays.asList("n0", "n1", "n2"), result.getGraph().getNames());
+        assertEquals(1, result.getCenter());
+        assertEquals(4, result.getGraph().getAdjacency().edgeCount());
+    }
+
+    @Test
+    void focusFollowsEdgesInEitherDirection() {
+        EgoNetwork.Result result = new EgoNetwork(graph()).focus(3, 2);
+
+        assertEquals(Arrays.asList("n1", "n2", "n3"), result.getGraph().getNames());
+        assertEquals(2, result.getCenter());
+        assertEquals(1.0, result.getGraph().getAdjacency().get(1, 2));
+    }
+
+    @Test
+    void focusNeverReachesDisconnectedNodes() {
+        EgoNetwork network = new EgoNetwork(graph());
+
+        assertEquals(Arrays.asList("n0", "n1", "n2", "n3"), network.focus(0, 10).getGraph().getNames());
+        EgoNetwork.Result alone = network.focus(4, 3);
+        assertEquals(Arrays.asList("n4"), alone.getGraph().getNames());
+        assertEquals(0, alone.getCenter());
+    }
+
+    @Test
+    void indexOfFindsSourceElements() {
+        RelationshipGraph graph = graph();
+        EgoNetwork network = new EgoNetwork(graph);
+
+        assertEquals(2, network.indexOf(graph.getElements().get(2)));
+        assertEquals(-1, network.indexOf(TestElements.element("n2")));
+    }
+}
@@ -0,0 +1,94 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.jonbackhaus.visualizer.TestElements;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphAggregatorTest {
+
+    private final GraphAggregator aggregator = new GraphAggregator(GraphAggregator.Grouping.OWNER, 1, Element::getID);
+
+    private Element ownerA;
+    private Element relationship;
+    private RelationshipGraph graph;
+
+    // a1 and a2 are owned by A, b1 by B and c by C; a1 - b1 carries a relationship
+    @BeforeEach
+    void setUp() {
+        ownerA = TestElements.element("A");
+        List<Element> elements = Arrays.asList(
+                TestElements.element("a1", ownerA),
+                TestElements.element("a2", ownerA),
+                TestElements.element("b1", TestElements.element("B")),
+                TestElements.element("c", TestElements.element("C")));
+        SparseAdjacency adjacency = new SparseAdjacency(4);
+        TestElements.link(adjacency, 0, 2, 1);
+        TestElements.link(adjacency, 1, 2, 2);
+        TestElements.link(adjacency, 0, 1, 1);
+        TestElements.link(adjacency, 3, 0, 1);
+        relationship = TestElements.element("r");
+        Map<Long, List<Element>> relationships = new HashMap<>();
+        relationships.put(SparseAdjacency.key(0, 2), Collections.singletonList(relationship));
+        graph = new RelationshipGraph(elements, Arrays.asList("a1", "a2", "b1", "c"), adjacency,
+                relationships, 4);
+    }
+
+    @Test
+    void groupsByOwnerAndShowsSingleMembersAsThemselves() {
+        GraphAggregator.Aggregation aggregation = aggregator.aggregate(graph, null);
+        RelationshipGraph grouped = aggregation.getGraph();
+
+        assertEquals(Arrays.asList("A (2)", "b1", "c"), grouped.getNames());
+        assertSame(ownerA, grouped.getElements().get(0));
+        assertTrue(aggregation.isGroup(0));
+        assertFalse(aggregation.isGroup(1));
+        assertEquals(1, aggregation.getGroupCount());
+
+        SparseAdjacency adjacency = grouped.getAdjacency();
+        assertEquals(3.0, adjacency.get(0, 1));
+        assertEquals(3.0, adjacency.get(1, 0));
+        assertEquals(2.0, adjacency.get(0, 0));
+        assertEquals(1.0, adjacency.get(2, 0));
+        assertTrue(grouped.getRelationships(0, 1).isEmpty());
+    }
+
+    @Test
+    void expandRestoresTheSourceGraph() {
+        GraphAggregator.Aggregation expanded = aggregator.aggregate(graph, null).expand(0);
+        RelationshipGraph result = expanded.getGraph();
+
+        assertEquals(graph.getNames(), result.getNames());
+        assertEquals(0, expanded.getGroupCount());
+        for (int r = 0; r < graph.size(); r++) {
+            for (int c = 0; c < graph.size(); c++) {
+                assertEquals(graph.getAdjacency().get(r, c), result.getAdjacency().get(r, c));
+            }
+        }
+        assertEquals(Collections.singletonList(relationship), result.getRelationships(2, 0));
+    }
+
+    @Test
+    void expandIgnoresSingleElements() {
+        GraphAggregator.Aggregation aggregation = aggregator.aggregate(graph, null);
+        assertSame(aggregation, aggregation.expand(1));
+        assertSame(aggregation, aggregation.expand(5));
+    }
+
+    @Test
+    void parsesGroupingSettings() {
+        assertEquals(GraphAggregator.Grouping.ANCESTOR, GraphAggregator.parseGrouping("Ancestor"));
+        assertEquals(null, GraphAggregator.parseGrouping("None"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.jonbackhaus.visualizer.TestElements;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Association;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Dependency;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Generalization;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Property;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Relationship;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Edge-centric extraction must count binary associations, single-source and
+ * single-target directed relationships and other relationships exactly as the
+ * node-centric scan it replaced.
+ */
+class GraphExtractorTest {
+
+    // A, B and C are the graph's elements; D is outside it, so relationships to D are dropped
+    private final List<Element> nodes = new ArrayList<>();
+    private final List<List<Element>> related = new ArrayList<>();
+    private List<Element> elements;
+
+    @BeforeEach
+    void setUp() {
+        for (String id : new String[]{"A", "B", "C", "D"}) {
+            List<Element> relationships = new ArrayList<>();
+            related.add(relationships);
+            nodes.add(TestElements.element(Type.class, id, "get_relationshipOfRelatedElement", relationships));
+        }
+        elements = nodes.subList(0, 3);
+
+        association("A-B", 0, 1);
+        association("B-A", 1, 0);
+        association("A-A", 0, 0);
+        association("B-D", 1, 3);
+        directed(Dependency.class, "Dependency", "A->C", 0, 2);
+        directed(Dependency.class, "Dependency", "C->A", 2, 0);
+        directed(Dependency.class, "Usage", "B->C", 1, 2);
+        directed(Dependency.class, "Dependency", "C->C", 2, 2);
+        directed(Generalization.class, "Generalization", "C->B", 2, 1);
+        directed(Dependency.class, "Dependency", "D->A", 3, 0);
+        other("B~C", 1, 2);
+        other("A~A", 0, 0);
+        other("A~D", 0, 3);
+    }
+
+    private Element node(int index) {
+        return nodes.get(index);
+    }
+
+    private void relate(Relationship relationship, int... ends) {
+        for (int end : ends) {
+            if (!related.get(end).contains(relationship)) {
+                related.get(end).add(relationship);
+            }
+        }
+    }
+
+    private void association(String id, int source, int target) {
+        List<Element> ends = Arrays.asList(node(source), node(target));
+        List<Property> memberEnds = Arrays.asList(
+                TestElements.element(Property.class, id + ".0", "getType", ends.get(0)),
+                TestElements.element(Property.class, id + ".1", "getType", ends.get(1)));
+        relate(TestElements.element(Association.class, id, "getHumanType", "Association",
+                "getMemberEnd", memberEnds, "getRelatedElement", ends), source, target);
+    }
+
+    private void directed(Class<? extends Relationship> type, String humanType, String id, int source, int target) {
+        relate(TestElements.element(type, id, "getHumanType", humanType,
+                "getSource", Collections.singletonList(node(source)),
+                "getTarget", Collections.singletonList(node(target)),
+                "getRelatedElement", Arrays.asList(node(source), node(target))), source, target);
+    }
+
+    private void other(String id, int first, int second) {
+        relate(TestElements.element(Relationship.class, id, "getHumanType", "Information Flow",
+                "getRelatedElement", Arrays.asList(node(first), node(second))), first, second);
+    }
+
+    @Test
+    void edgeCentricMatchesNodeCentric() {
+        List<String> names = Arrays.asList("A", "B", "C");
+        LayeredGraph edgeCentric = new GraphExtractor().buildLayers(elements, names, false);
+        LayeredGraph nodeCentric = new GraphExtractor().buildLayers(elements, names, true);
+
+        for (RelationKind kind : RelationKind.values()) {
+            assertEquals(nodeCentric.getRelationshipCount(kind), edgeCentric.getRelationshipCount(kind), kind.name());
+            RelationshipGraph expected = nodeCentric.merge(EnumSet.of(kind));
+            RelationshipGraph actual = edgeCentric.merge(EnumSet.of(kind));
+            assertArrayEquals(expected.getDegrees(), actual.getDegrees(), kind.name());
+            for (int r = 0; r < names.size(); r++) {
+                for (int c = 0; c < names.size(); c++) {
+                    String cell = kind + " [" + r + "][" + c + "]";
+                    assertEquals(nodeCentric.getLayer(kind).get(r, c), edgeCentric.getLayer(kind).get(r, c), cell);
+                    assertEquals(ids(expected.getRelationships(r, c)), ids(actual.getRelationships(r, c)), cell);
+                }
+            }
+        }
+    }
+
+    @Test
+    void relationshipsFallIntoTheirKinds() {
+        LayeredGraph layers = new GraphExtractor().buildLayers(elements, Arrays.asList("A", "B", "C"), false);
+
+        assertEquals(3, layers.getRelationshipCount(RelationKind.ASSOCIATION));
+        assertEquals(3, layers.getRelationshipCount(RelationKind.DEPENDENCY));
+        assertEquals(1, layers.getRelationshipCount(RelationKind.USAGE));
+        assertEquals(1, layers.getRelationshipCount(RelationKind.GENERALIZATION));
+        // B~C in both directions; the self-relationship A~A relates nothing
+        assertEquals(2, layers.getRelationshipCount(RelationKind.OTHER));
+        assertEquals(2.0, layers.getLayer(RelationKind.ASSOCIATION).get(0, 0));
+        assertEquals(2.0, layers.getLayer(RelationKind.ASSOCIATION).get(0, 1));
+    }
+
+    private static List<String> ids(List<Element> links) {
+        List<String> ids = new ArrayList<>();
+        for (Element link : links) {
+            ids.add(link.getID());
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,62 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.jonbackhaus.visualizer.TestElements;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class NodeFilterTest {
+
+    // Degrees: n0 3, n1 2, n2 2, n3 1, n4 0
+    private static RelationshipGraph graph() {
+        SparseAdjacency adjacency = new SparseAdjacency(5);
+        TestElements.link(adjacency, 0, 1, 1);
+        TestElements.link(adjacency, 0, 2, 1);
+        TestElements.link(adjacency, 0, 3, 1);
+        TestElements.link(adjacency, 1, 2, 1);
+        return TestElements.graph(adjacency);
+    }
+
+    @Test
+    void inactiveWithoutLimits() {
+        assertFalse(new NodeFilter(0, 0, 0).isActive());
+    }
+
+    @Test
+    void minimumDegreeOneDropsOrphans() {
+        NodeFilter.Result result = new NodeFilter(1, 0, 0).filter(graph());
+
+        assertEquals(1, result.getDroppedNodes());
+        assertEquals(Arrays.asList("n0", "n1", "n2", "n3"), result.getGraph().getNames());
+    }
+
+    @Test
+    void keepsTheDegreeRange() {
+        NodeFilter.Result result = new NodeFilter(2, 2, 0).filter(graph());
+
+        assertEquals(3, result.getDroppedNodes());
+        assertEquals(Arrays.asList("n1", "n2"), result.getGraph().getNames());
+        assertEquals(1.0, result.getGraph().getAdjacency().get(0, 1));
+    }
+
+    @Test
+    void topNodesKeepsTiesInModelOrder() {
+        NodeFilter.Result result = new NodeFilter(0, 0, 2).filter(graph());
+
+        assertEquals(3, result.getDroppedNodes());
+        assertEquals(Arrays.asList("n0", "n1"), result.getGraph().getNames());
+    }
+
+    @Test
+    void unchangedGraphIsReturnedAsIs() {
+        RelationshipGraph graph = graph();
+        NodeFilter.Result result = new NodeFilter(0, 0, 5).filter(graph);
+
+        assertEquals(0, result.getDroppedNodes());
+        assertSame(graph, result.getGraph());
+    }
+}
@@ -0,0 +1,82 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.jonbackhaus.visualizer.TestElements;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProgressiveChunkerTest {
+
+    // Degrees: n0 1, n1 4, n2 2, n3 4, n4 1
+    private static RelationshipGraph graph() {
+        SparseAdjacency adjacency = new SparseAdjacency(5);
+        TestElements.link(adjacency, 1, 3, 3);
+        TestElements.link(adjacency, 0, 1, 1);
+        TestElements.link(adjacency, 2, 3, 1);
+        TestElements.link(adjacency, 2, 4, 1);
+        return TestElements.graph(adjacency);
+    }
+
+    @Test
+    void rankByDegreeOrdersHubsFirstAndKeepsTies() {
+        RelationshipGraph ranked = ProgressiveChunker.rankByDegree(graph());
+
+        assertEquals(Arrays.asList("n1", "n3", "n2", "n0", "n4"), ranked.getNames());
+        assertEquals(3.0, ranked.getAdjacency().get(0, 1));
+        assertEquals(1.0, ranked.getAdjacency().get(3, 0));
+    }
+
+    @Test
+    void planSendsEveryEdgeOnceAfterBothNodes() {
+        RelationshipGraph ranked = ProgressiveChunker.rankByDegree(graph());
+        SparseAdjacency adjacency = ranked.getAdjacency();
+        List<ProgressiveChunker.Chunk> chunks = new ProgressiveChunker(2, 2).plan(ranked);
+
+        int[] sent = new int[adjacency.edgeCount()];
+        int revealed = 0;
+        for (ProgressiveChunker.Chunk chunk : chunks) {
+            assertEquals(revealed, chunk.getFromNode());
+            revealed = chunk.getToNode();
+            assertTrue(chunk.getEdges().length <= 2);
+            double previous = Double.MAX_VALUE;
+            for (int e : chunk.getEdges()) {
+                sent[e]++;
+                assertTrue(Math.max(adjacency.rowAt(e), adjacency.columnAt(e)) < chunk.getToNode());
+                if (Math.max(adjacency.rowAt(e), adjacency.columnAt(e)) < 2) {
+                    assertTrue(adjacency.weightAt(e) <= previous);
+                    previous = adjacency.weightAt(e);
+                }
+            }
+        }
+
+        assertEquals(ranked.size(), revealed);
+        for (int count : sent) {
+            assertEquals(1, count);
+        }
+    }
+
+    @Test
+    void firstChunkCarriesTheHeaviestHubEdges() {
+        RelationshipGraph ranked = ProgressiveChunker.rankByDegree(graph());
+        List<ProgressiveChunker.Chunk> chunks = new ProgressiveChunker(2, 10).plan(ranked);
+
+        ProgressiveChunker.Chunk first = chunks.get(0);
+        assertEquals(0, first.getFromNode());
+        assertEquals(2, first.getToNode());
+        assertEquals(2, first.getEdges().length);
+        for (int e : first.getEdges()) {
+            assertEquals(3.0, ranked.getAdjacency().weightAt(e));
+        }
+        assertEquals(3, chunks.size());
+    }
+
+    @Test
+    void emptyGraphHasNoChunks() {
+        RelationshipGraph empty = TestElements.graph(new SparseAdjacency(0));
+        assertTrue(new ProgressiveChunker(2, 2).plan(empty).isEmpty());
+    }
+}
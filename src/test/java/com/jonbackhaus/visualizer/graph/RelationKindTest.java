@@ -0,0 +1,70 @@
+package com.jonbackhaus.visualizer.graph;
+
+import com.jonbackhaus.visualizer.TestElements;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Relationship;
+import com.nomagic.uml2.ext.magicdraw.compositestructures.mdinternalstructures.Connector;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RelationKindTest {
+
+    private static RelationKind kindOf(String humanType) {
+        return RelationKind.of(TestElements.element(Relationship.class, humanType, "getHumanType", humanType));
+    }
+
+    @Test
+    void classifiesByHumanType() {
+        assertEquals(RelationKind.DEPENDENCY, kindOf("Dependency"));
+        assertEquals(RelationKind.ASSOCIATION, kindOf("Association"));
+        assertEquals(RelationKind.ASSOCIATION, kindOf("Association Class"));
+        assertEquals(RelationKind.GENERALIZATION, kindOf("Generalization"));
+        assertEquals(RelationKind.REALIZATION, kindOf("Interface Realization"));
+        assertEquals(RelationKind.USAGE, kindOf("Usage"));
+        assertEquals(RelationKind.OTHER, kindOf("Allocate"));
+        assertEquals(RelationKind.CONNECTOR, RelationKind.of(TestElements.element(Connector.class, "c")));
+    }
+
+    @Test
+    void criteriaMatchTheKind() {
+        Relationship usage = TestElements.element(Relationship.class, "u", "getHumanType", "Usage");
+
+        assertTrue(GraphExtractor.matchesRelationCriteria(usage, "Usage"));
+        assertFalse(GraphExtractor.matchesRelationCriteria(usage, "Dependency"));
+        assertTrue(GraphExtractor.matchesRelationCriteria(usage, "Dependency, Usage"));
+        assertFalse(GraphExtractor.matchesRelationCriteria(usage, "Connector"));
+        assertFalse(GraphExtractor.matchesRelationCriteria(usage, ""));
+        assertTrue(GraphExtractor.matchesRelationCriteria(usage, "Any"));
+    }
+
+    @Test
+    void anyLeavesConnectorsOut() {
+        EnumSet<RelationKind> any = RelationKind.parse("Any");
+
+        assertFalse(any.contains(RelationKind.CONNECTOR));
+        assertEquals(RelationKind.values().length - 1, any.size());
+        assertEquals(any, RelationKind.parse(null));
+    }
+
+    @Test
+    void connectorsAreAddedExplicitly() {
+        EnumSet<RelationKind> kinds = RelationKind.parse("Any,Connector");
+
+        assertTrue(kinds.contains(RelationKind.CONNECTOR));
+        assertEquals(EnumSet.allOf(RelationKind.class), kinds);
+    }
+
+    @Test
+    void formatRoundTrips() {
+        assertEquals("Any", RelationKind.format(RelationKind.parse("Any")));
+        assertEquals("Any,Connector", RelationKind.format(EnumSet.allOf(RelationKind.class)));
+        assertEquals("Dependency,Connector",
+                RelationKind.format(EnumSet.of(RelationKind.DEPENDENCY, RelationKind.CONNECTOR)));
+        assertEquals("", RelationKind.format(EnumSet.noneOf(RelationKind.class)));
+        assertEquals(EnumSet.of(RelationKind.USAGE, RelationKind.OTHER), RelationKind.parse("Usage, Other"));
+    }
+}
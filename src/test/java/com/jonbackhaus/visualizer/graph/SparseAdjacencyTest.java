@@ -0,0 +1,79 @@
+package com.jonbackhaus.visualizer.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SparseAdjacencyTest {
+
+    @Test
+    void keyRoundTrips() {
+        long key = SparseAdjacency.key(70000, Integer.MAX_VALUE);
+        assertEquals(70000, SparseAdjacency.rowOf(key));
+        assertEquals(Integer.MAX_VALUE, SparseAdjacency.columnOf(key));
+        assertEquals(SparseAdjacency.key(3, 0), SparseAdjacency.key(3, 0));
+        assertEquals(0, SparseAdjacency.columnOf(SparseAdjacency.key(3, 0)));
+    }
+
+    @Test
+    void addAccumulatesIntoOneEdge() {
+        SparseAdjacency adjacency = new SparseAdjacency(3);
+        adjacency.add(0, 1, 1);
+        adjacency.add(1, 0, 2);
+        adjacency.add(0, 1, 3);
+
+        assertEquals(2, adjacency.edgeCount());
+        assertEquals(4.0, adjacency.get(0, 1));
+        assertEquals(2.0, adjacency.get(1, 0));
+        assertEquals(0.0, adjacency.get(2, 0));
+        assertEquals(0, adjacency.rowAt(0));
+        assertEquals(1, adjacency.columnAt(0));
+        assertEquals(4.0, adjacency.weightAt(0));
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        SparseAdjacency adjacency = new SparseAdjacency(100);
+        for (int i = 0; i < 99; i++) {
+            adjacency.add(i, i + 1, i);
+        }
+        assertEquals(99, adjacency.edgeCount());
+        assertEquals(42.0, adjacency.get(42, 43));
+        assertEquals(98, adjacency.rowAt(98));
+    }
+
+    @Test
+    void connectedNodesIgnoresZeroWeights() {
+        SparseAdjacency adjacency = new SparseAdjacency(4);
+        adjacency.add(0, 1, 1);
+        adjacency.add(2, 3, 0);
+
+        assertArrayEquals(new boolean[]{true, true, false, false}, adjacency.connectedNodes());
+    }
+
+    @Test
+    void remapDropsAndRenumbersNodes() {
+        SparseAdjacency adjacency = new SparseAdjacency(4);
+        adjacency.add(0, 1, 1);
+        adjacency.add(1, 3, 2);
+        adjacency.add(3, 2, 3);
+
+        SparseAdjacency remapped = adjacency.remap(new int[]{-1, 0, 2, 1}, 3);
+        assertEquals(3, remapped.size());
+        assertEquals(2, remapped.edgeCount());
+        assertEquals(2.0, remapped.get(0, 1));
+        assertEquals(3.0, remapped.get(1, 2));
+    }
+
+    @Test
+    void denseMatrixHasEveryCell() {
+        SparseAdjacency adjacency = new SparseAdjacency(2);
+        adjacency.add(0, 1, 2);
+        adjacency.add(1, 1, 1);
+
+        double[][] matrix = adjacency.toDenseMatrix();
+        assertArrayEquals(new double[]{0, 2}, matrix[0]);
+        assertArrayEquals(new double[]{0, 1}, matrix[1]);
+    }
+}